@@ -0,0 +1,50 @@
+package com.davidje13.path;
+
+public enum Backend {
+	ARRAY {
+		@Override
+		public <NodeT, EdgeT> PathBuilder<NodeT, EdgeT, ?> builder(NodeT node) {
+			return ArrayPath.builder(node);
+		}
+	},
+	LINKED {
+		@Override
+		public <NodeT, EdgeT> PathBuilder<NodeT, EdgeT, ?> builder(NodeT node) {
+			return LinkedPath.builder(node);
+		}
+	},
+	ROPE {
+		@Override
+		public <NodeT, EdgeT> PathBuilder<NodeT, EdgeT, ?> builder(NodeT node) {
+			return RopePath.builder(node);
+		}
+	};
+
+	public abstract <NodeT, EdgeT> PathBuilder<NodeT, EdgeT, ?> builder(NodeT node);
+
+	/**
+	 * Build a path of the given size where node {@code i} is {@code i} and
+	 * the edge before node {@code i} is {@code -i}.
+	 *
+	 * @param nodes the number of nodes to include
+	 * @return the new path
+	 */
+	public ImmutablePath<Integer, Integer> buildPath(int nodes) {
+		return buildPath(0, nodes);
+	}
+
+	/**
+	 * Build a path of the given size starting from the given node value.
+	 *
+	 * @param first the value of the first node
+	 * @param nodes the number of nodes to include
+	 * @return the new path
+	 */
+	public ImmutablePath<Integer, Integer> buildPath(int first, int nodes) {
+		PathBuilder<Integer, Integer, ?> builder = builder(first);
+		for (int i = first + 1; i < first + nodes; ++ i) {
+			builder.pushBack(-i, i);
+		}
+		return builder.build();
+	}
+}
@@ -0,0 +1,65 @@
+package com.davidje13.path;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BuildBenchmark {
+	@Param({"ARRAY", "LINKED", "ROPE"})
+	public Backend backend;
+
+	@Param({"1", "100", "10000", "1000000", "10000000"})
+	public int size;
+
+	private ImmutablePath<Integer, Integer> path;
+
+	@Setup
+	public void setup() {
+		path = backend.buildPath(size);
+	}
+
+	@Benchmark
+	public ImmutablePath<Integer, Integer> pushBack() {
+		PathBuilder<Integer, Integer, ?> builder = backend.builder(0);
+		for (int i = 1; i < size; ++ i) {
+			builder.pushBack(-i, i);
+		}
+		return builder.build();
+	}
+
+	@Benchmark
+	public ImmutablePath<Integer, Integer> pushFront() {
+		PathBuilder<Integer, Integer, ?> builder = backend.builder(0);
+		for (int i = 1; i < size; ++ i) {
+			builder.pushFront(i, -i);
+		}
+		return builder.build();
+	}
+
+	@Benchmark
+	public ImmutablePath<Integer, Integer> pushBackPath() {
+		PathBuilder<Integer, Integer, ?> builder = backend.builder(0);
+		return builder.pushBack(0, path).build();
+	}
+
+	@Benchmark
+	public ImmutablePath<Integer, Integer> builderFromPath() {
+		return path.toBuilder().build();
+	}
+}
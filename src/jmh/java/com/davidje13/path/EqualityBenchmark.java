@@ -0,0 +1,55 @@
+package com.davidje13.path;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EqualityBenchmark {
+	@Param({"ARRAY", "LINKED", "ROPE"})
+	public Backend backend;
+
+	@Param({"1", "100", "10000", "1000000", "10000000"})
+	public int size;
+
+	private ImmutablePath<Integer, Integer> path;
+	private ImmutablePath<Integer, Integer> equalPath;
+	private ImmutablePath<Integer, Integer> differentHeadPath;
+
+	@Setup
+	public void setup() {
+		path = backend.buildPath(size);
+		equalPath = backend.buildPath(size);
+		differentHeadPath = backend.buildPath(1, size);
+	}
+
+	@Benchmark
+	public boolean equalsEqual() {
+		return path.equals(equalPath);
+	}
+
+	@Benchmark
+	public boolean equalsDifferentHead() {
+		return path.equals(differentHeadPath);
+	}
+
+	@Benchmark
+	public int hashCodeRepeated() {
+		return path.hashCode();
+	}
+}
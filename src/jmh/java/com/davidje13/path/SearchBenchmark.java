@@ -0,0 +1,59 @@
+package com.davidje13.path;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+	@Param({"ARRAY", "LINKED", "ROPE"})
+	public Backend backend;
+
+	@Param({"1", "100", "10000", "1000000", "10000000"})
+	public int size;
+
+	private ImmutablePath<Integer, Integer> path;
+	private ImmutablePath<Integer, Integer> tailPattern;
+
+	@Setup
+	public void setup() {
+		path = backend.buildPath(size);
+		int patternSize = Math.min(size, 8);
+		tailPattern = backend.buildPath(size - patternSize, patternSize);
+	}
+
+	@Benchmark
+	public ImmutablePath<Integer, Integer> subPath() {
+		return path.subPath(size / 4, size - 1 - size / 4);
+	}
+
+	@Benchmark
+	public int firstIndexOfSubPath() {
+		return path.firstIndexOfSubPath(tailPattern);
+	}
+
+	@Benchmark
+	public boolean startsWith() {
+		return path.startsWith(tailPattern);
+	}
+
+	@Benchmark
+	public boolean endsWith() {
+		return path.endsWith(tailPattern);
+	}
+}
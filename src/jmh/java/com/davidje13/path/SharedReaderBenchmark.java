@@ -0,0 +1,61 @@
+package com.davidje13.path;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Every thread reads the same path instance; compare against the
+ * single-threaded TraversalBenchmark to see how reads scale.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(Threads.MAX)
+public class SharedReaderBenchmark {
+	@Param({"ARRAY", "LINKED", "ROPE"})
+	public Backend backend;
+
+	@Param({"100", "10000", "1000000"})
+	public int size;
+
+	private ImmutablePath<Integer, Integer> path;
+
+	@Setup
+	public void setup() {
+		path = backend.buildPath(size);
+	}
+
+	@Benchmark
+	public void visitPairsFromHead(Blackhole blackhole) {
+		path.visitPairsFromHead((edge, node) -> {
+			blackhole.consume(edge);
+			blackhole.consume(node);
+		});
+	}
+
+	@Benchmark
+	public int countNodes() {
+		return path.countNodes();
+	}
+
+	@Benchmark
+	public int hashCodeShared() {
+		return path.hashCode();
+	}
+}
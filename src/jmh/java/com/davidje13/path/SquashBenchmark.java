@@ -0,0 +1,86 @@
+package com.davidje13.path;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SquashBenchmark {
+	private static final int GROUP_SIZE = 4;
+
+	@Param({"ARRAY", "LINKED", "ROPE"})
+	public Backend backend;
+
+	@Param({"1", "100", "10000", "1000000", "10000000"})
+	public int size;
+
+	private final PathSquasher pathSquasher = new PathSquasher();
+	private ImmutablePath<Integer, Integer> path;
+	private ImmutablePath<Integer, Integer> squashedPath;
+
+	@Setup
+	public void setup() {
+		path = backend.buildPath(size);
+		squashedPath = squash();
+	}
+
+	@Benchmark
+	public ImmutablePath<Integer, Integer> squashNodes() {
+		return squash();
+	}
+
+	@Benchmark
+	public ImmutablePath<Integer, Integer> squashNodesInParallel() {
+		return pathSquasher.squashNodesInParallel(
+				path,
+				(node1, node2) -> (node1 / GROUP_SIZE) == (node2 / GROUP_SIZE),
+				(group) -> group.getHead() / GROUP_SIZE,
+				(edge) -> edge,
+				backend::builder
+		);
+	}
+
+	@Benchmark
+	public ImmutablePath<Integer, Integer> expandNodes() {
+		return pathSquasher.expandNodes(
+				squashedPath,
+				(node) -> backend.buildPath(node * GROUP_SIZE, GROUP_SIZE),
+				(edge) -> edge,
+				backend::builder
+		);
+	}
+
+	@Benchmark
+	public Integer expandNodesLazilyThenGetNode() {
+		return pathSquasher.expandNodesLazily(
+				squashedPath,
+				(node) -> backend.buildPath(node * GROUP_SIZE, GROUP_SIZE),
+				(edge) -> edge
+		).getNode(GROUP_SIZE - 1);
+	}
+
+	private ImmutablePath<Integer, Integer> squash() {
+		return pathSquasher.squashNodes(
+				path,
+				(node1, node2) -> (node1 / GROUP_SIZE) == (node2 / GROUP_SIZE),
+				(group) -> group.getHead() / GROUP_SIZE,
+				(edge) -> edge,
+				backend::builder
+		);
+	}
+}
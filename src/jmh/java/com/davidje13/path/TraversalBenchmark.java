@@ -0,0 +1,73 @@
+package com.davidje13.path;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TraversalBenchmark {
+	@Param({"ARRAY", "LINKED", "ROPE"})
+	public Backend backend;
+
+	@Param({"1", "100", "10000", "1000000", "10000000"})
+	public int size;
+
+	private ImmutablePath<Integer, Integer> path;
+
+	@Setup
+	public void setup() {
+		path = backend.buildPath(size);
+	}
+
+	@Benchmark
+	public void visitPairsFromHead(Blackhole blackhole) {
+		path.visitPairsFromHead((edge, node) -> {
+			blackhole.consume(edge);
+			blackhole.consume(node);
+		});
+	}
+
+	@Benchmark
+	public void visitPairsFromTail(Blackhole blackhole) {
+		path.visitPairsFromTail((edge, node) -> {
+			blackhole.consume(edge);
+			blackhole.consume(node);
+		});
+	}
+
+	@Benchmark
+	public long nodesStream() {
+		return path.nodes().mapToLong(Integer::longValue).sum();
+	}
+
+	@Benchmark
+	public long nodesParallelStream() {
+		return path.nodes().parallel().mapToLong(Integer::longValue).sum();
+	}
+
+	@Benchmark
+	public int countNodes() {
+		return path.countNodes();
+	}
+
+	@Benchmark
+	public Integer getNodeMiddle() {
+		return path.getNode(size / 2);
+	}
+}
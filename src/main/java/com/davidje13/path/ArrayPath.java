@@ -1,18 +1,46 @@
 package com.davidje13.path;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.BiConsumer;
-
-import static java.util.Collections.singletonList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public class ArrayPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
-	private final List<EdgeNodeWrapper<NodeT, EdgeT>> items;
+	private static final Object[] NO_EDGES = new Object[0];
+	private static final int DEFAULT_CAPACITY = 10;
+
+	// edges[i] joins nodes[i] and nodes[i + 1]. Sub paths share these arrays
+	// with their parent, so only the range [offset, offset + size) is ours.
+	private final Object[] nodes;
+	private final Object[] edges;
+	private final int offset;
+	private final int size;
 
 	public static <NodeT, EdgeT> ArrayPathBuilder<NodeT, EdgeT> builder(
 			NodeT node
 	) {
-		return new ArrayPathBuilder<>(node);
+		return new ArrayPathBuilder<>(node, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Create a builder with room for the given number of nodes. Building a
+	 * path of exactly this size will not need to copy or resize the storage.
+	 *
+	 * @param node the first node in the path
+	 * @param expectedSize the expected number of nodes in the final path
+	 * @return a new builder
+	 */
+	public static <NodeT, EdgeT> ArrayPathBuilder<NodeT, EdgeT> builder(
+			NodeT node,
+			int expectedSize
+	) {
+		return new ArrayPathBuilder<>(node, Math.max(expectedSize, 1));
 	}
 
 	public static <NodeT, EdgeT> ArrayPathBuilder<NodeT, EdgeT> builder(
@@ -30,11 +58,41 @@ public class ArrayPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
 	}
 
 	public ArrayPath(NodeT singleNode) {
-		items = singletonList(new EdgeNodeWrapper<>(null, singleNode));
+		this(new Object[] { singleNode }, NO_EDGES, 0, 1);
+	}
+
+	private ArrayPath(Object[] nodes, Object[] edges, int offset, int size) {
+		this.nodes = nodes;
+		this.edges = edges;
+		this.offset = offset;
+		this.size = size;
+	}
+
+	// Wraps arrays which were filled by copyInto. The arrays must not be
+	// modified afterwards.
+	static <NodeT, EdgeT> ArrayPath<NodeT, EdgeT> wrap(Object[] nodes, Object[] edges) {
+		if (PathMetrics.ENABLED) {
+			PathMetrics.built(ArrayPath.class);
+		}
+		return new ArrayPath<>(nodes, edges, 0, nodes.length);
 	}
 
-	private ArrayPath(List<EdgeNodeWrapper<NodeT, EdgeT>> items) {
-		this.items = items;
+	// Copies the nodes of a path into nodes[offset...] and its edges into
+	// edges[offset...], so that separate threads can fill disjoint ranges
+	static void copyInto(
+			ImmutablePath<?, ?> path,
+			Object[] nodes,
+			Object[] edges,
+			int offset
+	) {
+		if (path instanceof ArrayPath) {
+			ArrayPath<?, ?> arrayPath = (ArrayPath<?, ?>) path;
+			System.arraycopy(arrayPath.nodes, arrayPath.offset, nodes, offset, arrayPath.size);
+			System.arraycopy(arrayPath.edges, arrayPath.offset, edges, offset, arrayPath.size - 1);
+		} else {
+			ArrayWriter writer = new ArrayWriter(nodes, edges, offset);
+			path.visitFromHead(writer::node, writer::edge);
+		}
 	}
 
 	@Override
@@ -42,23 +100,30 @@ public class ArrayPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
 		return builder(node);
 	}
 
+	@Override
+	public ArrayPathBuilder<NodeT, EdgeT> toBuilder() {
+		return builder(this);
+	}
+
 	@Override
 	public NodeT getHead() {
-		return items.get(0).node;
+		return node(0);
 	}
 
 	@Override
 	public NodeT getTail() {
-		return items.get(items.size() - 1).node;
+		return node(size - 1);
 	}
 
 	@Override
 	public void visitPairsFromHead(
 			BiConsumer<? super EdgeT, ? super NodeT> visitor
 	) {
-		for (int i = 1; i < items.size(); ++ i) {
-			EdgeNodeWrapper<NodeT, EdgeT> wrapper = items.get(i);
-			visitor.accept(wrapper.edge, wrapper.node);
+		if (PathMetrics.ENABLED) {
+			PathMetrics.visited(size * 2 - 2);
+		}
+		for (int i = 1; i < size; ++ i) {
+			visitor.accept(edge(i - 1), node(i));
 		}
 	}
 
@@ -67,37 +132,331 @@ public class ArrayPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
 	public void visitPairsFromTail(
 			BiConsumer<? super EdgeT, ? super NodeT> visitor
 	) {
-		for (int i = items.size(); (i --) > 1;) {
-			visitor.accept(items.get(i).edge, items.get(i - 1).node);
+		if (PathMetrics.ENABLED) {
+			PathMetrics.visited(size * 2 - 2);
+		}
+		for (int i = size - 1; (i --) > 0;) {
+			visitor.accept(edge(i), node(i));
+		}
+	}
+
+	@Override
+	public void visitFromHead(
+			Consumer<? super NodeT> nodeVisitor,
+			Consumer<? super EdgeT> edgeVisitor
+	) {
+		if (PathMetrics.ENABLED) {
+			PathMetrics.visited(size * 2 - 1);
+		}
+		nodeVisitor.accept(node(0));
+		for (int i = 1; i < size; ++ i) {
+			edgeVisitor.accept(edge(i - 1));
+			nodeVisitor.accept(node(i));
+		}
+	}
+
+	@Override
+	@SuppressWarnings("ValueOfIncrementOrDecrementUsed")
+	public void visitFromTail(
+			Consumer<? super NodeT> nodeVisitor,
+			Consumer<? super EdgeT> edgeVisitor
+	) {
+		if (PathMetrics.ENABLED) {
+			PathMetrics.visited(size * 2 - 1);
+		}
+		nodeVisitor.accept(node(size - 1));
+		for (int i = size - 1; (i --) > 0;) {
+			edgeVisitor.accept(edge(i));
+			nodeVisitor.accept(node(i));
+		}
+	}
+
+	@Override
+	public NodeT getNode(int nodeIndex) {
+		if (nodeIndex < 0 || nodeIndex >= size) {
+			throw new IndexOutOfBoundsException(
+					"Invalid node index: " + nodeIndex +
+					" (nodes in path: " + size + ")"
+			);
+		}
+		return node(nodeIndex);
+	}
+
+	@Override
+	public EdgeT getEdge(int edgeIndex) {
+		if (edgeIndex < 0 || edgeIndex >= size - 1) {
+			throw new IndexOutOfBoundsException(
+					"Invalid edge index: " + edgeIndex +
+					" (edges in path: " + (size - 1) + ")"
+			);
+		}
+		return edge(edgeIndex);
+	}
+
+	/**
+	 * Create a sub path from the start node index (inclusive) to the end node
+	 * index (also inclusive).
+	 *
+	 * The returned path is a view which shares storage with this path, so it
+	 * is created in constant time. Use {@link #compact()} on the result if
+	 * this path needs to be garbage collected while the sub path lives on.
+	 *
+	 * @param startNodeIndex the index of the first node to include in the
+	 *                       sub path
+	 * @param endNodeIndex the index of the last node to include in the sub path
+	 * @return a path containing the requested sub path
+	 * @throws IndexOutOfBoundsException if the requested range is invalid
+	 */
+	@Override
+	public ArrayPath<NodeT, EdgeT> subPath(
+			int startNodeIndex,
+			int endNodeIndex
+	) {
+		if (startNodeIndex < 0 || endNodeIndex < startNodeIndex) {
+			throw new IndexOutOfBoundsException(
+					"Invalid range: " + startNodeIndex + " -- " + endNodeIndex
+			);
 		}
+		if (endNodeIndex >= size) {
+			throw new IndexOutOfBoundsException(
+					"Invalid range: " + startNodeIndex + " -- " + endNodeIndex +
+					" (nodes in path: " + size + ")"
+			);
+		}
+		long started = PathMetrics.ENABLED ? PathMetrics.start() : 0;
+		ArrayPath<NodeT, EdgeT> result = (startNodeIndex == 0 && endNodeIndex == size - 1)
+				? this
+				: new ArrayPath<>(
+						nodes,
+						edges,
+						offset + startNodeIndex,
+						endNodeIndex - startNodeIndex + 1
+				);
+		if (PathMetrics.ENABLED) {
+			PathMetrics.record(PathMetrics.Operation.SUB_PATH, started, result.size);
+		}
+		return result;
+	}
+
+	/**
+	 * Return a path which does not share storage with any other path. If this
+	 * path is a view created by {@link #subPath(int, int)}, the relevant
+	 * range is copied. Otherwise this path is returned unchanged.
+	 *
+	 * @return a path equal to this path which holds no references to unused
+	 * nodes or edges
+	 */
+	public ArrayPath<NodeT, EdgeT> compact() {
+		if (offset == 0 && nodes.length == size) {
+			return this;
+		}
+		return new ArrayPath<>(
+				Arrays.copyOfRange(nodes, offset, offset + size),
+				(size == 1) ? NO_EDGES : Arrays.copyOfRange(edges, offset, offset + size - 1),
+				0,
+				size
+		);
+	}
+
+	@Override
+	public boolean startsWith(ImmutablePath<NodeT, EdgeT> subPath) {
+		int subSize = subPath.countNodes();
+		if (subSize > size) {
+			return false;
+		}
+		ElementMatcher matcher = new ElementMatcher(0);
+		return subPath.visitFromHeadWhile(matcher::matchNode, matcher::matchEdge);
+	}
+
+	@Override
+	public boolean endsWith(ImmutablePath<NodeT, EdgeT> subPath) {
+		int subSize = subPath.countNodes();
+		if (subSize > size) {
+			return false;
+		}
+		ElementMatcher matcher = new ElementMatcher(size - subSize);
+		return subPath.visitFromHeadWhile(matcher::matchNode, matcher::matchEdge);
+	}
+
+	@Override
+	public boolean visitFromHeadWhile(
+			Predicate<? super NodeT> nodeVisitor,
+			Predicate<? super EdgeT> edgeVisitor
+	) {
+		return CursorVisits.fromHeadWhile(this, nodeVisitor, edgeVisitor);
+	}
+
+	@Override
+	public boolean visitFromTailWhile(
+			Predicate<? super NodeT> nodeVisitor,
+			Predicate<? super EdgeT> edgeVisitor
+	) {
+		return CursorVisits.fromTailWhile(this, nodeVisitor, edgeVisitor);
 	}
 
 	@Override
 	public int countNodes() {
-		return items.size();
+		return size;
+	}
+
+	@Override
+	boolean hasFastCursor() {
+		return true;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Spliterator<NodeT> nodeSpliterator() {
+		return (Spliterator<NodeT>) Spliterators.spliterator(
+				nodes,
+				offset,
+				offset + size,
+				Spliterator.ORDERED | Spliterator.IMMUTABLE
+		);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Spliterator<EdgeT> edgeSpliterator() {
+		return (Spliterator<EdgeT>) Spliterators.spliterator(
+				edges,
+				offset,
+				offset + size - 1,
+				Spliterator.ORDERED | Spliterator.IMMUTABLE
+		);
+	}
+
+	@Override
+	public Spliterator<Map.Entry<EdgeT, NodeT>> pairSpliterator() {
+		return IndexedSpliterator.pairs(this);
+	}
+
+	@Override
+	public List<NodeT> getNodesFromHead() {
+		@SuppressWarnings("unchecked")
+		List<NodeT> all = Arrays.asList((NodeT[]) nodes);
+		return new ArrayList<>(all.subList(offset, offset + size));
+	}
+
+	@Override
+	public List<EdgeT> getEdgesFromHead() {
+		@SuppressWarnings("unchecked")
+		List<EdgeT> all = Arrays.asList((EdgeT[]) edges);
+		return new ArrayList<>(all.subList(offset, offset + size - 1));
+	}
+
+	@Override
+	protected boolean contentEquals(ImmutablePath<?, ?> that) {
+		if (that instanceof ArrayPath) {
+			ArrayPath<?, ?> other = (ArrayPath<?, ?>) that;
+			for (int i = 0; i < size - 1; ++ i) {
+				if (
+						!Objects.equals(nodes[offset + i], other.nodes[other.offset + i]) ||
+						!Objects.equals(edges[offset + i], other.edges[other.offset + i])
+				) {
+					return false;
+				}
+			}
+			return Objects.equals(getTail(), other.getTail());
+		}
+
+		ElementMatcher matcher = new ElementMatcher(0);
+		return that.visitFromHeadWhile(matcher::matchNode, matcher::matchEdge);
+	}
+
+	@SuppressWarnings("unchecked")
+	private NodeT node(int index) {
+		return (NodeT) nodes[offset + index];
+	}
+
+	@SuppressWarnings("unchecked")
+	private EdgeT edge(int index) {
+		return (EdgeT) edges[offset + index];
+	}
+
+	// Compares visited elements against this path from the given node index,
+	// returning false (to stop the visit) at the first mismatch
+	private class ElementMatcher {
+		private int index;
+
+		private ElementMatcher(int startNodeIndex) {
+			index = startNodeIndex;
+		}
+
+		private boolean matchNode(Object node) {
+			return Objects.equals(node, nodes[offset + index]);
+		}
+
+		private boolean matchEdge(Object edge) {
+			boolean matches = Objects.equals(edge, edges[offset + index]);
+			++ index;
+			return matches;
+		}
+	}
+
+	private static class ArrayWriter {
+		private final Object[] nodes;
+		private final Object[] edges;
+		private int nodeIndex;
+		private int edgeIndex;
+
+		private ArrayWriter(Object[] nodes, Object[] edges, int offset) {
+			this.nodes = nodes;
+			this.edges = edges;
+			this.nodeIndex = offset;
+			this.edgeIndex = offset;
+		}
+
+		private void node(Object node) {
+			nodes[nodeIndex] = node;
+			++ nodeIndex;
+		}
+
+		private void edge(Object edge) {
+			edges[edgeIndex] = edge;
+			++ edgeIndex;
+		}
 	}
 
 	public static class ArrayPathBuilder<NodeT, EdgeT>
 			implements PathBuilder<NodeT, EdgeT, ArrayPathBuilder<NodeT, EdgeT>> {
-		private List<EdgeNodeWrapper<NodeT, EdgeT>> items;
+		// Double-ended buffer: the path occupies [start, start + size) of
+		// nodes, and edges[i] joins nodes[i] and nodes[i + 1]
+		private Object[] nodes;
+		private Object[] edges;
+		private int start;
+		private int size;
 
-		private ArrayPathBuilder(NodeT node) {
-			reset(node);
+		private ArrayPathBuilder(NodeT node, int capacity) {
+			reset(node, capacity);
 		}
 
 		private ArrayPathBuilder(ImmutablePath<NodeT, EdgeT> basePath) {
-			this(basePath.getHead());
-			basePath.visitPairsFromHead(this::pushBack);
+			if (basePath instanceof ArrayPath) {
+				ArrayPath<NodeT, EdgeT> arrayPath = (ArrayPath<NodeT, EdgeT>) basePath;
+				int capacity = Math.max(arrayPath.size + (arrayPath.size >> 1), DEFAULT_CAPACITY);
+				nodes = new Object[capacity];
+				edges = new Object[capacity - 1];
+				start = 0;
+				size = arrayPath.size;
+				System.arraycopy(arrayPath.nodes, arrayPath.offset, nodes, 0, size);
+				System.arraycopy(arrayPath.edges, arrayPath.offset, edges, 0, size - 1);
+			} else {
+				reset(basePath.getHead(), Math.max(basePath.countNodes(), DEFAULT_CAPACITY));
+				basePath.visitPairsFromHead(this::pushBack);
+			}
 		}
 
 		@Override
+		@SuppressWarnings("unchecked")
 		public NodeT getHead() {
-			return items.get(0).node;
+			return (NodeT) nodes[start];
 		}
 
 		@Override
+		@SuppressWarnings("unchecked")
 		public NodeT getTail() {
-			return items.get(items.size() - 1).node;
+			return (NodeT) nodes[start + size - 1];
 		}
 
 		@Override
@@ -105,7 +464,10 @@ public class ArrayPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
 				EdgeT edge,
 				NodeT node
 		) {
-			items.add(new EdgeNodeWrapper<>(edge, node));
+			ensureBackCapacity(1);
+			edges[start + size - 1] = edge;
+			nodes[start + size] = node;
+			++ size;
 
 			return this;
 		}
@@ -115,39 +477,156 @@ public class ArrayPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
 				NodeT node,
 				EdgeT edge
 		) {
-			items.get(0).edge = edge;
-			items.add(0, new EdgeNodeWrapper<>(null, node));
+			ensureFrontCapacity(1);
+			-- start;
+			nodes[start] = node;
+			edges[start] = edge;
+			++ size;
+
+			return this;
+		}
+
+		@Override
+		public ArrayPathBuilder<NodeT, EdgeT> pushBack(
+				EdgeT edge,
+				ImmutablePath<NodeT, EdgeT> path
+		) {
+			if (!(path instanceof ArrayPath)) {
+				return PathBuilder.super.pushBack(edge, path);
+			}
+			ArrayPath<NodeT, EdgeT> arrayPath = (ArrayPath<NodeT, EdgeT>) path;
+			ensureBackCapacity(arrayPath.size);
+			edges[start + size - 1] = edge;
+			System.arraycopy(arrayPath.nodes, arrayPath.offset, nodes, start + size, arrayPath.size);
+			System.arraycopy(arrayPath.edges, arrayPath.offset, edges, start + size, arrayPath.size - 1);
+			size += arrayPath.size;
+
+			return this;
+		}
+
+		@Override
+		public ArrayPathBuilder<NodeT, EdgeT> pushFront(
+				ImmutablePath<NodeT, EdgeT> path,
+				EdgeT edge
+		) {
+			if (!(path instanceof ArrayPath)) {
+				return PathBuilder.super.pushFront(path, edge);
+			}
+			ArrayPath<NodeT, EdgeT> arrayPath = (ArrayPath<NodeT, EdgeT>) path;
+			ensureFrontCapacity(arrayPath.size);
+			start -= arrayPath.size;
+			System.arraycopy(arrayPath.nodes, arrayPath.offset, nodes, start, arrayPath.size);
+			System.arraycopy(arrayPath.edges, arrayPath.offset, edges, start, arrayPath.size - 1);
+			edges[start + arrayPath.size - 1] = edge;
+			size += arrayPath.size;
 
 			return this;
 		}
 
 		@Override
 		public ArrayPathBuilder<NodeT, EdgeT> reset(NodeT node) {
-			items = new ArrayList<>();
-			items.add(new EdgeNodeWrapper<>(null, node));
+			return reset(node, DEFAULT_CAPACITY);
+		}
+
+		private ArrayPathBuilder<NodeT, EdgeT> reset(NodeT node, int capacity) {
+			nodes = new Object[capacity];
+			edges = new Object[capacity - 1];
+			nodes[0] = node;
+			start = 0;
+			size = 1;
 
 			return this;
 		}
 
 		@Override
 		public ArrayPath<NodeT, EdgeT> build() {
-			ArrayPath<NodeT, EdgeT> path = new ArrayPath<>(items);
+			ArrayPath<NodeT, EdgeT> path = new ArrayPath<>(
+					trim(nodes, start, size),
+					(size == 1) ? NO_EDGES : trim(edges, start, size - 1),
+					0,
+					size
+			);
 			invalidate();
+			if (PathMetrics.ENABLED) {
+				PathMetrics.built(ArrayPath.class);
+			}
 			return path;
 		}
 
-		private void invalidate() {
-			items = null;
+		/**
+		 * Build the path, using a {@link SmallPath} if it has no more than
+		 * {@link SmallPath#MAX_NODES} nodes. Like {@link #build()}, this
+		 * invalidates the builder.
+		 *
+		 * @return the built path
+		 */
+		@SuppressWarnings("unchecked")
+		public ImmutablePath<NodeT, EdgeT> buildCompact() {
+			if (size > SmallPath.MAX_NODES) {
+				return build();
+			}
+			ImmutablePath<NodeT, EdgeT> path;
+			if (size == 1) {
+				path = SmallPath.of((NodeT) nodes[start]);
+			} else if (size == 2) {
+				path = SmallPath.of(
+						(NodeT) nodes[start],
+						(EdgeT) edges[start],
+						(NodeT) nodes[start + 1]
+				);
+			} else {
+				path = SmallPath.of(
+						(NodeT) nodes[start],
+						(EdgeT) edges[start],
+						(NodeT) nodes[start + 1],
+						(EdgeT) edges[start + 1],
+						(NodeT) nodes[start + 2]
+				);
+			}
+			invalidate();
+			return path;
 		}
-	}
 
-	private static class EdgeNodeWrapper<NodeT, EdgeT> {
-		private EdgeT edge;
-		private final NodeT node;
+		private void ensureBackCapacity(int extra) {
+			if (start + size + extra > nodes.length) {
+				grow(extra, false);
+			}
+		}
 
-		private EdgeNodeWrapper(EdgeT edge, NodeT node) {
-			this.edge = edge;
-			this.node = node;
+		private void ensureFrontCapacity(int extra) {
+			if (extra > start) {
+				grow(extra, true);
+			}
+		}
+
+		// Reallocate with room for at least extra more nodes at the chosen
+		// end. Capacity grows geometrically, and the spare space is shared
+		// between both ends, so pushes at either end are amortised O(1).
+		private void grow(int extra, boolean atFront) {
+			int required = size + extra;
+			int capacity = Math.max(required, nodes.length + (nodes.length >> 1));
+			int spare = capacity - required;
+			int newStart = atFront ? (extra + spare / 2) : (spare / 2);
+
+			Object[] newNodes = new Object[capacity];
+			Object[] newEdges = new Object[capacity - 1];
+			System.arraycopy(nodes, start, newNodes, newStart, size);
+			System.arraycopy(edges, start, newEdges, newStart, size - 1);
+			nodes = newNodes;
+			edges = newEdges;
+			start = newStart;
+		}
+
+		private static Object[] trim(Object[] array, int from, int length) {
+			if (from == 0 && array.length == length) {
+				return array;
+			}
+			return Arrays.copyOfRange(array, from, from + length);
+		}
+
+		private void invalidate() {
+			nodes = null;
+			edges = null;
 		}
 	}
 }
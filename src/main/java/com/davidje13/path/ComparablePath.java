@@ -3,6 +3,9 @@ package com.davidje13.path;
 import java.util.Objects;
 
 public abstract class ComparablePath<NodeT, EdgeT> implements ImmutablePath<NodeT, EdgeT> {
+	// Lazily calculated; 0 means not calculated yet (as in String.hashCode)
+	private int hash;
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) {
@@ -12,15 +15,77 @@ public abstract class ComparablePath<NodeT, EdgeT> implements ImmutablePath<Node
 			return false;
 		}
 		ImmutablePath<?, ?> that = (ImmutablePath<?, ?>) o;
-		return (
-				Objects.equals(getNodesFromHead(), that.getNodesFromHead()) &&
-				Objects.equals(getEdgesFromHead(), that.getEdgesFromHead())
-		);
+		if (that instanceof ComparablePath) {
+			int thatHash = ((ComparablePath<?, ?>) that).hash;
+			if (hash != 0 && thatHash != 0 && hash != thatHash) {
+				return false;
+			}
+		}
+		int nodes = countNodes();
+		if (nodes != that.countNodes()) {
+			return false;
+		}
+		if (!PathMetrics.ENABLED) {
+			return contentEquals(that);
+		}
+		long started = PathMetrics.start();
+		boolean result = contentEquals(that);
+		PathMetrics.record(PathMetrics.Operation.EQUALS, started, nodes);
+		return result;
+	}
+
+	/**
+	 * Compare the nodes and edges of this path with another path which is
+	 * known to have the same number of nodes.
+	 *
+	 * Subclasses can override this to provide faster comparisons against
+	 * paths with a compatible storage format.
+	 *
+	 * @param that the path to compare against
+	 * @return true if all nodes and edges are equal
+	 */
+	protected boolean contentEquals(ImmutablePath<?, ?> that) {
+		if (that instanceof ArrayPath) {
+			return ((ArrayPath<?, ?>) that).contentEquals(this);
+		}
+
+		if (that instanceof ComparablePath && ((ComparablePath<?, ?>) that).hasFastCursor()) {
+			CursorMatcher matcher = new CursorMatcher(that.cursor());
+			return visitFromHeadWhile(matcher::matchNode, matcher::matchEdge);
+		}
+
+		// The other path can only be visited, so buffer it to compare against
+		Object[] thatElements = new Object[that.countNodes() * 2 - 1];
+		ElementCursor writer = new ElementCursor(thatElements);
+		that.visitFromHead(writer::write, writer::write);
+
+		ElementCursor reader = new ElementCursor(thatElements);
+		return visitFromHeadWhile(reader::match, reader::match);
+	}
+
+	/**
+	 * @return true if {@link #cursor()} moves in constant (or amortised
+	 * constant) time, so that other paths can compare against it in lockstep
+	 * instead of buffering its elements
+	 */
+	boolean hasFastCursor() {
+		return false;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(getNodesFromHead(), getEdgesFromHead());
+		int h = hash;
+		if (h == 0) {
+			long started = PathMetrics.ENABLED ? PathMetrics.start() : 0;
+			HashAccumulator accumulator = new HashAccumulator();
+			visitFromHead(accumulator::addNode, accumulator::addEdge);
+			h = accumulator.get();
+			hash = h;
+			if (PathMetrics.ENABLED) {
+				PathMetrics.record(PathMetrics.Operation.HASH_CODE, started, accumulator.nodes);
+			}
+		}
+		return h;
 	}
 
 	@Override
@@ -33,4 +98,44 @@ public abstract class ComparablePath<NodeT, EdgeT> implements ImmutablePath<Node
 		builder.setLength(builder.length() - 2);
 		return builder.toString();
 	}
+
+	private static class ElementCursor {
+		private final Object[] elements;
+		private int index = 0;
+
+		private ElementCursor(Object[] elements) {
+			this.elements = elements;
+		}
+
+		private void write(Object element) {
+			elements[index] = element;
+			++ index;
+		}
+
+		private boolean match(Object element) {
+			boolean matches = Objects.equals(element, elements[index]);
+			++ index;
+			return matches;
+		}
+	}
+
+	// Produces the same values as Objects.hash(getNodesFromHead(), getEdgesFromHead())
+	private static class HashAccumulator {
+		private int nodeHash = 1;
+		private int edgeHash = 1;
+		private int nodes = 0;
+
+		private void addNode(Object node) {
+			nodeHash = 31 * nodeHash + Objects.hashCode(node);
+			++ nodes;
+		}
+
+		private void addEdge(Object edge) {
+			edgeHash = 31 * edgeHash + Objects.hashCode(edge);
+		}
+
+		private int get() {
+			return 31 * (31 + nodeHash) + edgeHash;
+		}
+	}
 }
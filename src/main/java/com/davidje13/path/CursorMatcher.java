@@ -0,0 +1,36 @@
+package com.davidje13.path;
+
+import java.util.Objects;
+
+/**
+ * Compares visited nodes and edges against the elements under a
+ * {@link PathCursor}, moving the cursor forwards after each edge. Used with
+ * {@link ImmutablePath#visitFromHeadWhile} to compare paths in place, so the
+ * visit stops at the first mismatch.
+ */
+final class CursorMatcher {
+	private final PathCursor<?, ?> cursor;
+
+	CursorMatcher(PathCursor<?, ?> cursor) {
+		this.cursor = cursor;
+	}
+
+	boolean matchNode(Object node) {
+		return Objects.equals(node, cursor.getNode());
+	}
+
+	boolean matchEdge(Object edge) {
+		if (!cursor.hasNext() || !Objects.equals(edge, cursor.getNextEdge())) {
+			return false;
+		}
+		cursor.next();
+		return true;
+	}
+
+	/**
+	 * @return true if the cursor has reached the end of its path
+	 */
+	boolean atEnd() {
+		return !cursor.hasNext();
+	}
+}
@@ -0,0 +1,49 @@
+package com.davidje13.path;
+
+import java.util.function.Predicate;
+
+/**
+ * Short-circuiting visits which step a {@link PathCursor}. Backends with
+ * constant-time cursor moves (or indexed access) use these for
+ * {@link ImmutablePath#visitFromHeadWhile(Predicate, Predicate)} and
+ * {@link ImmutablePath#visitFromTailWhile(Predicate, Predicate)}, so that
+ * visits stop reading the path as soon as a visitor returns false.
+ */
+final class CursorVisits {
+	private CursorVisits() {
+	}
+
+	static <NodeT, EdgeT> boolean fromHeadWhile(
+			ImmutablePath<NodeT, EdgeT> path,
+			Predicate<? super NodeT> nodeVisitor,
+			Predicate<? super EdgeT> edgeVisitor
+	) {
+		PathCursor<NodeT, EdgeT> cursor = path.cursor();
+		if (!nodeVisitor.test(cursor.getNode())) {
+			return false;
+		}
+		while (cursor.hasNext()) {
+			if (!edgeVisitor.test(cursor.getNextEdge()) || !nodeVisitor.test(cursor.next())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static <NodeT, EdgeT> boolean fromTailWhile(
+			ImmutablePath<NodeT, EdgeT> path,
+			Predicate<? super NodeT> nodeVisitor,
+			Predicate<? super EdgeT> edgeVisitor
+	) {
+		PathCursor<NodeT, EdgeT> cursor = path.cursor();
+		if (!nodeVisitor.test(cursor.seek(path.countNodes() - 1))) {
+			return false;
+		}
+		while (cursor.hasPrev()) {
+			if (!edgeVisitor.test(cursor.getPrevEdge()) || !nodeVisitor.test(cursor.prev())) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
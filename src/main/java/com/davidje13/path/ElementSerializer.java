@@ -0,0 +1,77 @@
+package com.davidje13.path;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts nodes or edges to and from bytes for {@link PathCodec}. Values may
+ * use any number of bytes; the codec records the length of each value.
+ *
+ * @param <T> the type of value being serialized
+ */
+public interface ElementSerializer<T> {
+	ElementSerializer<String> STRING = new ElementSerializer<String>() {
+		@Override
+		public void write(DataOutput output, String value) throws IOException {
+			output.write(value.getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public String read(ByteBuffer buffer) {
+			return StandardCharsets.UTF_8.decode(buffer).toString();
+		}
+	};
+
+	ElementSerializer<Integer> INT = new ElementSerializer<Integer>() {
+		@Override
+		public void write(DataOutput output, Integer value) throws IOException {
+			output.writeInt(value);
+		}
+
+		@Override
+		public Integer read(ByteBuffer buffer) {
+			return buffer.getInt(buffer.position());
+		}
+	};
+
+	ElementSerializer<Long> LONG = new ElementSerializer<Long>() {
+		@Override
+		public void write(DataOutput output, Long value) throws IOException {
+			output.writeLong(value);
+		}
+
+		@Override
+		public Long read(ByteBuffer buffer) {
+			return buffer.getLong(buffer.position());
+		}
+	};
+
+	ElementSerializer<Double> DOUBLE = new ElementSerializer<Double>() {
+		@Override
+		public void write(DataOutput output, Double value) throws IOException {
+			output.writeDouble(value);
+		}
+
+		@Override
+		public Double read(ByteBuffer buffer) {
+			return buffer.getDouble(buffer.position());
+		}
+	};
+
+	/**
+	 * @param output the destination for the encoded value
+	 * @param value the value to encode
+	 * @throws IOException if the output cannot be written
+	 */
+	void write(DataOutput output, T value) throws IOException;
+
+	/**
+	 * @param buffer a buffer containing exactly one encoded value, between
+	 *               its position and limit. The buffer is not shared, so it
+	 *               can be read with relative operations.
+	 * @return the decoded value
+	 */
+	T read(ByteBuffer buffer);
+}
@@ -0,0 +1,315 @@
+package com.davidje13.path;
+
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A lazily expanded view of a path, in which each source node is replaced by
+ * a path (see {@link PathSquasher#expandNodesLazily}).
+ *
+ * Source nodes are only expanded when they are accessed, and each expansion
+ * is remembered. Operations near the head (such as {@link #getNode(int)} with
+ * a small index, or {@link #startsWith(ImmutablePath)}) only expand as many
+ * nodes as they need.
+ *
+ * The source nodes and edges are copied when the view is created (in a
+ * single visit), so finding a source node does not depend on the source
+ * having fast indexed access.
+ *
+ * The view is safe to use from several threads. If threads access the same
+ * node for the first time concurrently, the expander may be called more than
+ * once, but only one result is kept. Reads within the part of the path which
+ * has already been measured do not lock.
+ */
+final class ExpandedPath<InNodeT, InEdgeT, NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
+	private final Object[] sourceNodes;
+	private final Object[] sourceEdges;
+	private final Function<InNodeT, ImmutablePath<NodeT, EdgeT>> nodeExpander;
+	private final Function<InEdgeT, EdgeT> edgeConverter;
+	private final AtomicReferenceArray<ImmutablePath<NodeT, EdgeT>> expansions;
+
+	// starts[i] is the index of the first output node of expansion i. Only
+	// entries up to (and including) measured are known, and they never change
+	// once known. Entries are written before measured is incremented (under
+	// the lock), so reading measured makes them visible without locking.
+	private final int[] starts;
+	private volatile int measured = 0;
+
+	ExpandedPath(
+			ImmutablePath<InNodeT, InEdgeT> source,
+			Function<InNodeT, ImmutablePath<NodeT, EdgeT>> nodeExpander,
+			Function<InEdgeT, EdgeT> edgeConverter
+	) {
+		this.nodeExpander = nodeExpander;
+		this.edgeConverter = edgeConverter;
+
+		int count = source.countNodes();
+		this.sourceNodes = new Object[count];
+		this.sourceEdges = new Object[count - 1];
+		source.visitPairsFromHead(new ArrayWriter(sourceNodes, sourceEdges, source.getHead()));
+		this.expansions = new AtomicReferenceArray<>(count);
+		this.starts = new int[count + 1];
+	}
+
+	@Override
+	public ArrayPath.ArrayPathBuilder<NodeT, EdgeT> builderFromNode(NodeT node) {
+		return ArrayPath.builder(node);
+	}
+
+	@Override
+	public NodeT getHead() {
+		return expansion(0).getHead();
+	}
+
+	@Override
+	public NodeT getTail() {
+		return expansion(expansions.length() - 1).getTail();
+	}
+
+	@Override
+	public NodeT getNode(int nodeIndex) {
+		int index = locate(nodeIndex);
+		if (nodeIndex < 0 || index == -1) {
+			throw new IndexOutOfBoundsException("Invalid node index: " + nodeIndex);
+		}
+		return expansion(index).getNode(nodeIndex - start(index));
+	}
+
+	@Override
+	public EdgeT getEdge(int edgeIndex) {
+		int index = locate(edgeIndex + 1);
+		if (edgeIndex < 0 || index == -1) {
+			throw new IndexOutOfBoundsException("Invalid edge index: " + edgeIndex);
+		}
+		int start = start(index);
+		if (start == edgeIndex + 1) {
+			// the edge joins two expansions
+			return sourceEdge(index - 1);
+		}
+		return expansion(index).getEdge(edgeIndex - start);
+	}
+
+	@Override
+	public void visitPairsFromHead(BiConsumer<? super EdgeT, ? super NodeT> visitor) {
+		for (int index = 0; index < sourceNodes.length; ++ index) {
+			ImmutablePath<NodeT, EdgeT> expansion = expansion(index);
+			if (index > 0) {
+				visitor.accept(sourceEdge(index - 1), expansion.getHead());
+			}
+			expansion.visitPairsFromHead(visitor);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("ValueOfIncrementOrDecrementUsed")
+	public void visitPairsFromTail(BiConsumer<? super EdgeT, ? super NodeT> visitor) {
+		int last = sourceNodes.length - 1;
+		for (int index = sourceNodes.length; (index --) > 0;) {
+			ImmutablePath<NodeT, EdgeT> expansion = expansion(index);
+			if (index < last) {
+				visitor.accept(sourceEdge(index), expansion.getTail());
+			}
+			expansion.visitPairsFromTail(visitor);
+		}
+	}
+
+	// Expands source nodes as the visit reaches them, so a visit which stops
+	// early only expands the nodes it has seen
+	@Override
+	public boolean visitFromHeadWhile(
+			Predicate<? super NodeT> nodeVisitor,
+			Predicate<? super EdgeT> edgeVisitor
+	) {
+		for (int index = 0; index < sourceNodes.length; ++ index) {
+			if (index > 0 && !edgeVisitor.test(sourceEdge(index - 1))) {
+				return false;
+			}
+			if (!expansion(index).visitFromHeadWhile(nodeVisitor, edgeVisitor)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	@SuppressWarnings("ValueOfIncrementOrDecrementUsed")
+	public boolean visitFromTailWhile(
+			Predicate<? super NodeT> nodeVisitor,
+			Predicate<? super EdgeT> edgeVisitor
+	) {
+		int last = sourceNodes.length - 1;
+		for (int index = sourceNodes.length; (index --) > 0;) {
+			if (index < last && !edgeVisitor.test(sourceEdge(index))) {
+				return false;
+			}
+			if (!expansion(index).visitFromTailWhile(nodeVisitor, edgeVisitor)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Create a sub path from the start node index (inclusive) to the end node
+	 * index (also inclusive). Only the nodes up to the end of the range are
+	 * expanded.
+	 *
+	 * @param startNodeIndex the index of the first node to include in the
+	 *                       sub path
+	 * @param endNodeIndex the index of the last node to include in the sub path
+	 * @return a path containing the requested sub path
+	 * @throws IndexOutOfBoundsException if the requested range is invalid
+	 */
+	@Override
+	public ImmutablePath<NodeT, EdgeT> subPath(int startNodeIndex, int endNodeIndex) {
+		if (startNodeIndex < 0 || endNodeIndex < startNodeIndex) {
+			throw new IndexOutOfBoundsException(
+					"Invalid range: " + startNodeIndex + " -- " + endNodeIndex
+			);
+		}
+		int last = locate(endNodeIndex);
+		if (last == -1) {
+			throw new IndexOutOfBoundsException(
+					"Invalid range: " + startNodeIndex + " -- " + endNodeIndex +
+					" (nodes in path: " + countNodes() + ")"
+			);
+		}
+		int first = locate(startNodeIndex);
+		int firstStart = start(first);
+		int lastStart = start(last);
+
+		if (first == last) {
+			return expansion(first).subPath(
+					startNodeIndex - firstStart,
+					endNodeIndex - firstStart
+			);
+		}
+
+		ImmutablePath<NodeT, EdgeT> head = expansion(first).subPath(
+				startNodeIndex - firstStart,
+				start(first + 1) - firstStart - 1
+		);
+		ArrayPath.ArrayPathBuilder<NodeT, EdgeT> builder = builderFromNode(head.getHead());
+		head.visitPairsFromHead(builder::pushBack);
+		for (int index = first + 1; index < last; ++ index) {
+			builder.pushBack(sourceEdge(index - 1), expansion(index));
+		}
+		builder.pushBack(
+				sourceEdge(last - 1),
+				expansion(last).subPath(0, endNodeIndex - lastStart)
+		);
+		return builder.build();
+	}
+
+	@Override
+	public boolean startsWith(ImmutablePath<NodeT, EdgeT> subPath) {
+		int nodes = subPath.countNodes();
+		return locate(nodes - 1) != -1 && subPath(0, nodes - 1).equals(subPath);
+	}
+
+	@Override
+	public Spliterator<NodeT> nodeSpliterator() {
+		return IndexedSpliterator.nodes(this);
+	}
+
+	@Override
+	public Spliterator<EdgeT> edgeSpliterator() {
+		return IndexedSpliterator.edges(this);
+	}
+
+	@Override
+	public Spliterator<Map.Entry<EdgeT, NodeT>> pairSpliterator() {
+		return IndexedSpliterator.pairs(this);
+	}
+
+	@Override
+	public int countNodes() {
+		return measureUpTo(Integer.MAX_VALUE);
+	}
+
+	@SuppressWarnings("unchecked")
+	private ImmutablePath<NodeT, EdgeT> expansion(int index) {
+		ImmutablePath<NodeT, EdgeT> expansion = expansions.get(index);
+		if (expansion != null) {
+			return expansion;
+		}
+		expansion = nodeExpander.apply((InNodeT) sourceNodes[index]);
+		if (expansions.compareAndSet(index, null, expansion)) {
+			return expansion;
+		}
+		return expansions.get(index);
+	}
+
+	@SuppressWarnings("unchecked")
+	private EdgeT sourceEdge(int index) {
+		return edgeConverter.apply((InEdgeT) sourceEdges[index]);
+	}
+
+	// Only called with indices which locate has returned (or the next one),
+	// which are within the measured prefix
+	private int start(int index) {
+		return starts[index];
+	}
+
+	// Measure expansions until the given output node index is covered (or
+	// the end of the path is reached), and return the number of output nodes
+	// which have been measured. Expansions are created outside the lock, so
+	// that the expander never runs while other threads are waiting.
+	private int measureUpTo(int nodeIndex) {
+		int known = measured;
+		while (known < sourceNodes.length && starts[known] <= nodeIndex) {
+			int nodes = expansion(known).countNodes();
+			synchronized (this) {
+				if (measured == known) {
+					starts[known + 1] = starts[known] + nodes;
+					measured = known + 1;
+				}
+				known = measured;
+			}
+		}
+		return starts[known];
+	}
+
+	// Returns the index of the expansion which contains the given output node,
+	// or -1 if the node is beyond the end of the path
+	private int locate(int nodeIndex) {
+		if (nodeIndex < 0 || measureUpTo(nodeIndex) <= nodeIndex) {
+			return -1;
+		}
+		int low = 0;
+		int high = measured - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (starts[mid] <= nodeIndex) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	// Copies the source into arrays in a single visit
+	private static class ArrayWriter implements BiConsumer<Object, Object> {
+		private final Object[] nodes;
+		private final Object[] edges;
+		private int index = 0;
+
+		private ArrayWriter(Object[] nodes, Object[] edges, Object head) {
+			this.nodes = nodes;
+			this.edges = edges;
+			nodes[0] = head;
+		}
+
+		@Override
+		public void accept(Object edge, Object node) {
+			edges[index] = edge;
+			++ index;
+			nodes[index] = node;
+		}
+	}
+}
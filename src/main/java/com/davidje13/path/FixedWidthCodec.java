@@ -0,0 +1,83 @@
+package com.davidje13.path;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes values which always occupy the same number of bytes.
+ *
+ * Implementations must only use absolute get / put operations (which take an
+ * index) so that buffers can be shared between threads.
+ *
+ * @param <T> the type of value being encoded
+ */
+public interface FixedWidthCodec<T> {
+	FixedWidthCodec<Long> LONG = new FixedWidthCodec<Long>() {
+		@Override
+		public int width() {
+			return Long.BYTES;
+		}
+
+		@Override
+		public Long read(ByteBuffer buffer, int index) {
+			return buffer.getLong(index);
+		}
+
+		@Override
+		public void write(ByteBuffer buffer, int index, Long value) {
+			buffer.putLong(index, value);
+		}
+	};
+
+	FixedWidthCodec<Integer> INT = new FixedWidthCodec<Integer>() {
+		@Override
+		public int width() {
+			return Integer.BYTES;
+		}
+
+		@Override
+		public Integer read(ByteBuffer buffer, int index) {
+			return buffer.getInt(index);
+		}
+
+		@Override
+		public void write(ByteBuffer buffer, int index, Integer value) {
+			buffer.putInt(index, value);
+		}
+	};
+
+	FixedWidthCodec<Double> DOUBLE = new FixedWidthCodec<Double>() {
+		@Override
+		public int width() {
+			return Double.BYTES;
+		}
+
+		@Override
+		public Double read(ByteBuffer buffer, int index) {
+			return buffer.getDouble(index);
+		}
+
+		@Override
+		public void write(ByteBuffer buffer, int index, Double value) {
+			buffer.putDouble(index, value);
+		}
+	};
+
+	/**
+	 * @return the number of bytes used by each value
+	 */
+	int width();
+
+	/**
+	 * @param buffer the buffer to read from
+	 * @param index the byte index of the value
+	 * @return the decoded value
+	 */
+	T read(ByteBuffer buffer, int index);
+
+	/**
+	 * @param buffer the buffer to write to
+	 * @param index the byte index of the value
+	 * @param value the value to encode
+	 */
+	void write(ByteBuffer buffer, int index, T value);
+}
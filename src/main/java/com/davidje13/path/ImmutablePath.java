@@ -2,11 +2,17 @@ package com.davidje13.path;
 
 import com.davidje13.Box;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public interface ImmutablePath<NodeT, EdgeT> {
 	/**
@@ -40,6 +46,64 @@ public interface ImmutablePath<NodeT, EdgeT> {
 	 */
 	NodeT getTail();
 
+	/**
+	 * Fetch a node by index. The default implementation visits the path, so
+	 * runs in linear time; implementations override this where they can do
+	 * better.
+	 *
+	 * @param nodeIndex the index of the node to fetch
+	 * @return the requested node
+	 * @throws IndexOutOfBoundsException if the index is not within the path
+	 */
+	default NodeT getNode(int nodeIndex) {
+		if (nodeIndex == 0) {
+			return getHead();
+		}
+		Box<Integer> index = new Box<>(0);
+		Box<NodeT> found = new Box<>(null);
+		visitPairsFromHead((e, node) -> {
+			++ index.value;
+			if (index.value == nodeIndex) {
+				found.value = node;
+			}
+		});
+		if (nodeIndex < 0 || nodeIndex > index.value) {
+			throw new IndexOutOfBoundsException(
+					"Invalid node index: " + nodeIndex +
+					" (nodes in path: " + (index.value + 1) + ")"
+			);
+		}
+		return found.value;
+	}
+
+	/**
+	 * Fetch an edge by index. The default implementation visits the path, so
+	 * runs in linear time; implementations override this where they can do
+	 * better.
+	 *
+	 * @param edgeIndex the index of the edge to fetch (edge {@code i} joins
+	 *                  node {@code i} to node {@code i + 1})
+	 * @return the requested edge
+	 * @throws IndexOutOfBoundsException if the index is not within the path
+	 */
+	default EdgeT getEdge(int edgeIndex) {
+		Box<Integer> index = new Box<>(0);
+		Box<EdgeT> found = new Box<>(null);
+		visitPairsFromHead((edge, n) -> {
+			if (index.value == edgeIndex) {
+				found.value = edge;
+			}
+			++ index.value;
+		});
+		if (edgeIndex < 0 || edgeIndex >= index.value) {
+			throw new IndexOutOfBoundsException(
+					"Invalid edge index: " + edgeIndex +
+					" (edges in path: " + index.value + ")"
+			);
+		}
+		return found.value;
+	}
+
 	/**
 	 * Visit nodes and edges in order from the head of the path. Skips the
 	 * head node.
@@ -96,6 +160,69 @@ public interface ImmutablePath<NodeT, EdgeT> {
 		});
 	}
 
+	/**
+	 * Visit nodes and edges in order from the head of the path, stopping as
+	 * soon as a visitor returns false.
+	 *
+	 * The default implementation uses {@link #visitFromHead(Consumer, Consumer)},
+	 * so it reads the whole path (but does not call the visitors again after
+	 * one returns false). Implementations which can stop early should
+	 * override it.
+	 *
+	 * @param nodeVisitor lambda to call with each node; return false to stop
+	 * @param edgeVisitor lambda to call with each edge; return false to stop
+	 * @return true if every node and edge was visited
+	 */
+	default boolean visitFromHeadWhile(
+			Predicate<? super NodeT> nodeVisitor,
+			Predicate<? super EdgeT> edgeVisitor
+	) {
+		Box<Boolean> continuing = new Box<>(true);
+		visitFromHead(
+				(node) -> continuing.value = continuing.value && nodeVisitor.test(node),
+				(edge) -> continuing.value = continuing.value && edgeVisitor.test(edge)
+		);
+		return continuing.value;
+	}
+
+	/**
+	 * Visit nodes and edges in order from the tail of the path, stopping as
+	 * soon as a visitor returns false.
+	 *
+	 * The default implementation uses {@link #visitFromTail(Consumer, Consumer)},
+	 * so it reads the whole path (but does not call the visitors again after
+	 * one returns false). Implementations which can stop early should
+	 * override it.
+	 *
+	 * @param nodeVisitor lambda to call with each node; return false to stop
+	 * @param edgeVisitor lambda to call with each edge; return false to stop
+	 * @return true if every node and edge was visited
+	 */
+	default boolean visitFromTailWhile(
+			Predicate<? super NodeT> nodeVisitor,
+			Predicate<? super EdgeT> edgeVisitor
+	) {
+		Box<Boolean> continuing = new Box<>(true);
+		visitFromTail(
+				(node) -> continuing.value = continuing.value && nodeVisitor.test(node),
+				(edge) -> continuing.value = continuing.value && edgeVisitor.test(edge)
+		);
+		return continuing.value;
+	}
+
+	/**
+	 * Create a cursor positioned on the head node.
+	 *
+	 * The default implementation fetches nodes and edges with
+	 * {@link #getNode(int)} and {@link #getEdge(int)}, so implementations
+	 * without fast indexed access should override it.
+	 *
+	 * @return a new cursor over this path
+	 */
+	default PathCursor<NodeT, EdgeT> cursor() {
+		return new IndexedCursor<>(this);
+	}
+
 	default void visitGroupedFromHead(
 			BiPredicate<NodeT, NodeT> nodeEqualityTester,
 			Consumer<ImmutablePath<NodeT, EdgeT>> groupVisitor,
@@ -142,6 +269,10 @@ public interface ImmutablePath<NodeT, EdgeT> {
 	 * Create a sub path from the start node index (inclusive) to the end node
 	 * index (also inclusive).
 	 *
+	 * The default implementation copies the range into a new path in a single
+	 * visit from the head, which stops after the end of the range if
+	 * {@link #visitFromHeadWhile(Predicate, Predicate)} can stop early.
+	 *
 	 * @param startNodeIndex the index of the first node to include in the
 	 *                       sub path
 	 * @param endNodeIndex the index of the last node to include in the sub path
@@ -158,56 +289,55 @@ public interface ImmutablePath<NodeT, EdgeT> {
 			);
 		}
 
-		PathBuilder<NodeT, EdgeT, ? extends PathBuilder> builder = builderFromNode(getHead());
-		Box<Integer> index = new Box<>(1);
-		visitPairsFromHead((edge, node) -> {
-			if (index.value == startNodeIndex) {
-				builder.reset(node);
-			} else if (index.value > startNodeIndex && index.value <= endNodeIndex) {
-				builder.pushBack(edge, node);
-			}
-			++ index.value;
-		});
-		int size = index.value;
+		long started = PathMetrics.ENABLED ? PathMetrics.start() : 0;
+		SubPathCopy<NodeT, EdgeT> copy = new SubPathCopy<>(
+				builderFromNode(getHead()),
+				startNodeIndex,
+				endNodeIndex
+		);
+		visitFromHeadWhile(copy::node, copy::edge);
 
-		if (endNodeIndex >= size) {
+		// The visit only runs out of nodes before the end of the range if
+		// the range is beyond the end of the path
+		int visited = copy.visitedNodes();
+		if (endNodeIndex >= visited) {
 			throw new IndexOutOfBoundsException(
 					"Invalid range: " + startNodeIndex + " -- " + endNodeIndex +
-					" (nodes in path: " + size + ")"
+					" (nodes in path: " + visited + ")"
 			);
 		}
 
-		return builder.build();
+		ImmutablePath<NodeT, EdgeT> result = copy.builder().build();
+		if (PathMetrics.ENABLED) {
+			PathMetrics.record(
+					PathMetrics.Operation.SUB_PATH,
+					started,
+					endNodeIndex - startNodeIndex + 1
+			);
+		}
+		return result;
 	}
 
 	/**
+	 * Runs in O(n + m) time (where n and m are the lengths of this path and
+	 * the sub path).
+	 *
 	 * @param subPath the path to look for
 	 * @return the lowest index of the requested sub path, or -1 if not found
 	 */
 	default int firstIndexOfSubPath(ImmutablePath<NodeT, EdgeT> subPath) {
-		int size = countNodes();
-		int subSize = subPath.countNodes();
-		for (int i = 0; i <= size - subSize; ++ i) {
-			if (subPath(i, i + subSize - 1).equals(subPath)) {
-				return i;
-			}
-		}
-		return -1;
+		return SubPathSearch.firstIndexOf(this, subPath);
 	}
 
 	/**
+	 * Runs in O(n + m) time (where n and m are the lengths of this path and
+	 * the sub path).
+	 *
 	 * @param subPath the path to look for
 	 * @return the highest index of the requested sub path, or -1 if not found
 	 */
 	default int lastIndexOfSubPath(ImmutablePath<NodeT, EdgeT> subPath) {
-		int size = countNodes();
-		int subSize = subPath.countNodes();
-		for (int i = size - subSize; i >= 0; -- i) {
-			if (subPath(i, i + subSize - 1).equals(subPath)) {
-				return i;
-			}
-		}
-		return -1;
+		return SubPathSearch.lastIndexOf(this, subPath);
 	}
 
 	/**
@@ -224,12 +354,7 @@ public interface ImmutablePath<NodeT, EdgeT> {
 	 * false
 	 */
 	default boolean startsWith(ImmutablePath<NodeT, EdgeT> subPath) {
-		int size = countNodes();
-		int subSize = subPath.countNodes();
-		if (subSize > size) {
-			return false;
-		}
-		return subPath(0, subSize - 1).equals(subPath);
+		return SubPathSearch.startsWith(this, subPath);
 	}
 
 	/**
@@ -238,12 +363,7 @@ public interface ImmutablePath<NodeT, EdgeT> {
 	 * false
 	 */
 	default boolean endsWith(ImmutablePath<NodeT, EdgeT> subPath) {
-		int size = countNodes();
-		int subSize = subPath.countNodes();
-		if (subSize > size) {
-			return false;
-		}
-		return subPath(size - subSize, size - 1).equals(subPath);
+		return SubPathSearch.endsWith(this, subPath);
 	}
 
 	/**
@@ -263,6 +383,73 @@ public interface ImmutablePath<NodeT, EdgeT> {
 		return countNodes() - 1;
 	}
 
+	/**
+	 * Create a spliterator over the nodes, ordered from the head to the tail.
+	 * The default implementation visits the path, so only splits by
+	 * buffering; implementations with fast indexed access override this.
+	 *
+	 * @return a sized, ordered spliterator over the nodes
+	 */
+	default Spliterator<NodeT> nodeSpliterator() {
+		return new VisitSpliterator<>(
+				countNodes(),
+				(action) -> visitFromHead(action, (e) -> {})
+		);
+	}
+
+	/**
+	 * Create a spliterator over the edges, ordered from the head to the tail.
+	 * The default implementation visits the path, so only splits by
+	 * buffering; implementations with fast indexed access override this.
+	 *
+	 * @return a sized, ordered spliterator over the edges
+	 */
+	default Spliterator<EdgeT> edgeSpliterator() {
+		return new VisitSpliterator<>(
+				countEdges(),
+				(action) -> visitPairsFromHead((edge, n) -> action.accept(edge))
+		);
+	}
+
+	/**
+	 * Create a spliterator over edge, node pairs, ordered from the head to the
+	 * tail (the head node is skipped, as in
+	 * {@link #visitPairsFromHead(BiConsumer)}). Each entry's key is an edge
+	 * and its value is the node which follows that edge.
+	 *
+	 * @return a sized, ordered spliterator over the edge, node pairs
+	 */
+	default Spliterator<Map.Entry<EdgeT, NodeT>> pairSpliterator() {
+		return new VisitSpliterator<>(
+				countEdges(),
+				(action) -> visitPairsFromHead((edge, node) -> action.accept(
+						new AbstractMap.SimpleImmutableEntry<>(edge, node)
+				))
+		);
+	}
+
+	/**
+	 * @return a stream of nodes from the head to the tail
+	 */
+	default Stream<NodeT> nodes() {
+		return StreamSupport.stream(nodeSpliterator(), false);
+	}
+
+	/**
+	 * @return a stream of edges from the head to the tail
+	 */
+	default Stream<EdgeT> edges() {
+		return StreamSupport.stream(edgeSpliterator(), false);
+	}
+
+	/**
+	 * @return a stream of edge, node pairs from the head to the tail (see
+	 * {@link #pairSpliterator()})
+	 */
+	default Stream<Map.Entry<EdgeT, NodeT>> pairs() {
+		return StreamSupport.stream(pairSpliterator(), false);
+	}
+
 	/**
 	 * @return an ordered list of nodes from the head to the tail
 	 */
@@ -0,0 +1,84 @@
+package com.davidje13.path;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A cursor over a path which fetches nodes and edges by index. Used by the
+ * default {@link ImmutablePath#cursor()}.
+ */
+class IndexedCursor<NodeT, EdgeT> implements PathCursor<NodeT, EdgeT> {
+	private final ImmutablePath<NodeT, EdgeT> path;
+	private final int size;
+	private int index = 0;
+
+	IndexedCursor(ImmutablePath<NodeT, EdgeT> path) {
+		this.path = path;
+		this.size = path.countNodes();
+	}
+
+	@Override
+	public int getIndex() {
+		return index;
+	}
+
+	@Override
+	public NodeT getNode() {
+		return path.getNode(index);
+	}
+
+	@Override
+	public boolean hasNext() {
+		return index < size - 1;
+	}
+
+	@Override
+	public boolean hasPrev() {
+		return index > 0;
+	}
+
+	@Override
+	public EdgeT getNextEdge() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return path.getEdge(index);
+	}
+
+	@Override
+	public EdgeT getPrevEdge() {
+		if (!hasPrev()) {
+			throw new NoSuchElementException();
+		}
+		return path.getEdge(index - 1);
+	}
+
+	@Override
+	public NodeT next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		++ index;
+		return path.getNode(index);
+	}
+
+	@Override
+	public NodeT prev() {
+		if (!hasPrev()) {
+			throw new NoSuchElementException();
+		}
+		-- index;
+		return path.getNode(index);
+	}
+
+	@Override
+	public NodeT seek(int nodeIndex) {
+		if (nodeIndex < 0 || nodeIndex >= size) {
+			throw new IndexOutOfBoundsException(
+					"Invalid node index: " + nodeIndex +
+					" (nodes in path: " + size + ")"
+			);
+		}
+		index = nodeIndex;
+		return path.getNode(index);
+	}
+}
@@ -0,0 +1,391 @@
+package com.davidje13.path;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Wraps a path with a suffix automaton, so that it can be searched for many
+ * different sub paths quickly.
+ *
+ * Building the index takes O(n) time and memory (where n is the length of
+ * the path). After that, {@link #containsSubPath(ImmutablePath)},
+ * {@link #firstIndexOfSubPath(ImmutablePath)},
+ * {@link #lastIndexOfSubPath(ImmutablePath)} and
+ * {@link #countSubPaths(ImmutablePath)} run in O(m) time (where m is the
+ * length of the sub path), regardless of the length of the indexed path.
+ *
+ * All other operations are passed to the wrapped path. Sub paths of an
+ * indexed path are not indexed.
+ *
+ * Instances are immutable and safe to share between threads, as long as the
+ * wrapped path is.
+ */
+public class IndexedPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
+	private final ImmutablePath<NodeT, EdgeT> path;
+	private final State root = new State(0, -1);
+
+	/**
+	 * @param path the path to index
+	 */
+	public IndexedPath(ImmutablePath<NodeT, EdgeT> path) {
+		this.path = path;
+
+		Builder builder = new Builder();
+		path.visitFromHead(builder::addNode, builder::addEdge);
+		builder.propagate();
+	}
+
+	/**
+	 * @return the path which was indexed
+	 */
+	public ImmutablePath<NodeT, EdgeT> getPath() {
+		return path;
+	}
+
+	@Override
+	public PathBuilder<NodeT, EdgeT, ? extends PathBuilder> builderFromNode(NodeT node) {
+		return path.builderFromNode(node);
+	}
+
+	@Override
+	public PathBuilder<NodeT, EdgeT, ? extends PathBuilder> toBuilder() {
+		return path.toBuilder();
+	}
+
+	@Override
+	public NodeT getHead() {
+		return path.getHead();
+	}
+
+	@Override
+	public NodeT getTail() {
+		return path.getTail();
+	}
+
+	@Override
+	public NodeT getNode(int nodeIndex) {
+		return path.getNode(nodeIndex);
+	}
+
+	@Override
+	public EdgeT getEdge(int edgeIndex) {
+		return path.getEdge(edgeIndex);
+	}
+
+	@Override
+	public void visitPairsFromHead(BiConsumer<? super EdgeT, ? super NodeT> visitor) {
+		path.visitPairsFromHead(visitor);
+	}
+
+	@Override
+	public void visitPairsFromTail(BiConsumer<? super EdgeT, ? super NodeT> visitor) {
+		path.visitPairsFromTail(visitor);
+	}
+
+	@Override
+	public void visitFromHead(
+			Consumer<? super NodeT> nodeVisitor,
+			Consumer<? super EdgeT> edgeVisitor
+	) {
+		path.visitFromHead(nodeVisitor, edgeVisitor);
+	}
+
+	@Override
+	public void visitFromTail(
+			Consumer<? super NodeT> nodeVisitor,
+			Consumer<? super EdgeT> edgeVisitor
+	) {
+		path.visitFromTail(nodeVisitor, edgeVisitor);
+	}
+
+	@Override
+	public boolean visitFromHeadWhile(
+			Predicate<? super NodeT> nodeVisitor,
+			Predicate<? super EdgeT> edgeVisitor
+	) {
+		return path.visitFromHeadWhile(nodeVisitor, edgeVisitor);
+	}
+
+	@Override
+	public boolean visitFromTailWhile(
+			Predicate<? super NodeT> nodeVisitor,
+			Predicate<? super EdgeT> edgeVisitor
+	) {
+		return path.visitFromTailWhile(nodeVisitor, edgeVisitor);
+	}
+
+	@Override
+	public PathCursor<NodeT, EdgeT> cursor() {
+		return path.cursor();
+	}
+
+	@Override
+	public ImmutablePath<NodeT, EdgeT> subPath(
+			int startNodeIndex,
+			int endNodeIndex
+	) {
+		return path.subPath(startNodeIndex, endNodeIndex);
+	}
+
+	@Override
+	public Spliterator<NodeT> nodeSpliterator() {
+		return path.nodeSpliterator();
+	}
+
+	@Override
+	public Spliterator<EdgeT> edgeSpliterator() {
+		return path.edgeSpliterator();
+	}
+
+	@Override
+	public Spliterator<Map.Entry<EdgeT, NodeT>> pairSpliterator() {
+		return path.pairSpliterator();
+	}
+
+	@Override
+	public int countNodes() {
+		return path.countNodes();
+	}
+
+	@Override
+	boolean hasFastCursor() {
+		return path instanceof ComparablePath && ((ComparablePath<?, ?>) path).hasFastCursor();
+	}
+
+	@Override
+	public int countEdges() {
+		return path.countEdges();
+	}
+
+	@Override
+	public boolean startsWith(ImmutablePath<NodeT, EdgeT> subPath) {
+		return path.startsWith(subPath);
+	}
+
+	@Override
+	public boolean endsWith(ImmutablePath<NodeT, EdgeT> subPath) {
+		return path.endsWith(subPath);
+	}
+
+	/**
+	 * Runs in O(m) time (where m is the length of the sub path).
+	 *
+	 * @param subPath the path to look for
+	 * @return the lowest index of the requested sub path, or -1 if not found
+	 */
+	@Override
+	public int firstIndexOfSubPath(ImmutablePath<NodeT, EdgeT> subPath) {
+		Walk walk = find(subPath);
+		return (walk.state == null) ? -1 : walk.startNodeIndex(walk.state.firstEnd);
+	}
+
+	/**
+	 * Runs in O(m) time (where m is the length of the sub path).
+	 *
+	 * @param subPath the path to look for
+	 * @return the highest index of the requested sub path, or -1 if not found
+	 */
+	@Override
+	public int lastIndexOfSubPath(ImmutablePath<NodeT, EdgeT> subPath) {
+		Walk walk = find(subPath);
+		return (walk.state == null) ? -1 : walk.startNodeIndex(walk.state.lastEnd);
+	}
+
+	/**
+	 * Runs in O(m) time (where m is the length of the sub path).
+	 *
+	 * @param subPath the path to look for
+	 * @return true if the path contains the requested sub path, otherwise false
+	 */
+	@Override
+	public boolean containsSubPath(ImmutablePath<NodeT, EdgeT> subPath) {
+		return find(subPath).state != null;
+	}
+
+	/**
+	 * Count the places where the sub path occurs, including places where
+	 * occurrences overlap. Runs in O(m) time (where m is the length of the
+	 * sub path).
+	 *
+	 * @param subPath the path to look for
+	 * @return the number of indices at which the sub path begins
+	 */
+	public int countSubPaths(ImmutablePath<NodeT, EdgeT> subPath) {
+		Walk walk = find(subPath);
+		return (walk.state == null) ? 0 : walk.state.count;
+	}
+
+	private Walk find(ImmutablePath<NodeT, EdgeT> subPath) {
+		long started = PathMetrics.ENABLED ? PathMetrics.start() : 0;
+		Walk walk = new Walk();
+		subPath.visitFromHeadWhile(walk::node, walk::edge);
+		if (PathMetrics.ENABLED) {
+			PathMetrics.record(PathMetrics.Operation.INDEX_OF, started, walk.length);
+		}
+		return walk;
+	}
+
+	// A state of the automaton: the set of substrings which share the same
+	// end positions. Positions index the interleaved nodes and edges of the
+	// path (so nodes are at even positions). Nodes and edges follow separate
+	// transitions, so a node never matches an edge.
+	private static class State {
+		private final int length;
+		private State link = null;
+		private Map<Object, State> nodeNext = null;
+		private Map<Object, State> edgeNext = null;
+
+		// end positions of the first and last occurrence, and the number of
+		// occurrences (filled in by Builder.propagate)
+		private final int firstEnd;
+		private int lastEnd;
+		private int count = 0;
+
+		private State(int length, int firstEnd) {
+			this.length = length;
+			this.firstEnd = firstEnd;
+			this.lastEnd = firstEnd;
+		}
+
+		private State next(boolean isNode, Object element) {
+			Map<Object, State> next = isNode ? nodeNext : edgeNext;
+			return (next == null) ? null : next.get(element);
+		}
+
+		private boolean hasNext(boolean isNode, Object element) {
+			Map<Object, State> next = isNode ? nodeNext : edgeNext;
+			return next != null && next.containsKey(element);
+		}
+
+		private void setNext(boolean isNode, Object element, State state) {
+			if (isNode) {
+				if (nodeNext == null) {
+					nodeNext = new HashMap<>();
+				}
+				nodeNext.put(element, state);
+			} else {
+				if (edgeNext == null) {
+					edgeNext = new HashMap<>();
+				}
+				edgeNext.put(element, state);
+			}
+		}
+
+		private State cloneWithLength(int length) {
+			State clone = new State(length, firstEnd);
+			clone.lastEnd = -1;
+			clone.link = link;
+			clone.nodeNext = (nodeNext == null) ? null : new HashMap<>(nodeNext);
+			clone.edgeNext = (edgeNext == null) ? null : new HashMap<>(edgeNext);
+			return clone;
+		}
+	}
+
+	// Standard online suffix automaton construction, one element at a time
+	private class Builder {
+		private final List<State> states = new ArrayList<>();
+		private State last = root;
+		private int position = 0;
+
+		private Builder() {
+			states.add(root);
+		}
+
+		private void addNode(Object node) {
+			add(true, node);
+		}
+
+		private void addEdge(Object edge) {
+			add(false, edge);
+		}
+
+		private void add(boolean isNode, Object element) {
+			State current = new State(last.length + 1, position);
+			current.count = 1;
+			states.add(current);
+
+			State p = last;
+			while (p != null && !p.hasNext(isNode, element)) {
+				p.setNext(isNode, element, current);
+				p = p.link;
+			}
+
+			if (p == null) {
+				current.link = root;
+			} else {
+				State q = p.next(isNode, element);
+				if (p.length + 1 == q.length) {
+					current.link = q;
+				} else {
+					State clone = q.cloneWithLength(p.length + 1);
+					states.add(clone);
+					while (p != null && p.next(isNode, element) == q) {
+						p.setNext(isNode, element, clone);
+						p = p.link;
+					}
+					q.link = clone;
+					current.link = clone;
+				}
+			}
+
+			last = current;
+			++ position;
+		}
+
+		// Each state's end positions include those of every state which links
+		// to it, so accumulate counts and last positions from the longest
+		// states down.
+		private void propagate() {
+			int[] starts = new int[position + 2];
+			for (State state : states) {
+				++ starts[state.length + 1];
+			}
+			for (int i = 1; i < starts.length; ++ i) {
+				starts[i] += starts[i - 1];
+			}
+			State[] ordered = new State[states.size()];
+			for (State state : states) {
+				ordered[starts[state.length]] = state;
+				++ starts[state.length];
+			}
+
+			for (int i = ordered.length - 1; i > 0; -- i) {
+				State state = ordered[i];
+				state.link.count += state.count;
+				state.link.lastEnd = Math.max(state.link.lastEnd, state.lastEnd);
+			}
+		}
+	}
+
+	// Follows a sub path through the automaton. If the sub path does not
+	// occur in the indexed path, state becomes null and the walk stops.
+	private class Walk {
+		private State state = root;
+		private int length = 0;
+
+		private boolean node(Object node) {
+			return step(true, node);
+		}
+
+		private boolean edge(Object edge) {
+			return step(false, edge);
+		}
+
+		private boolean step(boolean isNode, Object element) {
+			state = state.next(isNode, element);
+			++ length;
+			return state != null;
+		}
+
+		private int startNodeIndex(int endPosition) {
+			// Sub paths begin with a node, so always start at an even position
+			return (endPosition - length + 1) / 2;
+		}
+	}
+}
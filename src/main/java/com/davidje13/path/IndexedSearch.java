@@ -0,0 +1,103 @@
+package com.davidje13.path;
+
+/**
+ * Linear-time (Knuth-Morris-Pratt) sub path searches for paths which support
+ * fast random access, such as the primitive paths.
+ *
+ * Positions refer to the interleaved node / edge sequence (node, edge, node,
+ * ...), so even positions are nodes and odd positions are edges. Callers
+ * only need to compare elements at positions of the same parity.
+ */
+final class IndexedSearch {
+	private IndexedSearch() {
+	}
+
+	@FunctionalInterface
+	interface ElementMatcher {
+		boolean matches(int patternPosition, int otherPosition);
+	}
+
+	/**
+	 * @param patternNodes the number of nodes in the pattern
+	 * @param textNodes the number of nodes in the path being searched
+	 * @param patternMatcher compares pattern elements with other pattern elements
+	 * @param textMatcher compares pattern elements with text elements
+	 * @return the lowest node index of a match, or -1 if not found
+	 */
+	static int firstIndexOf(
+			int patternNodes,
+			int textNodes,
+			ElementMatcher patternMatcher,
+			ElementMatcher textMatcher
+	) {
+		int patternLength = patternNodes * 2 - 1;
+		int textLength = textNodes * 2 - 1;
+		if (patternLength > textLength) {
+			return -1;
+		}
+
+		int[] failure = new int[patternLength];
+		int k = 0;
+		for (int i = 1; i < patternLength; ++ i) {
+			while (k > 0 && !sameParityMatch(patternMatcher, k, i)) {
+				k = failure[k - 1];
+			}
+			if (sameParityMatch(patternMatcher, k, i)) {
+				++ k;
+			}
+			failure[i] = k;
+		}
+
+		int matched = 0;
+		for (int i = 0; i < textLength; ++ i) {
+			while (matched > 0 && !sameParityMatch(textMatcher, matched, i)) {
+				matched = failure[matched - 1];
+			}
+			if (sameParityMatch(textMatcher, matched, i)) {
+				++ matched;
+			}
+			if (matched == patternLength) {
+				return (i - patternLength + 1) / 2;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param patternNodes the number of nodes in the pattern
+	 * @param textNodes the number of nodes in the path being searched
+	 * @param patternMatcher compares pattern elements with other pattern elements
+	 * @param textMatcher compares pattern elements with text elements
+	 * @return the highest node index of a match, or -1 if not found
+	 */
+	static int lastIndexOf(
+			int patternNodes,
+			int textNodes,
+			ElementMatcher patternMatcher,
+			ElementMatcher textMatcher
+	) {
+		int patternEnd = patternNodes * 2 - 2;
+		int textEnd = textNodes * 2 - 2;
+		int reversedIndex = firstIndexOf(
+				patternNodes,
+				textNodes,
+				(a, b) -> patternMatcher.matches(patternEnd - a, patternEnd - b),
+				(a, b) -> textMatcher.matches(patternEnd - a, textEnd - b)
+		);
+		if (reversedIndex == -1) {
+			return -1;
+		}
+		return textNodes - reversedIndex - patternNodes;
+	}
+
+	private static boolean sameParityMatch(
+			ElementMatcher matcher,
+			int patternPosition,
+			int otherPosition
+	) {
+		return (
+				((patternPosition ^ otherPosition) & 1) == 0 &&
+				matcher.matches(patternPosition, otherPosition)
+		);
+	}
+}
@@ -0,0 +1,88 @@
+package com.davidje13.path;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * A spliterator over elements which can be fetched by index. Splits evenly,
+ * so parallel streams divide work equally between threads.
+ *
+ * Only suitable for paths with fast {@link ImmutablePath#getNode(int)} and
+ * {@link ImmutablePath#getEdge(int)}; backends which have them use the
+ * factories below to override the default spliterators.
+ */
+class IndexedSpliterator<T> implements Spliterator<T> {
+	private static final int CHARACTERISTICS = ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+
+	private final IntFunction<? extends T> getter;
+	private int index;
+	private final int fence;
+
+	IndexedSpliterator(IntFunction<? extends T> getter, int origin, int fence) {
+		this.getter = getter;
+		this.index = origin;
+		this.fence = fence;
+	}
+
+	static <NodeT> Spliterator<NodeT> nodes(ImmutablePath<NodeT, ?> path) {
+		return new IndexedSpliterator<>(path::getNode, 0, path.countNodes());
+	}
+
+	static <EdgeT> Spliterator<EdgeT> edges(ImmutablePath<?, EdgeT> path) {
+		return new IndexedSpliterator<>(path::getEdge, 0, path.countEdges());
+	}
+
+	static <NodeT, EdgeT> Spliterator<Map.Entry<EdgeT, NodeT>> pairs(
+			ImmutablePath<NodeT, EdgeT> path
+	) {
+		return new IndexedSpliterator<>(
+				(index) -> new AbstractMap.SimpleImmutableEntry<>(
+						path.getEdge(index),
+						path.getNode(index + 1)
+				),
+				0,
+				path.countEdges()
+		);
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		if (index >= fence) {
+			return false;
+		}
+		action.accept(getter.apply(index));
+		++ index;
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		for (; index < fence; ++ index) {
+			action.accept(getter.apply(index));
+		}
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		int mid = (index + fence) >>> 1;
+		if (mid <= index) {
+			return null;
+		}
+		Spliterator<T> prefix = new IndexedSpliterator<>(getter, index, mid);
+		index = mid;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize() {
+		return fence - index;
+	}
+
+	@Override
+	public int characteristics() {
+		return CHARACTERISTICS;
+	}
+}
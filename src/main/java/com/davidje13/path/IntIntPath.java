@@ -0,0 +1,503 @@
+package com.davidje13.path;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable path with {@code int} nodes and {@code int} edges, stored
+ * in flat primitive arrays without boxing.
+ *
+ * Use {@link #asPath()} to interoperate with code which expects an
+ * {@link ImmutablePath}.
+ */
+public class IntIntPath extends PrimitivePath<IntIntPath> {
+	private static final int[] NO_EDGES = new int[0];
+
+	// edges[i] joins nodes[i] and nodes[i + 1]
+	private final int[] nodes;
+	private final int[] edges;
+
+	public static IntIntPathBuilder builder(int node) {
+		return new IntIntPathBuilder(node);
+	}
+
+	public static IntIntPathBuilder builder(IntIntPath basePath) {
+		return new IntIntPathBuilder(basePath);
+	}
+
+	public static IntIntPath concatenate(
+			IntIntPath path1,
+			int joiner,
+			IntIntPath path2
+	) {
+		return builder(path1).pushBack(joiner, path2).build();
+	}
+
+	/**
+	 * Copy a boxed path into primitive storage.
+	 *
+	 * @param path the path to copy (must not contain null nodes or edges)
+	 * @return a new primitive path equal to the given path
+	 */
+	public static IntIntPath copyOf(ImmutablePath<Integer, Integer> path) {
+		IntIntPathBuilder builder = builder(path.getHead());
+		path.visitPairsFromHead(builder::pushBack);
+		return builder.build();
+	}
+
+	public IntIntPath(int singleNode) {
+		this(new int[] { singleNode }, NO_EDGES, 0, 1);
+	}
+
+	private IntIntPath(int[] nodes, int[] edges, int offset, int size) {
+		super(offset, size);
+		this.nodes = nodes;
+		this.edges = edges;
+	}
+
+	/**
+	 * @return a builder containing the current path, ready to be modified
+	 */
+	public IntIntPathBuilder toBuilder() {
+		return builder(this);
+	}
+
+	/**
+	 * @return a boxed view of this path. The view shares storage with this
+	 * path, and builders created from the view produce primitive paths.
+	 */
+	public ImmutablePath<Integer, Integer> asPath() {
+		return new BoxedView(this);
+	}
+
+	/**
+	 * @return the first node in the path
+	 */
+	public int getHead() {
+		return nodes[offset];
+	}
+
+	/**
+	 * @return the last node in the path
+	 */
+	public int getTail() {
+		return nodes[offset + size - 1];
+	}
+
+	/**
+	 * @param nodeIndex the index of the node to fetch
+	 * @return the requested node
+	 * @throws IndexOutOfBoundsException if the index is not within the path
+	 */
+	public int getNode(int nodeIndex) {
+		if (nodeIndex < 0 || nodeIndex >= size) {
+			throw new IndexOutOfBoundsException(
+					"Invalid node index: " + nodeIndex +
+					" (nodes in path: " + size + ")"
+			);
+		}
+		return nodes[offset + nodeIndex];
+	}
+
+	/**
+	 * @param edgeIndex the index of the edge to fetch (edge {@code i} joins
+	 *                  node {@code i} to node {@code i + 1})
+	 * @return the requested edge
+	 * @throws IndexOutOfBoundsException if the index is not within the path
+	 */
+	public int getEdge(int edgeIndex) {
+		if (edgeIndex < 0 || edgeIndex >= size - 1) {
+			throw new IndexOutOfBoundsException(
+					"Invalid edge index: " + edgeIndex +
+					" (edges in path: " + (size - 1) + ")"
+			);
+		}
+		return edges[offset + edgeIndex];
+	}
+
+	/**
+	 * Visit nodes and edges in order from the head of the path. Skips the
+	 * head node.
+	 *
+	 * @param visitor lambda to call with each edge, node pair
+	 */
+	public void visitPairsFromHead(PairVisitor visitor) {
+		for (int i = offset + 1; i < offset + size; ++ i) {
+			visitor.accept(edges[i - 1], nodes[i]);
+		}
+	}
+
+	/**
+	 * Visit nodes and edges in order from the tail of the path. Skips the
+	 * tail node.
+	 *
+	 * @param visitor lambda to call with each edge, node pair
+	 */
+	@SuppressWarnings("ValueOfIncrementOrDecrementUsed")
+	public void visitPairsFromTail(PairVisitor visitor) {
+		for (int i = offset + size - 1; (i --) > offset;) {
+			visitor.accept(edges[i], nodes[i]);
+		}
+	}
+
+	/**
+	 * Visit all nodes and edges in order from the head of the path.
+	 *
+	 * @param nodeVisitor lambda to call with each node
+	 * @param edgeVisitor lambda to call with each edge
+	 */
+	public void visitFromHead(IntConsumer nodeVisitor, IntConsumer edgeVisitor) {
+		nodeVisitor.accept(nodes[offset]);
+		for (int i = offset + 1; i < offset + size; ++ i) {
+			edgeVisitor.accept(edges[i - 1]);
+			nodeVisitor.accept(nodes[i]);
+		}
+	}
+
+	/**
+	 * Visit all nodes and edges in order from the tail of the path.
+	 *
+	 * @param nodeVisitor lambda to call with each node
+	 * @param edgeVisitor lambda to call with each edge
+	 */
+	@SuppressWarnings("ValueOfIncrementOrDecrementUsed")
+	public void visitFromTail(IntConsumer nodeVisitor, IntConsumer edgeVisitor) {
+		nodeVisitor.accept(nodes[offset + size - 1]);
+		for (int i = offset + size - 1; (i --) > offset;) {
+			edgeVisitor.accept(edges[i]);
+			nodeVisitor.accept(nodes[i]);
+		}
+	}
+
+	/**
+	 * @return a stream of nodes from the head to the tail
+	 */
+	public IntStream nodes() {
+		return Arrays.stream(nodes, offset, offset + size);
+	}
+
+	/**
+	 * @return a stream of edges from the head to the tail
+	 */
+	public IntStream edges() {
+		return Arrays.stream(edges, offset, offset + size - 1);
+	}
+
+	/**
+	 * @return a path equal to this path which does not share storage with
+	 * any other path
+	 */
+	public IntIntPath compact() {
+		if (offset == 0 && nodes.length == size) {
+			return this;
+		}
+		return new IntIntPath(
+				Arrays.copyOfRange(nodes, offset, offset + size),
+				(size == 1) ? NO_EDGES : Arrays.copyOfRange(edges, offset, offset + size - 1),
+				0,
+				size
+		);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof IntIntPath)) {
+			return false;
+		}
+		return sameElements((IntIntPath) o);
+	}
+
+	// Matches the hash of the boxed view, so both can be mixed in hashed
+	// collections without surprises
+	@Override
+	public int hashCode() {
+		int nodeHash = 1;
+		for (int i = offset; i < offset + size; ++ i) {
+			nodeHash = 31 * nodeHash + Integer.hashCode(nodes[i]);
+		}
+		int edgeHash = 1;
+		for (int i = offset; i < offset + size - 1; ++ i) {
+			edgeHash = 31 * edgeHash + Integer.hashCode(edges[i]);
+		}
+		return 31 * (31 + nodeHash) + edgeHash;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		visitFromHead(
+				(node) -> builder.append(node).append(", "),
+				(edge) -> builder.append(edge).append(", ")
+		);
+		builder.setLength(builder.length() - 2);
+		return builder.toString();
+	}
+
+	@Override
+	IntIntPath view(int offset, int size) {
+		return new IntIntPath(nodes, edges, offset, size);
+	}
+
+	// Compares elements of the interleaved node / edge sequences
+	@Override
+	boolean elementEquals(int position, IntIntPath other, int otherPosition) {
+		if ((position & 1) == 0) {
+			return nodes[offset + position / 2] == other.nodes[other.offset + otherPosition / 2];
+		}
+		return edges[offset + position / 2] == other.edges[other.offset + otherPosition / 2];
+	}
+
+	@FunctionalInterface
+	public interface PairVisitor {
+		void accept(int edge, int node);
+	}
+
+	public static class IntIntPathBuilder {
+		// Double-ended buffer: the path occupies [start, start + size) of
+		// nodes, and edges[i] joins nodes[i] and nodes[i + 1]
+		private int[] nodes;
+		private int[] edges;
+		private int start;
+		private int size;
+
+		private IntIntPathBuilder(int node) {
+			reset(node);
+		}
+
+		private IntIntPathBuilder(IntIntPath basePath) {
+			int capacity = Math.max(basePath.size + (basePath.size >> 1), DEFAULT_CAPACITY);
+			nodes = new int[capacity];
+			edges = new int[capacity - 1];
+			start = 0;
+			size = basePath.size;
+			System.arraycopy(basePath.nodes, basePath.offset, nodes, 0, size);
+			System.arraycopy(basePath.edges, basePath.offset, edges, 0, size - 1);
+		}
+
+		public int getHead() {
+			return nodes[start];
+		}
+
+		public int getTail() {
+			return nodes[start + size - 1];
+		}
+
+		public int countNodes() {
+			return size;
+		}
+
+		public IntIntPathBuilder pushBack(int edge, int node) {
+			ensureBackCapacity(1);
+			edges[start + size - 1] = edge;
+			nodes[start + size] = node;
+			++ size;
+
+			return this;
+		}
+
+		public IntIntPathBuilder pushFront(int node, int edge) {
+			ensureFrontCapacity(1);
+			-- start;
+			nodes[start] = node;
+			edges[start] = edge;
+			++ size;
+
+			return this;
+		}
+
+		/**
+		 * Add a path to the back of the current builder
+		 * @param edge the edge to be added between the current nodes and the
+		 *             new nodes
+		 * @param path the path to add
+		 * @return the current builder (for chaining)
+		 */
+		public IntIntPathBuilder pushBack(int edge, IntIntPath path) {
+			ensureBackCapacity(path.size);
+			edges[start + size - 1] = edge;
+			System.arraycopy(path.nodes, path.offset, nodes, start + size, path.size);
+			System.arraycopy(path.edges, path.offset, edges, start + size, path.size - 1);
+			size += path.size;
+
+			return this;
+		}
+
+		/**
+		 * Add a path to the front of the current builder
+		 * @param path the path to add
+		 * @param edge the edge to be added between the new nodes and the
+		 *             current nodes
+		 * @return the current builder (for chaining)
+		 */
+		public IntIntPathBuilder pushFront(IntIntPath path, int edge) {
+			ensureFrontCapacity(path.size);
+			start -= path.size;
+			System.arraycopy(path.nodes, path.offset, nodes, start, path.size);
+			System.arraycopy(path.edges, path.offset, edges, start, path.size - 1);
+			edges[start + path.size - 1] = edge;
+			size += path.size;
+
+			return this;
+		}
+
+		public IntIntPathBuilder reset(int node) {
+			nodes = new int[DEFAULT_CAPACITY];
+			edges = new int[DEFAULT_CAPACITY - 1];
+			nodes[0] = node;
+			start = 0;
+			size = 1;
+
+			return this;
+		}
+
+		public IntIntPath build() {
+			IntIntPath path = new IntIntPath(
+					trim(nodes, start, size),
+					(size == 1) ? NO_EDGES : trim(edges, start, size - 1),
+					0,
+					size
+			);
+			invalidate();
+			return path;
+		}
+
+		private void ensureBackCapacity(int extra) {
+			if (start + size + extra > nodes.length) {
+				grow(extra, false);
+			}
+		}
+
+		private void ensureFrontCapacity(int extra) {
+			if (extra > start) {
+				grow(extra, true);
+			}
+		}
+
+		// Reallocate with room for at least extra more nodes at the chosen
+		// end, sharing the spare space between both ends (as in
+		// ArrayPath.ArrayPathBuilder)
+		private void grow(int extra, boolean atFront) {
+			int required = size + extra;
+			int capacity = Math.max(required, nodes.length + (nodes.length >> 1));
+			int spare = capacity - required;
+			int newStart = atFront ? (extra + spare / 2) : (spare / 2);
+
+			int[] newNodes = new int[capacity];
+			int[] newEdges = new int[capacity - 1];
+			System.arraycopy(nodes, start, newNodes, newStart, size);
+			System.arraycopy(edges, start, newEdges, newStart, size - 1);
+			nodes = newNodes;
+			edges = newEdges;
+			start = newStart;
+		}
+
+		private static int[] trim(int[] array, int from, int length) {
+			if (from == 0 && array.length == length) {
+				return array;
+			}
+			return Arrays.copyOfRange(array, from, from + length);
+		}
+
+		private void invalidate() {
+			nodes = null;
+			edges = null;
+		}
+	}
+
+	private static class BoxedView extends PrimitivePath.BoxedView<Integer, Integer, IntIntPath> {
+		private BoxedView(IntIntPath path) {
+			super(path);
+		}
+
+		@Override
+		BoxedView wrap(IntIntPath path) {
+			return new BoxedView(path);
+		}
+
+		@Override
+		public BoxedBuilder builderFromNode(Integer node) {
+			return new BoxedBuilder(builder(node));
+		}
+
+		@Override
+		public BoxedBuilder toBuilder() {
+			return new BoxedBuilder(path.toBuilder());
+		}
+
+		@Override
+		public Integer getHead() {
+			return path.getHead();
+		}
+
+		@Override
+		public Integer getTail() {
+			return path.getTail();
+		}
+
+		@Override
+		public Integer getNode(int nodeIndex) {
+			return path.getNode(nodeIndex);
+		}
+
+		@Override
+		public Integer getEdge(int edgeIndex) {
+			return path.getEdge(edgeIndex);
+		}
+
+		@Override
+		public void visitPairsFromHead(BiConsumer<? super Integer, ? super Integer> visitor) {
+			path.visitPairsFromHead(visitor::accept);
+		}
+
+		@Override
+		public void visitPairsFromTail(BiConsumer<? super Integer, ? super Integer> visitor) {
+			path.visitPairsFromTail(visitor::accept);
+		}
+	}
+
+	private static class BoxedBuilder implements PathBuilder<Integer, Integer, BoxedBuilder> {
+		private final IntIntPathBuilder builder;
+
+		private BoxedBuilder(IntIntPathBuilder builder) {
+			this.builder = builder;
+		}
+
+		@Override
+		public Integer getHead() {
+			return builder.getHead();
+		}
+
+		@Override
+		public Integer getTail() {
+			return builder.getTail();
+		}
+
+		@Override
+		public BoxedBuilder pushBack(Integer edge, Integer node) {
+			builder.pushBack(edge, node);
+			return this;
+		}
+
+		@Override
+		public BoxedBuilder pushFront(Integer node, Integer edge) {
+			builder.pushFront(node, edge);
+			return this;
+		}
+
+		@Override
+		public BoxedBuilder reset(Integer node) {
+			builder.reset(node);
+			return this;
+		}
+
+		@Override
+		public ImmutablePath<Integer, Integer> build() {
+			return builder.build().asPath();
+		}
+	}
+}
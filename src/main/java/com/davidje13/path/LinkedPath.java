@@ -1,12 +1,23 @@
 package com.davidje13.path;
 
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class LinkedPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
 	private final NodeWrapper<NodeT, EdgeT> head;
 	private final NodeWrapper<NodeT, EdgeT> tail;
+	private final int size;
+
+	// Every skipStride-th node, built on first indexed access
+	private volatile Object[] skipIndex;
+	private int skipStride;
 
 	public static <NodeT, EdgeT> LinkedPathBuilder<NodeT, EdgeT> builder(
 			NodeT node
@@ -31,14 +42,17 @@ public class LinkedPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
 	@SuppressWarnings("NestedAssignment")
 	public LinkedPath(NodeT singleNode) {
 		head = tail = new NodeWrapper<>(singleNode);
+		size = 1;
 	}
 
 	private LinkedPath(
 			NodeWrapper<NodeT, EdgeT> head,
-			NodeWrapper<NodeT, EdgeT> tail
+			NodeWrapper<NodeT, EdgeT> tail,
+			int size
 	) {
 		this.head = head;
 		this.tail = tail;
+		this.size = size;
 	}
 
 	@Override
@@ -56,6 +70,123 @@ public class LinkedPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
 		return tail.node;
 	}
 
+	/**
+	 * Fetch a node by index. Runs in O(sqrt(n)) time, using an index which
+	 * is built on first use.
+	 *
+	 * @param nodeIndex the index of the node to fetch
+	 * @return the requested node
+	 * @throws IndexOutOfBoundsException if the index is not within the path
+	 */
+	@Override
+	public NodeT getNode(int nodeIndex) {
+		if (nodeIndex < 0 || nodeIndex >= size) {
+			throw new IndexOutOfBoundsException(
+					"Invalid node index: " + nodeIndex +
+					" (nodes in path: " + size + ")"
+			);
+		}
+		return locate(nodeIndex).node;
+	}
+
+	/**
+	 * Fetch an edge by index. Runs in O(sqrt(n)) time, using an index which
+	 * is built on first use.
+	 *
+	 * @param edgeIndex the index of the edge to fetch (edge {@code i} joins
+	 *                  node {@code i} to node {@code i + 1})
+	 * @return the requested edge
+	 * @throws IndexOutOfBoundsException if the index is not within the path
+	 */
+	@Override
+	public EdgeT getEdge(int edgeIndex) {
+		if (edgeIndex < 0 || edgeIndex >= size - 1) {
+			throw new IndexOutOfBoundsException(
+					"Invalid edge index: " + edgeIndex +
+					" (edges in path: " + (size - 1) + ")"
+			);
+		}
+		return locate(edgeIndex).next.edge;
+	}
+
+	@Override
+	public LinkedPath<NodeT, EdgeT> subPath(
+			int startNodeIndex,
+			int endNodeIndex
+	) {
+		if (startNodeIndex < 0 || endNodeIndex < startNodeIndex) {
+			throw new IndexOutOfBoundsException(
+					"Invalid range: " + startNodeIndex + " -- " + endNodeIndex
+			);
+		}
+		if (endNodeIndex >= size) {
+			throw new IndexOutOfBoundsException(
+					"Invalid range: " + startNodeIndex + " -- " + endNodeIndex +
+					" (nodes in path: " + size + ")"
+			);
+		}
+
+		long started = PathMetrics.ENABLED ? PathMetrics.start() : 0;
+		NodeWrapper<NodeT, EdgeT> cursor = locate(startNodeIndex);
+		LinkedPathBuilder<NodeT, EdgeT> builder = builder(cursor.node);
+		for (int i = startNodeIndex; i < endNodeIndex; ++ i) {
+			EdgeWrapper<NodeT, EdgeT> edgeWrapper = cursor.next;
+			cursor = edgeWrapper.next;
+			builder.pushBack(edgeWrapper.edge, cursor.node);
+		}
+		LinkedPath<NodeT, EdgeT> result = builder.build();
+		if (PathMetrics.ENABLED) {
+			PathMetrics.record(PathMetrics.Operation.SUB_PATH, started, result.size);
+		}
+		return result;
+	}
+
+	@Override
+	public boolean visitFromHeadWhile(
+			Predicate<? super NodeT> nodeVisitor,
+			Predicate<? super EdgeT> edgeVisitor
+	) {
+		return CursorVisits.fromHeadWhile(this, nodeVisitor, edgeVisitor);
+	}
+
+	@Override
+	public boolean visitFromTailWhile(
+			Predicate<? super NodeT> nodeVisitor,
+			Predicate<? super EdgeT> edgeVisitor
+	) {
+		return CursorVisits.fromTailWhile(this, nodeVisitor, edgeVisitor);
+	}
+
+	@Override
+	public int countNodes() {
+		return size;
+	}
+
+	@Override
+	boolean hasFastCursor() {
+		return true;
+	}
+
+	@Override
+	public Spliterator<NodeT> nodeSpliterator() {
+		return new LinkedSpliterator<>(0, size, (nodeWrapper) -> nodeWrapper.node);
+	}
+
+	@Override
+	public Spliterator<EdgeT> edgeSpliterator() {
+		return new LinkedSpliterator<>(0, size - 1, (nodeWrapper) -> nodeWrapper.next.edge);
+	}
+
+	@Override
+	public Spliterator<Map.Entry<EdgeT, NodeT>> pairSpliterator() {
+		return new LinkedSpliterator<>(0, size - 1, (nodeWrapper) ->
+				new AbstractMap.SimpleImmutableEntry<>(
+						nodeWrapper.next.edge,
+						nodeWrapper.next.next.node
+				)
+		);
+	}
+
 	@Override
 	public void visitPairsFromHead(
 			BiConsumer<? super EdgeT, ? super NodeT> visitor
@@ -108,12 +239,87 @@ public class LinkedPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
 		);
 	}
 
+	@Override
+	public PathCursor<NodeT, EdgeT> cursor() {
+		return new LinkedCursor();
+	}
+
+	@Override
+	protected boolean contentEquals(ImmutablePath<?, ?> that) {
+		if (!(that instanceof LinkedPath)) {
+			return super.contentEquals(that);
+		}
+
+		NodeWrapper<?, ?> nodeCursor = head;
+		NodeWrapper<?, ?> otherNodeCursor = ((LinkedPath<?, ?>) that).head;
+		while (true) {
+			if (!Objects.equals(nodeCursor.node, otherNodeCursor.node)) {
+				return false;
+			}
+			EdgeWrapper<?, ?> edgeCursor = nodeCursor.next;
+			EdgeWrapper<?, ?> otherEdgeCursor = otherNodeCursor.next;
+			if (edgeCursor == null || otherEdgeCursor == null) {
+				return edgeCursor == otherEdgeCursor;
+			}
+			if (!Objects.equals(edgeCursor.edge, otherEdgeCursor.edge)) {
+				return false;
+			}
+			nodeCursor = edgeCursor.next;
+			otherNodeCursor = otherEdgeCursor.next;
+		}
+	}
+
+	private NodeWrapper<NodeT, EdgeT> locate(int nodeIndex) {
+		if (nodeIndex == 0) {
+			return head;
+		}
+		if (nodeIndex == size - 1) {
+			return tail;
+		}
+
+		Object[] index = getSkipIndex();
+		int stride = skipStride;
+		@SuppressWarnings("unchecked")
+		NodeWrapper<NodeT, EdgeT> cursor =
+				(NodeWrapper<NodeT, EdgeT>) index[nodeIndex / stride];
+		for (int i = nodeIndex % stride; i > 0; -- i) {
+			cursor = cursor.next.next;
+		}
+		return cursor;
+	}
+
+	private Object[] getSkipIndex() {
+		Object[] index = skipIndex;
+		if (index == null) {
+			// Racing threads may build this more than once, but the result
+			// is always identical. skipStride is written before the volatile
+			// skipIndex, so is visible to any thread which sees the index.
+			int stride = Math.max(1, (int) Math.sqrt(size));
+			index = new Object[(size + stride - 1) / stride];
+			NodeWrapper<NodeT, EdgeT> cursor = head;
+			for (int i = 0; i < size; ++ i) {
+				if (i % stride == 0) {
+					index[i / stride] = cursor;
+				}
+				if (cursor.next != null) {
+					cursor = cursor.next.next;
+				}
+			}
+			skipStride = stride;
+			skipIndex = index;
+		}
+		return index;
+	}
+
 	private void visitPairsSkipFirst(
 			NodeWrapper<NodeT, EdgeT> begin,
 			Function<NodeWrapper<NodeT, EdgeT>, EdgeWrapper<NodeT, EdgeT>> advanceNode,
 			Function<EdgeWrapper<NodeT, EdgeT>, NodeWrapper<NodeT, EdgeT>> advanceEdge,
 			BiConsumer<? super EdgeT, ? super NodeT> visitor
 	) {
+		if (PathMetrics.ENABLED) {
+			PathMetrics.visited(size * 2 - 2);
+		}
 		NodeWrapper<NodeT, EdgeT> nodeCursor = begin;
 		while (true) {
 			EdgeWrapper<NodeT, EdgeT> edgeCursor = advanceNode.apply(nodeCursor);
@@ -132,6 +338,9 @@ public class LinkedPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
 			Consumer<? super NodeT> nodeVisitor,
 			Consumer<? super EdgeT> edgeVisitor
 	) {
+		if (PathMetrics.ENABLED) {
+			PathMetrics.visited(size * 2 - 1);
+		}
 		NodeWrapper<NodeT, EdgeT> nodeCursor = begin;
 		while (true) {
 			nodeVisitor.accept(nodeCursor.node);
@@ -144,10 +353,161 @@ public class LinkedPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
 		}
 	}
 
+	// Walks the links for nearby moves, and uses the skip index for distant
+	// seeks
+	private class LinkedCursor implements PathCursor<NodeT, EdgeT> {
+		private static final int MAX_WALK = 16;
+
+		private NodeWrapper<NodeT, EdgeT> current = head;
+		private int index = 0;
+
+		@Override
+		public int getIndex() {
+			return index;
+		}
+
+		@Override
+		public NodeT getNode() {
+			return current.node;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return current.next != null;
+		}
+
+		@Override
+		public boolean hasPrev() {
+			return current.prev != null;
+		}
+
+		@Override
+		public EdgeT getNextEdge() {
+			if (current.next == null) {
+				throw new NoSuchElementException();
+			}
+			return current.next.edge;
+		}
+
+		@Override
+		public EdgeT getPrevEdge() {
+			if (current.prev == null) {
+				throw new NoSuchElementException();
+			}
+			return current.prev.edge;
+		}
+
+		@Override
+		public NodeT next() {
+			if (current.next == null) {
+				throw new NoSuchElementException();
+			}
+			current = current.next.next;
+			++ index;
+			return current.node;
+		}
+
+		@Override
+		public NodeT prev() {
+			if (current.prev == null) {
+				throw new NoSuchElementException();
+			}
+			current = current.prev.prev;
+			-- index;
+			return current.node;
+		}
+
+		@Override
+		public NodeT seek(int nodeIndex) {
+			if (nodeIndex < 0 || nodeIndex >= size) {
+				throw new IndexOutOfBoundsException(
+						"Invalid node index: " + nodeIndex +
+						" (nodes in path: " + size + ")"
+				);
+			}
+			if (Math.abs(nodeIndex - index) > MAX_WALK) {
+				current = locate(nodeIndex);
+				index = nodeIndex;
+			}
+			while (index < nodeIndex) {
+				next();
+			}
+			while (index > nodeIndex) {
+				prev();
+			}
+			return current.node;
+		}
+	}
+
+	// Walks the list sequentially, and uses the skip index to find the
+	// midpoint when splitting
+	private class LinkedSpliterator<T> implements Spliterator<T> {
+		private final Function<NodeWrapper<NodeT, EdgeT>, T> extractor;
+		private NodeWrapper<NodeT, EdgeT> cursor;
+		private int index;
+		private final int fence;
+
+		private LinkedSpliterator(
+				int origin,
+				int fence,
+				Function<NodeWrapper<NodeT, EdgeT>, T> extractor
+		) {
+			this(locate(origin), origin, fence, extractor);
+		}
+
+		private LinkedSpliterator(
+				NodeWrapper<NodeT, EdgeT> cursor,
+				int origin,
+				int fence,
+				Function<NodeWrapper<NodeT, EdgeT>, T> extractor
+		) {
+			this.extractor = extractor;
+			this.cursor = cursor;
+			this.index = origin;
+			this.fence = fence;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (index >= fence) {
+				return false;
+			}
+			action.accept(extractor.apply(cursor));
+			++ index;
+			if (index < fence) {
+				cursor = cursor.next.next;
+			}
+			return true;
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			int mid = (index + fence) >>> 1;
+			if (mid <= index) {
+				return null;
+			}
+			Spliterator<T> prefix = new LinkedSpliterator<>(cursor, index, mid, extractor);
+			cursor = locate(mid);
+			index = mid;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+		}
+	}
+
 	public static class LinkedPathBuilder<NodeT, EdgeT>
 			implements PathBuilder<NodeT, EdgeT, LinkedPathBuilder<NodeT, EdgeT>> {
 		private NodeWrapper<NodeT, EdgeT> head;
 		private NodeWrapper<NodeT, EdgeT> tail;
+		private int size;
 
 		private LinkedPathBuilder(NodeT node) {
 			reset(node);
@@ -179,6 +539,7 @@ public class LinkedPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
 			link(edgeWrapper, nodeWrapper);
 			link(tail, edgeWrapper);
 			tail = nodeWrapper;
+			++ size;
 
 			return this;
 		}
@@ -194,6 +555,7 @@ public class LinkedPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
 			link(nodeWrapper, edgeWrapper);
 			link(edgeWrapper, head);
 			head = nodeWrapper;
+			++ size;
 
 			return this;
 		}
@@ -203,13 +565,46 @@ public class LinkedPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
 			NodeWrapper<NodeT, EdgeT> nodeWrapper = new NodeWrapper<>(node);
 			head = nodeWrapper;
 			tail = nodeWrapper;
+			size = 1;
 
 			return this;
 		}
 
 		@Override
 		public LinkedPath<NodeT, EdgeT> build() {
-			LinkedPath<NodeT, EdgeT> path = new LinkedPath<>(head, tail);
+			LinkedPath<NodeT, EdgeT> path = new LinkedPath<>(head, tail, size);
+			invalidate();
+			if (PathMetrics.ENABLED) {
+				PathMetrics.built(LinkedPath.class);
+			}
+			return path;
+		}
+
+		/**
+		 * Build the path, using a {@link SmallPath} if it has no more than
+		 * {@link SmallPath#MAX_NODES} nodes. Like {@link #build()}, this
+		 * invalidates the builder.
+		 *
+		 * @return the built path
+		 */
+		public ImmutablePath<NodeT, EdgeT> buildCompact() {
+			if (size > SmallPath.MAX_NODES) {
+				return build();
+			}
+			ImmutablePath<NodeT, EdgeT> path;
+			if (size == 1) {
+				path = SmallPath.of(head.node);
+			} else if (size == 2) {
+				path = SmallPath.of(head.node, head.next.edge, tail.node);
+			} else {
+				path = SmallPath.of(
+						head.node,
+						head.next.edge,
+						head.next.next.node,
+						tail.prev.edge,
+						tail.node
+				);
+			}
 			invalidate();
 			return path;
 		}
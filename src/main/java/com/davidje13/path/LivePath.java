@@ -0,0 +1,363 @@
+package com.davidje13.path;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A path which keeps growing while other threads read it.
+ *
+ * A single writer thread appends to the path with
+ * {@link #pushBack(Object, Object)}, and any thread can call
+ * {@link #snapshot()} at any time to get an immutable view of the path as it
+ * was at that moment. Snapshots are created in constant time and share
+ * storage with the live path, so publishing intermediate states does not
+ * copy anything.
+ *
+ * Nodes and edges are stored in fixed-size chunks which are never moved or
+ * overwritten once filled, and the number of published nodes is a volatile
+ * field which is written after each append. Readers never lock, and a
+ * snapshot only ever sees fully-written nodes and edges.
+ *
+ * Only {@link #snapshot()} and {@link #countNodes()} are safe to call from
+ * reader threads. Appending from several threads at once is not supported.
+ */
+public class LivePath<NodeT, EdgeT> {
+	private static final int DEFAULT_CHUNK_BITS = 10;
+	private static final int INITIAL_CHUNKS = 4;
+
+	private final int chunkBits;
+
+	// edgeChunks[c][i] joins nodeChunks[c][i] to the node which follows it.
+	// When a directory fills up it is replaced by a larger copy. Until then,
+	// new chunks are written into unused slots of the current directory,
+	// which snapshots may share. This is safe because a snapshot never reads
+	// past its own size, so it never looks at the slots which change.
+	private volatile Object[][] nodeChunks;
+	private volatile Object[][] edgeChunks;
+
+	// Written after every append, so that reading it makes all nodes and
+	// edges below this index visible
+	private volatile int size;
+
+	public LivePath(NodeT node) {
+		this(node, DEFAULT_CHUNK_BITS);
+	}
+
+	// chunkBits is configurable so that tests can cross chunk boundaries
+	// with small paths
+	LivePath(NodeT node, int chunkBits) {
+		this.chunkBits = chunkBits;
+		Object[][] nodes = new Object[INITIAL_CHUNKS][];
+		Object[][] edges = new Object[INITIAL_CHUNKS][];
+		nodes[0] = new Object[1 << chunkBits];
+		edges[0] = new Object[1 << chunkBits];
+		nodes[0][0] = node;
+		nodeChunks = nodes;
+		edgeChunks = edges;
+		size = 1;
+	}
+
+	/**
+	 * Append an edge and node to the path. Must only be called from the
+	 * writer thread.
+	 *
+	 * @param edge the edge joining the current tail to the new node
+	 * @param node the new tail node
+	 * @return this live path
+	 */
+	public LivePath<NodeT, EdgeT> pushBack(EdgeT edge, NodeT node) {
+		int index = size;
+		int chunk = index >>> chunkBits;
+		int mask = (1 << chunkBits) - 1;
+		Object[][] nodes = nodeChunks;
+		Object[][] edges = edgeChunks;
+
+		if ((index & mask) == 0) {
+			if (chunk == nodes.length) {
+				nodes = Arrays.copyOf(nodes, chunk * 2);
+				edges = Arrays.copyOf(edges, chunk * 2);
+			}
+			nodes[chunk] = new Object[1 << chunkBits];
+			edges[chunk] = new Object[1 << chunkBits];
+			if (nodes != nodeChunks) {
+				nodeChunks = nodes;
+				edgeChunks = edges;
+			}
+		}
+
+		int edgeIndex = index - 1;
+		edges[edgeIndex >>> chunkBits][edgeIndex & mask] = edge;
+		nodes[chunk][index & mask] = node;
+		size = index + 1;
+		return this;
+	}
+
+	/**
+	 * Append all the edges and nodes of a path. Must only be called from the
+	 * writer thread.
+	 *
+	 * @param edge the edge joining the current tail to the head of the path
+	 * @param path the path to append
+	 * @return this live path
+	 */
+	public LivePath<NodeT, EdgeT> pushBack(EdgeT edge, ImmutablePath<NodeT, EdgeT> path) {
+		pushBack(edge, path.getHead());
+		path.visitPairsFromHead(this::pushBack);
+		return this;
+	}
+
+	/**
+	 * @return the number of nodes which have been published so far
+	 */
+	public int countNodes() {
+		return size;
+	}
+
+	/**
+	 * Capture the current state of the path. Runs in constant time, and is
+	 * safe to call from any thread while the writer is appending.
+	 *
+	 * @return an immutable path containing every node and edge which was
+	 * appended before this call began
+	 */
+	public Snapshot<NodeT, EdgeT> snapshot() {
+		// Read the size first: the directories seen afterwards are at least
+		// as new as those which held the nodes it counts
+		int currentSize = size;
+		if (PathMetrics.ENABLED) {
+			PathMetrics.built(Snapshot.class);
+		}
+		return new Snapshot<>(nodeChunks, edgeChunks, chunkBits, 0, currentSize);
+	}
+
+	/**
+	 * An immutable view of a {@link LivePath}. Nodes and edges are read
+	 * directly from the live path's storage, so access by index and sub paths
+	 * run in constant time.
+	 */
+	public static class Snapshot<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
+		private final Object[][] nodeChunks;
+		private final Object[][] edgeChunks;
+		private final int chunkBits;
+		private final int chunkMask;
+
+		// Sub paths share chunks with their parent, so only the range
+		// [offset, offset + size) is ours.
+		private final int offset;
+		private final int size;
+
+		private Snapshot(
+				Object[][] nodeChunks,
+				Object[][] edgeChunks,
+				int chunkBits,
+				int offset,
+				int size
+		) {
+			this.nodeChunks = nodeChunks;
+			this.edgeChunks = edgeChunks;
+			this.chunkBits = chunkBits;
+			this.chunkMask = (1 << chunkBits) - 1;
+			this.offset = offset;
+			this.size = size;
+		}
+
+		@Override
+		public ArrayPath.ArrayPathBuilder<NodeT, EdgeT> builderFromNode(NodeT node) {
+			return ArrayPath.builder(node);
+		}
+
+		@Override
+		public ArrayPath.ArrayPathBuilder<NodeT, EdgeT> toBuilder() {
+			return ArrayPath.builder(this);
+		}
+
+		@Override
+		public NodeT getHead() {
+			return node(0);
+		}
+
+		@Override
+		public NodeT getTail() {
+			return node(size - 1);
+		}
+
+		@Override
+		public void visitPairsFromHead(
+				BiConsumer<? super EdgeT, ? super NodeT> visitor
+		) {
+			if (PathMetrics.ENABLED) {
+				PathMetrics.visited(size * 2 - 2);
+			}
+			for (int i = 1; i < size; ++ i) {
+				visitor.accept(edge(i - 1), node(i));
+			}
+		}
+
+		@Override
+		@SuppressWarnings("ValueOfIncrementOrDecrementUsed")
+		public void visitPairsFromTail(
+				BiConsumer<? super EdgeT, ? super NodeT> visitor
+		) {
+			if (PathMetrics.ENABLED) {
+				PathMetrics.visited(size * 2 - 2);
+			}
+			for (int i = size - 1; (i --) > 0;) {
+				visitor.accept(edge(i), node(i));
+			}
+		}
+
+		@Override
+		public void visitFromHead(
+				Consumer<? super NodeT> nodeVisitor,
+				Consumer<? super EdgeT> edgeVisitor
+		) {
+			if (PathMetrics.ENABLED) {
+				PathMetrics.visited(size * 2 - 1);
+			}
+			nodeVisitor.accept(node(0));
+			for (int i = 1; i < size; ++ i) {
+				edgeVisitor.accept(edge(i - 1));
+				nodeVisitor.accept(node(i));
+			}
+		}
+
+		@Override
+		@SuppressWarnings("ValueOfIncrementOrDecrementUsed")
+		public void visitFromTail(
+				Consumer<? super NodeT> nodeVisitor,
+				Consumer<? super EdgeT> edgeVisitor
+		) {
+			if (PathMetrics.ENABLED) {
+				PathMetrics.visited(size * 2 - 1);
+			}
+			nodeVisitor.accept(node(size - 1));
+			for (int i = size - 1; (i --) > 0;) {
+				edgeVisitor.accept(edge(i));
+				nodeVisitor.accept(node(i));
+			}
+		}
+
+		@Override
+		public NodeT getNode(int nodeIndex) {
+			if (nodeIndex < 0 || nodeIndex >= size) {
+				throw new IndexOutOfBoundsException(
+						"Invalid node index: " + nodeIndex +
+						" (nodes in path: " + size + ")"
+				);
+			}
+			return node(nodeIndex);
+		}
+
+		@Override
+		public EdgeT getEdge(int edgeIndex) {
+			if (edgeIndex < 0 || edgeIndex >= size - 1) {
+				throw new IndexOutOfBoundsException(
+						"Invalid edge index: " + edgeIndex +
+						" (edges in path: " + (size - 1) + ")"
+				);
+			}
+			return edge(edgeIndex);
+		}
+
+		/**
+		 * Create a sub path from the start node index (inclusive) to the end
+		 * node index (also inclusive). The returned path is a view which
+		 * shares storage with this snapshot, so it is created in constant time.
+		 *
+		 * @param startNodeIndex the index of the first node to include in the
+		 *                       sub path
+		 * @param endNodeIndex the index of the last node to include in the sub
+		 *                     path
+		 * @return a path containing the requested sub path
+		 * @throws IndexOutOfBoundsException if the requested range is invalid
+		 */
+		@Override
+		public Snapshot<NodeT, EdgeT> subPath(
+				int startNodeIndex,
+				int endNodeIndex
+		) {
+			if (startNodeIndex < 0 || endNodeIndex < startNodeIndex) {
+				throw new IndexOutOfBoundsException(
+						"Invalid range: " + startNodeIndex + " -- " + endNodeIndex
+				);
+			}
+			if (endNodeIndex >= size) {
+				throw new IndexOutOfBoundsException(
+						"Invalid range: " + startNodeIndex + " -- " + endNodeIndex +
+						" (nodes in path: " + size + ")"
+				);
+			}
+			long started = PathMetrics.ENABLED ? PathMetrics.start() : 0;
+			Snapshot<NodeT, EdgeT> result = (startNodeIndex == 0 && endNodeIndex == size - 1)
+					? this
+					: new Snapshot<>(
+							nodeChunks,
+							edgeChunks,
+							chunkBits,
+							offset + startNodeIndex,
+							endNodeIndex - startNodeIndex + 1
+					);
+			if (PathMetrics.ENABLED) {
+				PathMetrics.record(PathMetrics.Operation.SUB_PATH, started, result.size);
+			}
+			return result;
+		}
+
+		@Override
+		public Spliterator<NodeT> nodeSpliterator() {
+			return IndexedSpliterator.nodes(this);
+		}
+
+		@Override
+		public Spliterator<EdgeT> edgeSpliterator() {
+			return IndexedSpliterator.edges(this);
+		}
+
+		@Override
+		public Spliterator<Map.Entry<EdgeT, NodeT>> pairSpliterator() {
+			return IndexedSpliterator.pairs(this);
+		}
+
+		@Override
+		public boolean visitFromHeadWhile(
+				Predicate<? super NodeT> nodeVisitor,
+				Predicate<? super EdgeT> edgeVisitor
+		) {
+			return CursorVisits.fromHeadWhile(this, nodeVisitor, edgeVisitor);
+		}
+
+		@Override
+		public boolean visitFromTailWhile(
+				Predicate<? super NodeT> nodeVisitor,
+				Predicate<? super EdgeT> edgeVisitor
+		) {
+			return CursorVisits.fromTailWhile(this, nodeVisitor, edgeVisitor);
+		}
+
+		@Override
+		public int countNodes() {
+			return size;
+		}
+
+		@Override
+		boolean hasFastCursor() {
+			return true;
+		}
+
+		@SuppressWarnings("unchecked")
+		private NodeT node(int index) {
+			int i = offset + index;
+			return (NodeT) nodeChunks[i >>> chunkBits][i & chunkMask];
+		}
+
+		@SuppressWarnings("unchecked")
+		private EdgeT edge(int index) {
+			int i = offset + index;
+			return (EdgeT) edgeChunks[i >>> chunkBits][i & chunkMask];
+		}
+	}
+}
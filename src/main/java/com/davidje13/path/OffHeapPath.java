@@ -0,0 +1,592 @@
+package com.davidje13.path;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * A path stored outside the Java heap, in direct or memory-mapped buffers.
+ * Nodes and edges are encoded with fixed-width codecs and only decoded when
+ * they are accessed, so very long paths do not create garbage collection
+ * pressure.
+ *
+ * Each node is stored in a record alongside the edge which follows it:
+ * {@code [node 0][edge 0][node 1][edge 1] ... [node n-1][padding]}. Records
+ * are split across several buffers, since a single buffer is limited to 2GB.
+ *
+ * Paths can be written to a file with {@link #writeTo} and read back without
+ * copying by using {@link #map}.
+ */
+public class OffHeapPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
+	static final int DEFAULT_SEGMENT_BYTES = 1 << 30;
+	private static final int INITIAL_SEGMENT_RECORDS = 64;
+
+	private final FixedWidthCodec<NodeT> nodeCodec;
+	private final FixedWidthCodec<EdgeT> edgeCodec;
+	private final ByteBuffer[] segments;
+	private final int segmentRecords;
+	private final int stride;
+
+	// Sub paths share segments with their parent, so only the records in the
+	// range [offset, offset + size) are ours.
+	private final int offset;
+	private final int size;
+
+	public static <NodeT, EdgeT> OffHeapPathBuilder<NodeT, EdgeT> builder(
+			NodeT node,
+			FixedWidthCodec<NodeT> nodeCodec,
+			FixedWidthCodec<EdgeT> edgeCodec
+	) {
+		return new OffHeapPathBuilder<>(
+				node,
+				nodeCodec,
+				edgeCodec,
+				segmentRecords(DEFAULT_SEGMENT_BYTES, nodeCodec, edgeCodec)
+		);
+	}
+
+	/**
+	 * Copy a path into off-heap storage.
+	 *
+	 * @param path the path to copy
+	 * @param nodeCodec codec to use for nodes
+	 * @param edgeCodec codec to use for edges
+	 * @return a new off-heap path equal to the given path
+	 */
+	public static <NodeT, EdgeT> OffHeapPath<NodeT, EdgeT> copyOf(
+			ImmutablePath<NodeT, EdgeT> path,
+			FixedWidthCodec<NodeT> nodeCodec,
+			FixedWidthCodec<EdgeT> edgeCodec
+	) {
+		OffHeapPathBuilder<NodeT, EdgeT> builder = builder(
+				path.getHead(),
+				nodeCodec,
+				edgeCodec
+		);
+		path.visitPairsFromHead(builder::pushBack);
+		return builder.build();
+	}
+
+	/**
+	 * Present a file written by {@link #writeTo} as a path. The file is
+	 * memory-mapped in read-only mode, so nodes and edges are only loaded
+	 * into memory as they are accessed.
+	 *
+	 * @param channel the file to map
+	 * @param nodeCodec codec which was used to write the nodes
+	 * @param edgeCodec codec which was used to write the edges
+	 * @return a path backed by the file
+	 * @throws IOException if the file cannot be mapped
+	 * @throws IllegalArgumentException if the file does not contain a path
+	 */
+	public static <NodeT, EdgeT> OffHeapPath<NodeT, EdgeT> map(
+			FileChannel channel,
+			FixedWidthCodec<NodeT> nodeCodec,
+			FixedWidthCodec<EdgeT> edgeCodec
+	) throws IOException {
+		return map(channel, nodeCodec, edgeCodec, DEFAULT_SEGMENT_BYTES);
+	}
+
+	static <NodeT, EdgeT> OffHeapPath<NodeT, EdgeT> map(
+			FileChannel channel,
+			FixedWidthCodec<NodeT> nodeCodec,
+			FixedWidthCodec<EdgeT> edgeCodec,
+			int segmentBytes
+	) throws IOException {
+		int segmentRecords = segmentRecords(segmentBytes, nodeCodec, edgeCodec);
+		long stride = nodeCodec.width() + edgeCodec.width();
+		long bytes = channel.size();
+		if (bytes == 0 || bytes % stride != 0 || bytes / stride > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(
+					"File size " + bytes + " is not valid for records of " +
+					stride + " bytes"
+			);
+		}
+
+		int size = (int) (bytes / stride);
+		ByteBuffer[] segments = new ByteBuffer[(size - 1) / segmentRecords + 1];
+		for (int i = 0; i < segments.length; ++ i) {
+			long start = i * (long) segmentRecords;
+			long records = Math.min(segmentRecords, size - start);
+			segments[i] = channel.map(
+					FileChannel.MapMode.READ_ONLY,
+					start * stride,
+					records * stride
+			);
+		}
+		return new OffHeapPath<>(nodeCodec, edgeCodec, segments, segmentRecords, 0, size);
+	}
+
+	private static int segmentRecords(
+			int segmentBytes,
+			FixedWidthCodec<?> nodeCodec,
+			FixedWidthCodec<?> edgeCodec
+	) {
+		int stride = nodeCodec.width() + edgeCodec.width();
+		if (nodeCodec.width() <= 0 || edgeCodec.width() < 0) {
+			throw new IllegalArgumentException("Invalid codec widths");
+		}
+		return Math.max(segmentBytes / stride, 1);
+	}
+
+	private OffHeapPath(
+			FixedWidthCodec<NodeT> nodeCodec,
+			FixedWidthCodec<EdgeT> edgeCodec,
+			ByteBuffer[] segments,
+			int segmentRecords,
+			int offset,
+			int size
+	) {
+		this.nodeCodec = nodeCodec;
+		this.edgeCodec = edgeCodec;
+		this.segments = segments;
+		this.segmentRecords = segmentRecords;
+		this.stride = nodeCodec.width() + edgeCodec.width();
+		this.offset = offset;
+		this.size = size;
+	}
+
+	@Override
+	public OffHeapPathBuilder<NodeT, EdgeT> builderFromNode(NodeT node) {
+		return new OffHeapPathBuilder<>(node, nodeCodec, edgeCodec, segmentRecords);
+	}
+
+	@Override
+	public OffHeapPathBuilder<NodeT, EdgeT> toBuilder() {
+		return new OffHeapPathBuilder<>(this);
+	}
+
+	/**
+	 * Write this path to a channel, in the format read by {@link #map}.
+	 *
+	 * @param channel the channel to write to
+	 * @throws IOException if writing fails
+	 */
+	public void writeTo(WritableByteChannel channel) throws IOException {
+		int record = offset;
+		int end = offset + size - 1;
+		while (record < end) {
+			int count = Math.min(
+					end - record,
+					segmentRecords - record % segmentRecords
+			);
+			writeFully(channel, records(record, count));
+			record += count;
+		}
+
+		// The final edge slot belongs to the next record if this is a sub
+		// path, so write padding instead
+		ByteBuffer last = ByteBuffer.allocate(stride);
+		ByteBuffer lastNode = records(end, 1);
+		lastNode.limit(lastNode.position() + nodeCodec.width());
+		last.put(lastNode);
+		last.clear();
+		writeFully(channel, last);
+	}
+
+	@Override
+	public NodeT getHead() {
+		return readNode(offset);
+	}
+
+	@Override
+	public NodeT getTail() {
+		return readNode(offset + size - 1);
+	}
+
+	@Override
+	public NodeT getNode(int nodeIndex) {
+		if (nodeIndex < 0 || nodeIndex >= size) {
+			throw new IndexOutOfBoundsException(
+					"Invalid node index: " + nodeIndex +
+					" (nodes in path: " + size + ")"
+			);
+		}
+		return readNode(offset + nodeIndex);
+	}
+
+	@Override
+	public EdgeT getEdge(int edgeIndex) {
+		if (edgeIndex < 0 || edgeIndex >= size - 1) {
+			throw new IndexOutOfBoundsException(
+					"Invalid edge index: " + edgeIndex +
+					" (edges in path: " + (size - 1) + ")"
+			);
+		}
+		return readEdge(offset + edgeIndex);
+	}
+
+	@Override
+	public void visitPairsFromHead(BiConsumer<? super EdgeT, ? super NodeT> visitor) {
+		for (int i = offset + 1; i < offset + size; ++ i) {
+			visitor.accept(readEdge(i - 1), readNode(i));
+		}
+	}
+
+	@Override
+	@SuppressWarnings("ValueOfIncrementOrDecrementUsed")
+	public void visitPairsFromTail(BiConsumer<? super EdgeT, ? super NodeT> visitor) {
+		for (int i = offset + size - 1; (i --) > offset;) {
+			visitor.accept(readEdge(i), readNode(i));
+		}
+	}
+
+	/**
+	 * Create a sub path from the start node index (inclusive) to the end node
+	 * index (also inclusive). The returned path shares storage with this path.
+	 *
+	 * @param startNodeIndex the index of the first node to include in the
+	 *                       sub path
+	 * @param endNodeIndex the index of the last node to include in the sub path
+	 * @return a path containing the requested sub path
+	 * @throws IndexOutOfBoundsException if the requested range is invalid
+	 */
+	@Override
+	public OffHeapPath<NodeT, EdgeT> subPath(int startNodeIndex, int endNodeIndex) {
+		if (startNodeIndex < 0 || endNodeIndex < startNodeIndex) {
+			throw new IndexOutOfBoundsException(
+					"Invalid range: " + startNodeIndex + " -- " + endNodeIndex
+			);
+		}
+		if (endNodeIndex >= size) {
+			throw new IndexOutOfBoundsException(
+					"Invalid range: " + startNodeIndex + " -- " + endNodeIndex +
+					" (nodes in path: " + size + ")"
+			);
+		}
+		if (startNodeIndex == 0 && endNodeIndex == size - 1) {
+			return this;
+		}
+
+		return new OffHeapPath<>(
+				nodeCodec,
+				edgeCodec,
+				segments,
+				segmentRecords,
+				offset + startNodeIndex,
+				endNodeIndex - startNodeIndex + 1
+		);
+	}
+
+	@Override
+	public Spliterator<NodeT> nodeSpliterator() {
+		return IndexedSpliterator.nodes(this);
+	}
+
+	@Override
+	public Spliterator<EdgeT> edgeSpliterator() {
+		return IndexedSpliterator.edges(this);
+	}
+
+	@Override
+	public Spliterator<Map.Entry<EdgeT, NodeT>> pairSpliterator() {
+		return IndexedSpliterator.pairs(this);
+	}
+
+	@Override
+	public boolean visitFromHeadWhile(
+			Predicate<? super NodeT> nodeVisitor,
+			Predicate<? super EdgeT> edgeVisitor
+	) {
+		return CursorVisits.fromHeadWhile(this, nodeVisitor, edgeVisitor);
+	}
+
+	@Override
+	public boolean visitFromTailWhile(
+			Predicate<? super NodeT> nodeVisitor,
+			Predicate<? super EdgeT> edgeVisitor
+	) {
+		return CursorVisits.fromTailWhile(this, nodeVisitor, edgeVisitor);
+	}
+
+	@Override
+	public int countNodes() {
+		return size;
+	}
+
+	@Override
+	boolean hasFastCursor() {
+		return true;
+	}
+
+	private NodeT readNode(int record) {
+		return nodeCodec.read(
+				segments[record / segmentRecords],
+				(record % segmentRecords) * stride
+		);
+	}
+
+	private EdgeT readEdge(int record) {
+		return edgeCodec.read(
+				segments[record / segmentRecords],
+				(record % segmentRecords) * stride + nodeCodec.width()
+		);
+	}
+
+	// count records starting from the given record must be in one segment
+	private ByteBuffer records(int record, int count) {
+		ByteBuffer buffer = segments[record / segmentRecords].duplicate();
+		int position = (record % segmentRecords) * stride;
+		buffer.limit(position + count * stride);
+		buffer.position(position);
+		return buffer;
+	}
+
+	private static void writeFully(
+			WritableByteChannel channel,
+			ByteBuffer buffer
+	) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	public static class OffHeapPathBuilder<NodeT, EdgeT> implements PathBuilder<NodeT, EdgeT, OffHeapPathBuilder<NodeT, EdgeT>> {
+		private final FixedWidthCodec<NodeT> nodeCodec;
+		private final FixedWidthCodec<EdgeT> edgeCodec;
+		private final int segmentRecords;
+
+		// back holds the initial node and everything pushed to the back.
+		// front holds nodes pushed to the front (with the edge which follows
+		// them), in the order they were pushed.
+		private RecordBuffer back;
+		private RecordBuffer front;
+
+		OffHeapPathBuilder(
+				NodeT node,
+				FixedWidthCodec<NodeT> nodeCodec,
+				FixedWidthCodec<EdgeT> edgeCodec,
+				int segmentRecords
+		) {
+			this.nodeCodec = nodeCodec;
+			this.edgeCodec = edgeCodec;
+			this.segmentRecords = segmentRecords;
+			reset(node);
+		}
+
+		private OffHeapPathBuilder(OffHeapPath<NodeT, EdgeT> basePath) {
+			this.nodeCodec = basePath.nodeCodec;
+			this.edgeCodec = basePath.edgeCodec;
+			this.segmentRecords = basePath.segmentRecords;
+			back = newBuffer();
+			front = newBuffer();
+			back.appendRecords(basePath, basePath.offset, basePath.size);
+		}
+
+		@Override
+		public NodeT getHead() {
+			if (front.count > 0) {
+				return front.readNode(front.count - 1);
+			}
+			return back.readNode(0);
+		}
+
+		@Override
+		public NodeT getTail() {
+			return back.readNode(back.count - 1);
+		}
+
+		@Override
+		public OffHeapPathBuilder<NodeT, EdgeT> pushBack(EdgeT edge, NodeT node) {
+			back.writeEdge(back.count - 1, edge);
+			back.writeNode(back.append(), node);
+			return this;
+		}
+
+		@Override
+		public OffHeapPathBuilder<NodeT, EdgeT> pushFront(NodeT node, EdgeT edge) {
+			int record = front.append();
+			front.writeNode(record, node);
+			front.writeEdge(record, edge);
+			return this;
+		}
+
+		@Override
+		public OffHeapPathBuilder<NodeT, EdgeT> pushBack(
+				EdgeT edge,
+				ImmutablePath<NodeT, EdgeT> path
+		) {
+			if (!(path instanceof OffHeapPath)) {
+				return PathBuilder.super.pushBack(edge, path);
+			}
+			OffHeapPath<NodeT, EdgeT> offHeapPath = (OffHeapPath<NodeT, EdgeT>) path;
+			if (offHeapPath.nodeCodec != nodeCodec || offHeapPath.edgeCodec != edgeCodec) {
+				// records can only be copied directly if they use the same encoding
+				return PathBuilder.super.pushBack(edge, path);
+			}
+
+			back.writeEdge(back.count - 1, edge);
+			back.appendRecords(offHeapPath, offHeapPath.offset, offHeapPath.size);
+			return this;
+		}
+
+		// Buffers which were not handed to a built path are cleared and
+		// reused, so that resetting does not allocate new direct memory
+		@Override
+		public OffHeapPathBuilder<NodeT, EdgeT> reset(NodeT node) {
+			back = reuseOrCreate(back);
+			front = reuseOrCreate(front);
+			back.writeNode(back.append(), node);
+			return this;
+		}
+
+		@Override
+		public OffHeapPath<NodeT, EdgeT> build() {
+			RecordBuffer result = back;
+			if (front.count > 0) {
+				result = newBuffer();
+				OffHeapPath<NodeT, EdgeT> frontRecords = front.owner();
+				for (int i = front.count; (i --) > 0;) {
+					result.appendRecords(frontRecords, i, 1);
+				}
+				result.appendRecords(back.owner(), 0, back.count);
+			}
+
+			OffHeapPath<NodeT, EdgeT> path = result.owner();
+			invalidate(result == back);
+			if (PathMetrics.ENABLED) {
+				PathMetrics.built(OffHeapPath.class);
+			}
+			return path;
+		}
+
+		private RecordBuffer newBuffer() {
+			return new RecordBuffer(nodeCodec.width() + edgeCodec.width());
+		}
+
+		private RecordBuffer reuseOrCreate(RecordBuffer buffer) {
+			if (buffer == null) {
+				return newBuffer();
+			}
+			buffer.clear();
+			return buffer;
+		}
+
+		// The back buffer's segments now belong to the built path if it was
+		// used directly, so it must not be written again. The builder is
+		// unusable until the next reset either way.
+		private void invalidate(boolean backIsShared) {
+			if (backIsShared) {
+				back = null;
+			} else {
+				back.clear();
+			}
+			front.clear();
+		}
+
+		// A growable sequence of records in direct buffers. Every segment
+		// except the last holds exactly segmentRecords records; the last
+		// segment grows as records are added.
+		private class RecordBuffer {
+			private final int stride;
+			private final List<ByteBuffer> segments = new ArrayList<>();
+			private int count = 0;
+
+			private RecordBuffer(int stride) {
+				this.stride = stride;
+			}
+
+			// Keeps the first segment for reuse. Later segments are dropped,
+			// since reserve only writes to the last segment.
+			private void clear() {
+				segments.subList(Math.min(1, segments.size()), segments.size()).clear();
+				count = 0;
+			}
+
+			private int append() {
+				reserve(1);
+				return count ++;
+			}
+
+			private void appendRecords(OffHeapPath<NodeT, EdgeT> source, int from, int records) {
+				int end = from + records;
+				while (from < end) {
+					int run = Math.min(
+							reserve(end - from),
+							source.segmentRecords - from % source.segmentRecords
+					);
+					ByteBuffer target = segments.get(segments.size() - 1).duplicate();
+					target.position((count % segmentRecords) * stride);
+					target.put(source.records(from, run));
+					count += run;
+					from += run;
+				}
+			}
+
+			// Make room for up to wanted records after the current end,
+			// returning the number of records which fit in the last segment
+			private int reserve(int wanted) {
+				int inSegment = count % segmentRecords;
+				if (inSegment == 0 && count / segmentRecords == segments.size()) {
+					segments.add(allocate(Math.min(
+							Math.max(wanted, INITIAL_SEGMENT_RECORDS),
+							segmentRecords
+					)));
+				}
+
+				int lastIndex = segments.size() - 1;
+				ByteBuffer last = segments.get(lastIndex);
+				int capacity = last.capacity() / stride;
+				if (capacity == inSegment) {
+					capacity = Math.min(
+							Math.max(capacity + (capacity >> 1), inSegment + wanted),
+							segmentRecords
+					);
+					ByteBuffer grown = allocate(capacity);
+					ByteBuffer existing = last.duplicate();
+					existing.clear();
+					existing.limit(inSegment * stride);
+					grown.put(existing);
+					segments.set(lastIndex, grown);
+				}
+				return Math.min(wanted, capacity - inSegment);
+			}
+
+			private ByteBuffer allocate(int records) {
+				return ByteBuffer.allocateDirect(records * stride);
+			}
+
+			private NodeT readNode(int record) {
+				return nodeCodec.read(
+						segments.get(record / segmentRecords),
+						(record % segmentRecords) * stride
+				);
+			}
+
+			private void writeNode(int record, NodeT node) {
+				nodeCodec.write(
+						segments.get(record / segmentRecords),
+						(record % segmentRecords) * stride,
+						node
+				);
+			}
+
+			private void writeEdge(int record, EdgeT edge) {
+				edgeCodec.write(
+						segments.get(record / segmentRecords),
+						(record % segmentRecords) * stride + nodeCodec.width(),
+						edge
+				);
+			}
+
+			// Presents the records as a path (sharing storage)
+			private OffHeapPath<NodeT, EdgeT> owner() {
+				return new OffHeapPath<>(
+						nodeCodec,
+						edgeCodec,
+						segments.toArray(new ByteBuffer[0]),
+						segmentRecords,
+						0,
+						count
+				);
+			}
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package com.davidje13.path;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+
+/**
+ * Joins a fixed number of ordered segments, which can be built and supplied
+ * by different threads, into a single path.
+ *
+ * {@link #toRopePath()} links the segments together without copying, in
+ * O(k log n) time (for k segments). {@link #toArrayPath()} copies the
+ * segments into a single pair of arrays, with each segment copied by a
+ * separate fork / join task.
+ *
+ * Segments can be set from any thread. All segments must be set before the
+ * path is assembled.
+ */
+public class ParallelPathAssembler<NodeT, EdgeT> {
+	private final AtomicReferenceArray<ImmutablePath<NodeT, EdgeT>> segments;
+	private final BiFunction<? super NodeT, ? super NodeT, ? extends EdgeT> edgeBetween;
+
+	/**
+	 * @param segmentCount the number of segments which will be joined
+	 * @param edgeBetween creates the edge between the tail of each segment
+	 *                    and the head of the next
+	 */
+	public ParallelPathAssembler(
+			int segmentCount,
+			BiFunction<? super NodeT, ? super NodeT, ? extends EdgeT> edgeBetween
+	) {
+		if (segmentCount < 1) {
+			throw new IllegalArgumentException("Invalid segment count: " + segmentCount);
+		}
+		this.segments = new AtomicReferenceArray<>(segmentCount);
+		this.edgeBetween = edgeBetween;
+	}
+
+	/**
+	 * @param index the position of the segment in the final path
+	 * @param segment the segment
+	 * @throws IndexOutOfBoundsException if the index is invalid
+	 */
+	public void setSegment(int index, ImmutablePath<NodeT, EdgeT> segment) {
+		segments.set(index, segment);
+	}
+
+	/**
+	 * Link the segments into a single path, sharing their structure (see
+	 * {@link RopePath#concatenate}).
+	 *
+	 * @return the joined path
+	 * @throws IllegalStateException if any segment has not been set
+	 */
+	public RopePath<NodeT, EdgeT> toRopePath() {
+		return link(0, segments.length() - 1);
+	}
+
+	/**
+	 * Copy the segments into a single {@link ArrayPath}, using the common
+	 * fork / join pool.
+	 *
+	 * @return the joined path
+	 * @throws IllegalStateException if any segment has not been set
+	 */
+	public ArrayPath<NodeT, EdgeT> toArrayPath() {
+		return toArrayPath(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Copy the segments into a single {@link ArrayPath}, using the given
+	 * fork / join pool.
+	 *
+	 * @param pool the pool to copy the segments in
+	 * @return the joined path
+	 * @throws IllegalStateException if any segment has not been set
+	 */
+	public ArrayPath<NodeT, EdgeT> toArrayPath(ForkJoinPool pool) {
+		int count = segments.length();
+		int[] offsets = new int[count + 1];
+		for (int i = 0; i < count; ++ i) {
+			offsets[i + 1] = offsets[i] + segment(i).countNodes();
+		}
+
+		Object[] nodes = new Object[offsets[count]];
+		Object[] edges = new Object[offsets[count] - 1];
+		pool.invoke(new CopyTask(nodes, edges, offsets, 0, count - 1));
+		return ArrayPath.wrap(nodes, edges);
+	}
+
+	private ImmutablePath<NodeT, EdgeT> segment(int index) {
+		ImmutablePath<NodeT, EdgeT> segment = segments.get(index);
+		if (segment == null) {
+			throw new IllegalStateException("Missing segment: " + index);
+		}
+		return segment;
+	}
+
+	// Joins halves recursively, so the resulting tree stays shallow
+	private RopePath<NodeT, EdgeT> link(int first, int last) {
+		if (first == last) {
+			return RopePath.of(segment(first));
+		}
+		int mid = (first + last) >>> 1;
+		RopePath<NodeT, EdgeT> left = link(first, mid);
+		RopePath<NodeT, EdgeT> right = link(mid + 1, last);
+		return RopePath.concatenate(
+				left,
+				edgeBetween.apply(left.getTail(), right.getHead()),
+				right
+		);
+	}
+
+	private class CopyTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Object[] nodes;
+		private final Object[] edges;
+		private final int[] offsets;
+		private final int first;
+		private final int last;
+
+		private CopyTask(Object[] nodes, Object[] edges, int[] offsets, int first, int last) {
+			this.nodes = nodes;
+			this.edges = edges;
+			this.offsets = offsets;
+			this.first = first;
+			this.last = last;
+		}
+
+		@Override
+		protected void compute() {
+			if (first == last) {
+				copy(first);
+				return;
+			}
+			int mid = (first + last) >>> 1;
+			invokeAll(
+					new CopyTask(nodes, edges, offsets, first, mid),
+					new CopyTask(nodes, edges, offsets, mid + 1, last)
+			);
+		}
+
+		private void copy(int index) {
+			ImmutablePath<NodeT, EdgeT> segment = segment(index);
+			int offset = offsets[index];
+			ArrayPath.copyInto(segment, nodes, edges, offset);
+			if (index > 0) {
+				// The edge which joins the previous segment to this one. The
+				// previous segment's nodes are copied by another task, so the
+				// tail is read from the segment itself.
+				edges[offset - 1] = edgeBetween.apply(
+						segment(index - 1).getTail(),
+						segment.getHead()
+				);
+			}
+		}
+	}
+}
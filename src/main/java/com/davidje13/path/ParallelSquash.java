@@ -0,0 +1,206 @@
+package com.davidje13.path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Fork / join implementation of {@link PathSquasher#squashNodesInParallel}.
+ *
+ * The path is split into chunks of nodes which are grouped independently.
+ * Groups are only ever split between adjacent nodes which the equality
+ * tester rejects, so the groups at the ends of each chunk can be repaired
+ * when neighbouring chunks are combined by testing the two nodes either
+ * side of the boundary.
+ */
+final class ParallelSquash<InNodeT, InEdgeT, OutNodeT, OutEdgeT> {
+	private static final int MIN_CHUNK_NODES = 4096;
+	private static final int CHUNKS_PER_THREAD = 8;
+
+	private final ImmutablePath<InNodeT, InEdgeT> path;
+	private final BiPredicate<InNodeT, InNodeT> nodeEqualityTester;
+	private final Function<ImmutablePath<InNodeT, InEdgeT>, OutNodeT> nodeCompactor;
+	private final Function<InEdgeT, OutEdgeT> edgeConverter;
+	private final int chunkNodes;
+
+	ParallelSquash(
+			ImmutablePath<InNodeT, InEdgeT> path,
+			BiPredicate<InNodeT, InNodeT> nodeEqualityTester,
+			Function<ImmutablePath<InNodeT, InEdgeT>, OutNodeT> nodeCompactor,
+			Function<InEdgeT, OutEdgeT> edgeConverter,
+			int parallelism
+	) {
+		this.path = path;
+		this.nodeEqualityTester = nodeEqualityTester;
+		this.nodeCompactor = nodeCompactor;
+		this.edgeConverter = edgeConverter;
+		this.chunkNodes = Math.max(
+				MIN_CHUNK_NODES,
+				path.countNodes() / (parallelism * CHUNKS_PER_THREAD)
+		);
+	}
+
+	ImmutablePath<OutNodeT, OutEdgeT> squash(
+			ForkJoinPool pool,
+			Function<? super OutNodeT, ? extends PathBuilder<OutNodeT, OutEdgeT, ?>> builderFactory
+	) {
+		Segment segment = pool.invoke(new SquashTask(0, path.countNodes() - 1));
+
+		if (segment.isSingleGroup()) {
+			return builderFactory.apply(compact(segment.first, segment.last)).build();
+		}
+
+		PathBuilder<OutNodeT, OutEdgeT, ?> builder = builderFactory.apply(
+				compact(segment.first, segment.firstGroupEnd)
+		);
+		// Steps alternate between edges and nodes, beginning with an edge
+		OutEdgeT edge = null;
+		boolean isEdge = true;
+		for (List<Object> part : segment.steps) {
+			for (Object step : part) {
+				if (isEdge) {
+					@SuppressWarnings("unchecked")
+					OutEdgeT stepEdge = (OutEdgeT) step;
+					edge = stepEdge;
+				} else {
+					@SuppressWarnings("unchecked")
+					OutNodeT stepNode = (OutNodeT) step;
+					builder.pushBack(edge, stepNode);
+				}
+				isEdge = !isEdge;
+			}
+		}
+		builder.pushBack(edge, compact(segment.lastGroupStart, segment.last));
+		return builder.build();
+	}
+
+	private OutNodeT compact(int firstNode, int lastNode) {
+		return nodeCompactor.apply(path.subPath(firstNode, lastNode));
+	}
+
+	private Segment squashChunk(int first, int last) {
+		ImmutablePath<InNodeT, InEdgeT> chunk = path.subPath(first, last);
+		Segment segment = new Segment(first, last, chunk.getHead(), chunk.getTail());
+		ChunkGroups groups = new ChunkGroups();
+
+		chunk.visitGroupedFromHead(nodeEqualityTester, groups::group, groups::edge);
+
+		segment.firstGroupEnd = first + groups.firstGroupNodes - 1;
+		segment.lastGroupStart = last - groups.lastGroupNodes + 1;
+		segment.steps.add(groups.steps);
+		return segment;
+	}
+
+	private Segment combine(Segment left, Segment right) {
+		Segment combined = new Segment(left.first, right.last, left.headNode, right.tailNode);
+		boolean joined = nodeEqualityTester.test(left.tailNode, right.headNode);
+
+		combined.firstGroupEnd = left.isSingleGroup() && joined
+				? right.firstGroupEnd
+				: left.firstGroupEnd;
+		combined.lastGroupStart = right.isSingleGroup() && joined
+				? left.lastGroupStart
+				: right.lastGroupStart;
+
+		if (combined.isSingleGroup()) {
+			return combined;
+		}
+
+		combined.steps.addAll(left.steps);
+		List<Object> seam = new ArrayList<>(3);
+		if (joined) {
+			if (!left.isSingleGroup() && !right.isSingleGroup()) {
+				seam.add(compact(left.lastGroupStart, right.firstGroupEnd));
+			}
+		} else {
+			if (!left.isSingleGroup()) {
+				seam.add(compact(left.lastGroupStart, left.last));
+			}
+			seam.add(edgeConverter.apply(path.getEdge(left.last)));
+			if (!right.isSingleGroup()) {
+				seam.add(compact(right.first, right.firstGroupEnd));
+			}
+		}
+		combined.steps.add(seam);
+		combined.steps.addAll(right.steps);
+		return combined;
+	}
+
+	// A squashed range of nodes. The first and last groups may continue into
+	// neighbouring segments, so they are kept as node ranges and compacted
+	// later. Everything between them is already converted, and stored as
+	// alternating edges and nodes (beginning and ending with an edge).
+	private class Segment {
+		private final int first;
+		private final int last;
+		private final InNodeT headNode;
+		private final InNodeT tailNode;
+		private int firstGroupEnd;
+		private int lastGroupStart;
+		private final List<List<Object>> steps = new ArrayList<>();
+
+		private Segment(int first, int last, InNodeT headNode, InNodeT tailNode) {
+			this.first = first;
+			this.last = last;
+			this.headNode = headNode;
+			this.tailNode = tailNode;
+		}
+
+		private boolean isSingleGroup() {
+			return firstGroupEnd == last;
+		}
+	}
+
+	// Compacts every group except the first and last, which are only counted.
+	// Each group is known not to be the last when the edge after it arrives.
+	private class ChunkGroups {
+		private final List<Object> steps = new ArrayList<>();
+		private ImmutablePath<InNodeT, InEdgeT> pendingGroup = null;
+		private int firstGroupNodes = 0;
+		private int lastGroupNodes = 0;
+
+		private void group(ImmutablePath<InNodeT, InEdgeT> group) {
+			if (firstGroupNodes == 0) {
+				firstGroupNodes = group.countNodes();
+			} else {
+				pendingGroup = group;
+			}
+			lastGroupNodes = group.countNodes();
+		}
+
+		private void edge(InEdgeT edge) {
+			if (pendingGroup != null) {
+				steps.add(nodeCompactor.apply(pendingGroup));
+			}
+			steps.add(edgeConverter.apply(edge));
+		}
+	}
+
+	private class SquashTask extends RecursiveTask<Segment> {
+		private static final long serialVersionUID = 1L;
+
+		private final int first;
+		private final int last;
+
+		private SquashTask(int first, int last) {
+			this.first = first;
+			this.last = last;
+		}
+
+		@Override
+		protected Segment compute() {
+			if (last - first < chunkNodes) {
+				return squashChunk(first, last);
+			}
+			int mid = (first + last) >>> 1;
+			SquashTask left = new SquashTask(first, mid);
+			SquashTask right = new SquashTask(mid + 1, last);
+			right.fork();
+			Segment leftSegment = left.compute();
+			return combine(leftSegment, right.join());
+		}
+	}
+}
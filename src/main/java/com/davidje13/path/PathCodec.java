@@ -0,0 +1,485 @@
+package com.davidje13.path;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Binary serialization for paths.
+ *
+ * The format is a node count followed by each node and edge in order from the
+ * head. Every element is framed by its length on both sides, so the encoded
+ * data can be read in either direction:
+ *
+ * <pre>
+ * [int node count]
+ * [int length][node 0][int length]
+ * [int length][edge 0][int length]
+ * [int length][node 1][int length]
+ * ...
+ * </pre>
+ *
+ * All integers are big-endian. Decoding does not copy the data; the returned
+ * path reads elements from the buffer as they are accessed.
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+public class PathCodec<NodeT, EdgeT> {
+	private static final int LENGTH_BYTES = Integer.BYTES;
+
+	private final ElementSerializer<NodeT> nodeSerializer;
+	private final ElementSerializer<EdgeT> edgeSerializer;
+
+	public PathCodec(
+			ElementSerializer<NodeT> nodeSerializer,
+			ElementSerializer<EdgeT> edgeSerializer
+	) {
+		this.nodeSerializer = nodeSerializer;
+		this.edgeSerializer = edgeSerializer;
+	}
+
+	/**
+	 * Write a path to a stream. Elements are encoded as the path is visited,
+	 * so no intermediate copy of the path is made.
+	 *
+	 * @param path the path to write
+	 * @param output the stream to write to
+	 * @throws IOException if writing fails
+	 */
+	public void write(
+			ImmutablePath<NodeT, EdgeT> path,
+			OutputStream output
+	) throws IOException {
+		ElementWriter writer = new ElementWriter(output);
+		writer.data.writeInt(path.countNodes());
+		writer.write(nodeSerializer, path.getHead());
+		try {
+			path.visitPairsFromHead((edge, node) -> {
+				writer.writeUnchecked(edgeSerializer, edge);
+				writer.writeUnchecked(nodeSerializer, node);
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		writer.data.flush();
+	}
+
+	/**
+	 * @param path the path to encode
+	 * @return a buffer containing the encoded path
+	 */
+	public ByteBuffer encode(ImmutablePath<NodeT, EdgeT> path) {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try {
+			write(path, output);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return ByteBuffer.wrap(output.toByteArray());
+	}
+
+	/**
+	 * Present encoded data as a path, without copying. The data between the
+	 * buffer's position and limit must contain exactly one encoded path. The
+	 * buffer's position and limit are not changed, and the data must not be
+	 * modified while the path is in use.
+	 *
+	 * @param buffer the encoded data
+	 * @return a path which decodes elements from the buffer on demand
+	 * @throws IllegalArgumentException if the buffer does not contain a path
+	 */
+	public ImmutablePath<NodeT, EdgeT> decode(ByteBuffer buffer) {
+		ByteBuffer data = buffer.asReadOnlyBuffer();
+		int start = data.position();
+		if (data.remaining() < LENGTH_BYTES * 3) {
+			throw new IllegalArgumentException("Buffer is too short to contain a path");
+		}
+		int size = data.getInt(start);
+		if (size < 1) {
+			throw new IllegalArgumentException("Invalid node count: " + size);
+		}
+		return new EncodedPath(data, start + LENGTH_BYTES, data.limit(), size);
+	}
+
+	// Reuses a single scratch buffer to find the length of each element
+	// before it is written
+	private class ElementWriter {
+		private final DataOutputStream data;
+		private final ByteArrayOutputStream scratch = new ByteArrayOutputStream();
+		private final DataOutputStream scratchData = new DataOutputStream(scratch);
+
+		private ElementWriter(OutputStream output) {
+			this.data = new DataOutputStream(output);
+		}
+
+		private <T> void write(ElementSerializer<T> serializer, T value) throws IOException {
+			scratch.reset();
+			serializer.write(scratchData, value);
+			scratchData.flush();
+			data.writeInt(scratch.size());
+			scratch.writeTo(data);
+			data.writeInt(scratch.size());
+		}
+
+		private <T> void writeUnchecked(ElementSerializer<T> serializer, T value) {
+			try {
+				write(serializer, value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	private class EncodedPath extends ComparablePath<NodeT, EdgeT> {
+		private final ByteBuffer data;
+
+		// Byte range of the elements: from the leading length of the head to
+		// just after the trailing length of the tail
+		private final int begin;
+		private final int end;
+		private final int size;
+
+		private EncodedPath(ByteBuffer data, int begin, int end, int size) {
+			this.data = data;
+			this.begin = begin;
+			this.end = end;
+			this.size = size;
+		}
+
+		@Override
+		public ArrayPath.ArrayPathBuilder<NodeT, EdgeT> builderFromNode(NodeT node) {
+			return ArrayPath.builder(node);
+		}
+
+		@Override
+		public NodeT getHead() {
+			return read(nodeSerializer, begin);
+		}
+
+		@Override
+		public NodeT getTail() {
+			return read(nodeSerializer, previous(end));
+		}
+
+		// Seeking skips over elements from the nearest end without decoding
+		// them, so only the requested element is read
+		@Override
+		public NodeT getNode(int nodeIndex) {
+			return cursor().seek(nodeIndex);
+		}
+
+		@Override
+		public EdgeT getEdge(int edgeIndex) {
+			if (edgeIndex < 0 || edgeIndex >= size - 1) {
+				throw new IndexOutOfBoundsException(
+						"Invalid edge index: " + edgeIndex +
+						" (edges in path: " + (size - 1) + ")"
+				);
+			}
+			PathCursor<NodeT, EdgeT> cursor = cursor();
+			cursor.seek(edgeIndex);
+			return cursor.getNextEdge();
+		}
+
+		@Override
+		public void visitPairsFromHead(BiConsumer<? super EdgeT, ? super NodeT> visitor) {
+			int position = next(begin);
+			while (position < end) {
+				EdgeT edge = read(edgeSerializer, position);
+				position = next(position);
+				NodeT node = read(nodeSerializer, position);
+				position = next(position);
+				visitor.accept(edge, node);
+			}
+		}
+
+		@Override
+		public void visitPairsFromTail(BiConsumer<? super EdgeT, ? super NodeT> visitor) {
+			int position = previous(end);
+			while (position > begin) {
+				position = previous(position);
+				EdgeT edge = read(edgeSerializer, position);
+				position = previous(position);
+				NodeT node = read(nodeSerializer, position);
+				visitor.accept(edge, node);
+			}
+		}
+
+		/**
+		 * Create a sub path from the start node index (inclusive) to the end
+		 * node index (also inclusive). The returned path reads from the same
+		 * buffer. Finding the range skips over elements without decoding them.
+		 *
+		 * @param startNodeIndex the index of the first node to include in the
+		 *                       sub path
+		 * @param endNodeIndex the index of the last node to include in the sub
+		 *                     path
+		 * @return a path containing the requested sub path
+		 * @throws IndexOutOfBoundsException if the requested range is invalid
+		 */
+		@Override
+		public ImmutablePath<NodeT, EdgeT> subPath(int startNodeIndex, int endNodeIndex) {
+			if (startNodeIndex < 0 || endNodeIndex < startNodeIndex) {
+				throw new IndexOutOfBoundsException(
+						"Invalid range: " + startNodeIndex + " -- " + endNodeIndex
+				);
+			}
+			if (endNodeIndex >= size) {
+				throw new IndexOutOfBoundsException(
+						"Invalid range: " + startNodeIndex + " -- " + endNodeIndex +
+						" (nodes in path: " + size + ")"
+				);
+			}
+			if (startNodeIndex == 0 && endNodeIndex == size - 1) {
+				return this;
+			}
+
+			int subBegin;
+			int subEnd;
+			if (startNodeIndex < size - 1 - endNodeIndex) {
+				subBegin = skipForward(begin, startNodeIndex * 2);
+				subEnd = skipForward(subBegin, (endNodeIndex - startNodeIndex) * 2 + 1);
+			} else {
+				subEnd = skipBackward(end, (size - 1 - endNodeIndex) * 2);
+				subBegin = skipBackward(subEnd, (endNodeIndex - startNodeIndex) * 2 + 1);
+			}
+			return new EncodedPath(data, subBegin, subEnd, endNodeIndex - startNodeIndex + 1);
+		}
+
+		@Override
+		public boolean visitFromHeadWhile(
+				Predicate<? super NodeT> nodeVisitor,
+				Predicate<? super EdgeT> edgeVisitor
+		) {
+			return CursorVisits.fromHeadWhile(this, nodeVisitor, edgeVisitor);
+		}
+
+		@Override
+		public boolean visitFromTailWhile(
+				Predicate<? super NodeT> nodeVisitor,
+				Predicate<? super EdgeT> edgeVisitor
+		) {
+			return CursorVisits.fromTailWhile(this, nodeVisitor, edgeVisitor);
+		}
+
+		@Override
+		public int countNodes() {
+			return size;
+		}
+
+		@Override
+		boolean hasFastCursor() {
+			return true;
+		}
+
+		@Override
+		public PathCursor<NodeT, EdgeT> cursor() {
+			return new EncodedCursor();
+		}
+
+		@Override
+		public Spliterator<NodeT> nodeSpliterator() {
+			return new EncodedSpliterator<>((position) -> read(nodeSerializer, position), begin, size);
+		}
+
+		@Override
+		public Spliterator<EdgeT> edgeSpliterator() {
+			return new EncodedSpliterator<>((position) -> read(edgeSerializer, position), next(begin), size - 1);
+		}
+
+		@Override
+		public Spliterator<Map.Entry<EdgeT, NodeT>> pairSpliterator() {
+			return new EncodedSpliterator<>(
+					(position) -> new AbstractMap.SimpleImmutableEntry<>(
+							read(edgeSerializer, position),
+							read(nodeSerializer, next(position))
+					),
+					next(begin),
+					size - 1
+			);
+		}
+
+		private <T> T read(ElementSerializer<T> serializer, int position) {
+			int length = data.getInt(position);
+			ByteBuffer element = data.duplicate();
+			element.limit(position + LENGTH_BYTES + length);
+			element.position(position + LENGTH_BYTES);
+			return serializer.read(element.slice());
+		}
+
+		// Returns the position of the element after the one at position
+		private int next(int position) {
+			return position + data.getInt(position) + LENGTH_BYTES * 2;
+		}
+
+		// Returns the position of the element which ends at position
+		private int previous(int position) {
+			return position - data.getInt(position - LENGTH_BYTES) - LENGTH_BYTES * 2;
+		}
+
+		private int skipForward(int position, int elements) {
+			int p = position;
+			for (int i = 0; i < elements; ++ i) {
+				p = next(p);
+			}
+			return p;
+		}
+
+		private int skipBackward(int position, int elements) {
+			int p = position;
+			for (int i = 0; i < elements; ++ i) {
+				p = previous(p);
+			}
+			return p;
+		}
+
+		// Walks every second element from a byte position, in the same way as
+		// EncodedCursor. Splitting skips over elements without decoding them.
+		private class EncodedSpliterator<T> implements Spliterator<T> {
+			private final IntFunction<T> reader;
+			private int position;
+			private int remaining;
+
+			private EncodedSpliterator(IntFunction<T> reader, int position, int remaining) {
+				this.reader = reader;
+				this.position = position;
+				this.remaining = remaining;
+			}
+
+			@Override
+			public boolean tryAdvance(Consumer<? super T> action) {
+				if (remaining == 0) {
+					return false;
+				}
+				T element = reader.apply(position);
+				-- remaining;
+				if (remaining > 0) {
+					position = skipForward(position, 2);
+				}
+				action.accept(element);
+				return true;
+			}
+
+			@Override
+			public Spliterator<T> trySplit() {
+				if (remaining < 2) {
+					return null;
+				}
+				int half = remaining / 2;
+				Spliterator<T> prefix = new EncodedSpliterator<>(reader, position, half);
+				position = skipForward(position, half * 2);
+				remaining -= half;
+				return prefix;
+			}
+
+			@Override
+			public long estimateSize() {
+				return remaining;
+			}
+
+			@Override
+			public int characteristics() {
+				return ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+			}
+		}
+
+		// Tracks the byte position of the current node, so moving skips over
+		// elements without decoding them
+		private class EncodedCursor implements PathCursor<NodeT, EdgeT> {
+			private int position = begin;
+			private int index = 0;
+
+			@Override
+			public int getIndex() {
+				return index;
+			}
+
+			@Override
+			public NodeT getNode() {
+				return read(nodeSerializer, position);
+			}
+
+			@Override
+			public boolean hasNext() {
+				return index < size - 1;
+			}
+
+			@Override
+			public boolean hasPrev() {
+				return index > 0;
+			}
+
+			@Override
+			public EdgeT getNextEdge() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return read(edgeSerializer, EncodedPath.this.next(position));
+			}
+
+			@Override
+			public EdgeT getPrevEdge() {
+				if (!hasPrev()) {
+					throw new NoSuchElementException();
+				}
+				return read(edgeSerializer, previous(position));
+			}
+
+			@Override
+			public NodeT next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				position = skipForward(position, 2);
+				++ index;
+				return getNode();
+			}
+
+			@Override
+			public NodeT prev() {
+				if (!hasPrev()) {
+					throw new NoSuchElementException();
+				}
+				position = skipBackward(position, 2);
+				-- index;
+				return getNode();
+			}
+
+			@Override
+			public NodeT seek(int nodeIndex) {
+				if (nodeIndex < 0 || nodeIndex >= size) {
+					throw new IndexOutOfBoundsException(
+							"Invalid node index: " + nodeIndex +
+							" (nodes in path: " + size + ")"
+					);
+				}
+				// Skip from whichever of the head, tail or current node is closest
+				int fromHead = nodeIndex;
+				int fromTail = size - 1 - nodeIndex;
+				int fromCurrent = Math.abs(nodeIndex - index);
+				if (fromCurrent <= fromHead && fromCurrent <= fromTail) {
+					position = (nodeIndex >= index)
+							? skipForward(position, fromCurrent * 2)
+							: skipBackward(position, fromCurrent * 2);
+				} else if (fromHead <= fromTail) {
+					position = skipForward(begin, fromHead * 2);
+				} else {
+					position = previous(skipBackward(end, fromTail * 2));
+				}
+				index = nodeIndex;
+				return getNode();
+			}
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.davidje13.path;
+
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.stream.Collector;
+
+/**
+ * Collectors which build paths from streams.
+ *
+ * Results are {@link RopePath}s, so parallel streams can build partial paths
+ * on separate threads and join them in logarithmic time, rather than
+ * replaying every element into a single builder.
+ */
+public final class PathCollectors {
+	private PathCollectors() {
+	}
+
+	/**
+	 * Collect a stream of nodes into a path.
+	 *
+	 * @param edgeBetween creates the edge between two adjacent nodes
+	 * @return a collector which builds a path from the nodes in encounter
+	 * order. The collector throws {@link NoSuchElementException} if the
+	 * stream is empty.
+	 */
+	public static <NodeT, EdgeT> Collector<NodeT, ?, RopePath<NodeT, EdgeT>> toPath(
+			BiFunction<? super NodeT, ? super NodeT, ? extends EdgeT> edgeBetween
+	) {
+		return Collector.of(
+				() -> new Partial<NodeT, EdgeT>(edgeBetween),
+				Partial::addNode,
+				Partial::combine,
+				Partial::build
+		);
+	}
+
+	/**
+	 * Collect a stream of paths into a single path.
+	 *
+	 * @param edgeBetween creates the edge between the tail of each path and
+	 *                    the head of the next
+	 * @return a collector which joins the paths in encounter order. The
+	 * collector throws {@link NoSuchElementException} if the stream is empty.
+	 */
+	public static <NodeT, EdgeT> Collector<ImmutablePath<NodeT, EdgeT>, ?, RopePath<NodeT, EdgeT>> joining(
+			BiFunction<? super NodeT, ? super NodeT, ? extends EdgeT> edgeBetween
+	) {
+		return Collector.of(
+				() -> new Partial<NodeT, EdgeT>(edgeBetween),
+				Partial::addPath,
+				Partial::combine,
+				Partial::build
+		);
+	}
+
+	// The path collected by one thread. Empty until the first element.
+	private static class Partial<NodeT, EdgeT> {
+		private final BiFunction<? super NodeT, ? super NodeT, ? extends EdgeT> edgeBetween;
+		private RopePath.RopePathBuilder<NodeT, EdgeT> builder = null;
+
+		private Partial(BiFunction<? super NodeT, ? super NodeT, ? extends EdgeT> edgeBetween) {
+			this.edgeBetween = edgeBetween;
+		}
+
+		private void addNode(NodeT node) {
+			if (builder == null) {
+				builder = RopePath.builder(node);
+			} else {
+				builder.pushBack(edgeBetween.apply(builder.getTail(), node), node);
+			}
+		}
+
+		private void addPath(ImmutablePath<NodeT, EdgeT> path) {
+			if (builder == null) {
+				builder = RopePath.builder(path);
+			} else {
+				builder.pushBack(edgeBetween.apply(builder.getTail(), path.getHead()), path);
+			}
+		}
+
+		private Partial<NodeT, EdgeT> combine(Partial<NodeT, EdgeT> other) {
+			if (other.builder == null) {
+				return this;
+			}
+			if (builder == null) {
+				return other;
+			}
+			addPath(other.builder.build());
+			return this;
+		}
+
+		private RopePath<NodeT, EdgeT> build() {
+			if (builder == null) {
+				throw new NoSuchElementException("Cannot build a path from an empty stream");
+			}
+			return builder.build();
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.davidje13.path;
+
+/**
+ * A position on a node of a path, which can be moved in either direction.
+ *
+ * Moving and reading do not allocate, so cursors are suitable for traversals
+ * which need to stop early or know where they are. Cursors are not
+ * thread-safe, but any number of cursors can be used on the same path.
+ */
+public interface PathCursor<NodeT, EdgeT> {
+	/**
+	 * @return the index of the current node
+	 */
+	int getIndex();
+
+	/**
+	 * @return the current node
+	 */
+	NodeT getNode();
+
+	/**
+	 * @return true if there is a node after the current node
+	 */
+	boolean hasNext();
+
+	/**
+	 * @return true if there is a node before the current node
+	 */
+	boolean hasPrev();
+
+	/**
+	 * @return the edge after the current node
+	 * @throws java.util.NoSuchElementException if this is the tail node
+	 */
+	EdgeT getNextEdge();
+
+	/**
+	 * @return the edge before the current node
+	 * @throws java.util.NoSuchElementException if this is the head node
+	 */
+	EdgeT getPrevEdge();
+
+	/**
+	 * Move to the next node.
+	 *
+	 * @return the new current node
+	 * @throws java.util.NoSuchElementException if this is the tail node
+	 */
+	NodeT next();
+
+	/**
+	 * Move to the previous node.
+	 *
+	 * @return the new current node
+	 * @throws java.util.NoSuchElementException if this is the head node
+	 */
+	NodeT prev();
+
+	/**
+	 * Move to the given node.
+	 *
+	 * @param nodeIndex the index of the node to move to
+	 * @return the new current node
+	 * @throws IndexOutOfBoundsException if the index is not in the path
+	 */
+	NodeT seek(int nodeIndex);
+}
@@ -0,0 +1,172 @@
+package com.davidje13.path;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * Returns a single canonical instance for each distinct path, so that
+ * duplicate paths can share memory and be compared by reference.
+ *
+ * Paths are compared with their normal {@code equals} method, so equal paths
+ * with different backends share a canonical instance (the first one which
+ * was interned). Canonical instances are only weakly referenced, and are
+ * forgotten once nothing else refers to them.
+ *
+ * The interner is thread-safe. Entries are split across independently locked
+ * stripes, so threads interning different paths rarely contend.
+ */
+public class PathInterner<NodeT, EdgeT> {
+	private static final int DEFAULT_STRIPES = 16;
+	private static final int INITIAL_TABLE_SIZE = 16;
+
+	// Keeps the stripe count representable, and leaves enough hash bits to
+	// spread entries within each stripe (as ConcurrentHashMap's segments)
+	private static final int MAX_STRIPES = 1 << 16;
+
+	private final Stripe[] stripes;
+	private final int stripeShift;
+
+	public PathInterner() {
+		this(DEFAULT_STRIPES);
+	}
+
+	/**
+	 * @param concurrencyLevel the expected number of threads interning paths
+	 *                         at the same time (values above 65536 are
+	 *                         treated as 65536)
+	 */
+	public PathInterner(int concurrencyLevel) {
+		int stripeCount = Math.min(Math.max(concurrencyLevel, 1), MAX_STRIPES);
+		int bits = 32 - Integer.numberOfLeadingZeros(stripeCount - 1);
+		stripes = new Stripe[1 << bits];
+		for (int i = 0; i < stripes.length; ++ i) {
+			stripes[i] = new Stripe();
+		}
+		stripeShift = bits;
+	}
+
+	/**
+	 * @param path the path to intern
+	 * @return the canonical instance which is equal to the given path. If no
+	 * equal path has been interned, this is the given path.
+	 */
+	public ImmutablePath<NodeT, EdgeT> intern(ImmutablePath<NodeT, EdgeT> path) {
+		int hash = spread(path.hashCode());
+		Stripe stripe = stripes[hash & (stripes.length - 1)];
+
+		// Equal paths contain equal nodes and edges, so share their types
+		@SuppressWarnings("unchecked")
+		ImmutablePath<NodeT, EdgeT> canonical =
+				(ImmutablePath<NodeT, EdgeT>) stripe.intern(path, hash >>> stripeShift);
+		return canonical;
+	}
+
+	/**
+	 * @return the number of canonical paths which are still reachable. This
+	 * is approximate if paths are being interned or collected concurrently.
+	 */
+	public int size() {
+		int size = 0;
+		for (Stripe stripe : stripes) {
+			size += stripe.size();
+		}
+		return size;
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	private static class Entry extends WeakReference<ImmutablePath<?, ?>> {
+		private final int hash;
+		private Entry next;
+
+		private Entry(
+				ImmutablePath<?, ?> path,
+				int hash,
+				ReferenceQueue<ImmutablePath<?, ?>> queue,
+				Entry next
+		) {
+			super(path, queue);
+			this.hash = hash;
+			this.next = next;
+		}
+	}
+
+	// A hash table of weak entries (chained), guarded by its own lock
+	private static class Stripe {
+		private final ReferenceQueue<ImmutablePath<?, ?>> queue = new ReferenceQueue<>();
+		private Entry[] table = new Entry[INITIAL_TABLE_SIZE];
+		private int count = 0;
+
+		private synchronized ImmutablePath<?, ?> intern(
+				ImmutablePath<?, ?> path,
+				int hash
+		) {
+			expungeCollected();
+
+			int index = hash & (table.length - 1);
+			for (Entry entry = table[index]; entry != null; entry = entry.next) {
+				if (entry.hash != hash) {
+					continue;
+				}
+				ImmutablePath<?, ?> canonical = entry.get();
+				if (canonical != null && canonical.equals(path)) {
+					return canonical;
+				}
+			}
+
+			table[index] = new Entry(path, hash, queue, table[index]);
+			++ count;
+			if (count > table.length - (table.length >> 2)) {
+				resize();
+			}
+			return path;
+		}
+
+		private synchronized int size() {
+			expungeCollected();
+			return count;
+		}
+
+		private void expungeCollected() {
+			Reference<? extends ImmutablePath<?, ?>> collected;
+			while ((collected = queue.poll()) != null) {
+				remove((Entry) collected);
+			}
+		}
+
+		private void remove(Entry removed) {
+			int index = removed.hash & (table.length - 1);
+			Entry previous = null;
+			for (Entry entry = table[index]; entry != null; entry = entry.next) {
+				if (entry == removed) {
+					if (previous == null) {
+						table[index] = entry.next;
+					} else {
+						previous.next = entry.next;
+					}
+					-- count;
+					return;
+				}
+				previous = entry;
+			}
+		}
+
+		private void resize() {
+			Entry[] newTable = new Entry[table.length * 2];
+			for (Entry head : table) {
+				Entry entry = head;
+				while (entry != null) {
+					Entry next = entry.next;
+					int index = entry.hash & (newTable.length - 1);
+					entry.next = newTable[index];
+					newTable[index] = entry;
+					entry = next;
+				}
+			}
+			table = newTable;
+		}
+	}
+}
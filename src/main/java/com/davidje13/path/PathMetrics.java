@@ -0,0 +1,271 @@
+package com.davidje13.path;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Optional counters for the time spent inside path operations.
+ *
+ * Instrumentation is only active when the JVM is started with
+ * {@code -Dcom.davidje13.path.metrics=true}. Otherwise every instrumented
+ * call site is guarded by the static final {@link #ENABLED} flag, which the
+ * JIT removes entirely.
+ *
+ * When enabled, the counters are also published as a
+ * {@link PathMetricsMXBean} named {@value #OBJECT_NAME}, and recording can be
+ * paused and resumed at runtime (through the MBean or
+ * {@link #setRecording(boolean)}). A {@link Listener} can be installed to
+ * receive each timed operation as it completes, for example to forward them
+ * as JFR events.
+ *
+ * The built-in backends ({@link LinkedPath}, {@link ArrayPath} and
+ * {@link RopePath}), the default searches and {@link PathSquasher} are
+ * instrumented.
+ */
+public final class PathMetrics {
+	public static final boolean ENABLED = Boolean.getBoolean("com.davidje13.path.metrics");
+
+	public static final String OBJECT_NAME = "com.davidje13.path:type=PathMetrics";
+
+	// Returned by start() when the operation is not being timed
+	static final long NOT_RECORDING = Long.MIN_VALUE;
+
+	public enum Operation {
+		/**
+		 * calls to {@code subPath} (including those made internally by other
+		 * backends); elements are the nodes in each result
+		 */
+		SUB_PATH,
+		/** sub path searches; elements are the nodes and edges examined */
+		INDEX_OF,
+		/** path comparisons; elements are the nodes compared */
+		EQUALS,
+		/** hash calculations; elements are the nodes hashed */
+		HASH_CODE,
+		/** {@link PathSquasher} squashes; elements are the input nodes */
+		SQUASH,
+		/** {@link PathSquasher} expansions; elements are the output nodes */
+		EXPAND,
+	}
+
+	/**
+	 * Receives every timed operation while metrics are being recorded.
+	 * Called on the thread which performed the operation, so implementations
+	 * must be fast and thread-safe.
+	 */
+	public interface Listener {
+		void operationCompleted(Operation operation, long nanos, long elements);
+	}
+
+	private static final Map<Operation, Counter> COUNTERS = new EnumMap<>(Operation.class);
+	private static final ConcurrentMap<Class<?>, LongAdder> BUILT = new ConcurrentHashMap<>();
+	private static final LongAdder VISITED = new LongAdder();
+
+	private static volatile boolean recording = ENABLED;
+	private static volatile Listener listener = null;
+
+	static {
+		for (Operation operation : Operation.values()) {
+			COUNTERS.put(operation, new Counter());
+		}
+		if (ENABLED) {
+			registerMBean();
+		}
+	}
+
+	private PathMetrics() {
+	}
+
+	/**
+	 * @return true if operations are currently being counted
+	 */
+	public static boolean isRecording() {
+		return recording;
+	}
+
+	/**
+	 * Pause or resume recording. Has no effect unless {@link #ENABLED}.
+	 *
+	 * @param recording true to count operations, false to ignore them
+	 */
+	public static void setRecording(boolean recording) {
+		PathMetrics.recording = ENABLED && recording;
+	}
+
+	/**
+	 * @param listener the listener to notify of each timed operation, or null
+	 *                 to remove the current listener
+	 */
+	public static void setListener(Listener listener) {
+		PathMetrics.listener = listener;
+	}
+
+	public static long getCalls(Operation operation) {
+		return COUNTERS.get(operation).calls.sum();
+	}
+
+	public static long getNanos(Operation operation) {
+		return COUNTERS.get(operation).nanos.sum();
+	}
+
+	public static long getElements(Operation operation) {
+		return COUNTERS.get(operation).elements.sum();
+	}
+
+	/**
+	 * @return the number of paths built by each backend, keyed by class name.
+	 * Paths which backends build internally (such as the chunks of a
+	 * {@link RopePath}) are included.
+	 */
+	public static Map<String, Long> getPathsBuilt() {
+		Map<String, Long> result = new TreeMap<>();
+		BUILT.forEach((type, count) -> result.put(type.getSimpleName(), count.sum()));
+		return result;
+	}
+
+	/**
+	 * @return the total number of nodes and edges passed to visitors
+	 */
+	public static long getElementsVisited() {
+		return VISITED.sum();
+	}
+
+	/**
+	 * Set all counters to zero. Operations which are in progress may still
+	 * be counted afterwards.
+	 */
+	public static void reset() {
+		for (Counter counter : COUNTERS.values()) {
+			counter.reset();
+		}
+		BUILT.clear();
+		VISITED.reset();
+	}
+
+	/**
+	 * Publish the counters in the platform MBean server. This happens
+	 * automatically when {@link #ENABLED}, and does nothing if the MBean is
+	 * already registered.
+	 */
+	public static void registerMBean() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(
+					new MBean(),
+					new ObjectName(OBJECT_NAME)
+			);
+		} catch (InstanceAlreadyExistsException e) {
+			// already registered
+		} catch (JMException e) {
+			throw new IllegalStateException("Failed to register " + OBJECT_NAME, e);
+		}
+	}
+
+	// Instrumentation hooks. Callers must check ENABLED first, so that the
+	// hooks are removed entirely when metrics are disabled.
+
+	static long start() {
+		return recording ? System.nanoTime() : NOT_RECORDING;
+	}
+
+	static void record(Operation operation, long started, long elements) {
+		if (started == NOT_RECORDING || !recording) {
+			return;
+		}
+		long nanos = System.nanoTime() - started;
+		COUNTERS.get(operation).add(nanos, elements);
+
+		Listener current = listener;
+		if (current != null) {
+			current.operationCompleted(operation, nanos, elements);
+		}
+	}
+
+	static void built(Class<?> type) {
+		if (recording) {
+			BUILT.computeIfAbsent(type, (t) -> new LongAdder()).increment();
+		}
+	}
+
+	static void visited(long elements) {
+		if (recording) {
+			VISITED.add(elements);
+		}
+	}
+
+	private static class Counter {
+		private final LongAdder calls = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+		private final LongAdder elements = new LongAdder();
+
+		private void add(long nanos, long elements) {
+			this.calls.increment();
+			this.nanos.add(nanos);
+			this.elements.add(elements);
+		}
+
+		private void reset() {
+			calls.reset();
+			nanos.reset();
+			elements.reset();
+		}
+	}
+
+	private static class MBean implements PathMetricsMXBean {
+		@Override
+		public boolean isRecording() {
+			return PathMetrics.isRecording();
+		}
+
+		@Override
+		public void setRecording(boolean recording) {
+			PathMetrics.setRecording(recording);
+		}
+
+		@Override
+		public Map<String, Long> getCalls() {
+			return collect(PathMetrics::getCalls);
+		}
+
+		@Override
+		public Map<String, Long> getNanos() {
+			return collect(PathMetrics::getNanos);
+		}
+
+		@Override
+		public Map<String, Long> getElements() {
+			return collect(PathMetrics::getElements);
+		}
+
+		@Override
+		public Map<String, Long> getPathsBuilt() {
+			return PathMetrics.getPathsBuilt();
+		}
+
+		@Override
+		public long getElementsVisited() {
+			return PathMetrics.getElementsVisited();
+		}
+
+		@Override
+		public void reset() {
+			PathMetrics.reset();
+		}
+
+		private Map<String, Long> collect(ToLongFunction<Operation> getter) {
+			Map<String, Long> result = new TreeMap<>();
+			for (Operation operation : Operation.values()) {
+				result.put(operation.name(), getter.applyAsLong(operation));
+			}
+			return result;
+		}
+	}
+}
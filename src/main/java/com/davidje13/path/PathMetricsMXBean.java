@@ -0,0 +1,40 @@
+package com.davidje13.path;
+
+import java.util.Map;
+
+/**
+ * Management interface for {@link PathMetrics}. Operation counters are keyed
+ * by {@link PathMetrics.Operation} name.
+ */
+public interface PathMetricsMXBean {
+	boolean isRecording();
+
+	void setRecording(boolean recording);
+
+	/**
+	 * @return the number of calls to each operation
+	 */
+	Map<String, Long> getCalls();
+
+	/**
+	 * @return the total time spent in each operation, in nanoseconds
+	 */
+	Map<String, Long> getNanos();
+
+	/**
+	 * @return the total number of elements processed by each operation
+	 */
+	Map<String, Long> getElements();
+
+	/**
+	 * @return the number of paths built by each backend, keyed by class name
+	 */
+	Map<String, Long> getPathsBuilt();
+
+	/**
+	 * @return the total number of nodes and edges passed to visitors
+	 */
+	long getElementsVisited();
+
+	void reset();
+}
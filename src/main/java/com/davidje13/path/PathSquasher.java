@@ -1,7 +1,6 @@
 package com.davidje13.path;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
 
@@ -13,16 +12,115 @@ public class PathSquasher {
 			Function<ImmutablePath<InNodeT, InEdgeT>, OutNodeT> nodeCompactor,
 			Function<InEdgeT, OutEdgeT> edgeConverter
 	) {
-		List<OutNodeT> outNodes = new ArrayList<>();
-		List<OutEdgeT> outEdges = new ArrayList<>();
+		return squashNodes(
+				path,
+				nodeEqualityTester,
+				nodeCompactor,
+				edgeConverter,
+				LinkedPath::builder
+		);
+	}
+
+	/**
+	 * Combine runs of equal nodes, writing the result directly into a builder
+	 * in a single pass.
+	 *
+	 * @param path the path to squash
+	 * @param nodeEqualityTester returns true if two adjacent nodes should be
+	 *                           combined
+	 * @param nodeCompactor converts each group of combined nodes into a node
+	 * @param edgeConverter converts the edges between groups
+	 * @param builderFactory creates the builder for the output path, given
+	 *                       its first node (e.g. {@code ArrayPath::builder})
+	 * @return the squashed path
+	 */
+	public <InNodeT, InEdgeT, OutNodeT, OutEdgeT>
+	ImmutablePath<OutNodeT, OutEdgeT> squashNodes(
+			ImmutablePath<InNodeT, InEdgeT> path,
+			BiPredicate<InNodeT, InNodeT> nodeEqualityTester,
+			Function<ImmutablePath<InNodeT, InEdgeT>, OutNodeT> nodeCompactor,
+			Function<InEdgeT, OutEdgeT> edgeConverter,
+			Function<? super OutNodeT, ? extends PathBuilder<OutNodeT, OutEdgeT, ?>> builderFactory
+	) {
+		long started = PathMetrics.ENABLED ? PathMetrics.start() : 0;
+		Output<OutNodeT, OutEdgeT> output = new Output<>(builderFactory);
 
 		path.visitGroupedFromHead(
 				nodeEqualityTester,
-				(group) -> outNodes.add(nodeCompactor.apply(group)),
-				(edge) -> outEdges.add(edgeConverter.apply(edge))
+				(group) -> output.node(nodeCompactor.apply(group)),
+				(edge) -> output.edge(edgeConverter.apply(edge))
 		);
 
-		return buildPath(outNodes, outEdges);
+		ImmutablePath<OutNodeT, OutEdgeT> result = output.build();
+		if (PathMetrics.ENABLED) {
+			PathMetrics.record(PathMetrics.Operation.SQUASH, started, path.countNodes());
+		}
+		return result;
+	}
+
+	/**
+	 * Combine runs of equal nodes, using all threads of the common fork /
+	 * join pool. The result is the same as from
+	 * {@link #squashNodes(ImmutablePath, BiPredicate, Function, Function, Function)}.
+	 *
+	 * The path is split into chunks with {@link ImmutablePath#subPath}, so
+	 * backends with fast sub paths (such as {@link ArrayPath} and
+	 * {@link RopePath}) work best. The given functions are called from
+	 * several threads at once, and must not rely on being called in order.
+	 *
+	 * @param path the path to squash
+	 * @param nodeEqualityTester returns true if two adjacent nodes should be
+	 *                           combined
+	 * @param nodeCompactor converts each group of combined nodes into a node
+	 * @param edgeConverter converts the edges between groups
+	 * @param builderFactory creates the builder for the output path, given
+	 *                       its first node (e.g. {@code ArrayPath::builder})
+	 * @return the squashed path
+	 */
+	public <InNodeT, InEdgeT, OutNodeT, OutEdgeT>
+	ImmutablePath<OutNodeT, OutEdgeT> squashNodesInParallel(
+			ImmutablePath<InNodeT, InEdgeT> path,
+			BiPredicate<InNodeT, InNodeT> nodeEqualityTester,
+			Function<ImmutablePath<InNodeT, InEdgeT>, OutNodeT> nodeCompactor,
+			Function<InEdgeT, OutEdgeT> edgeConverter,
+			Function<? super OutNodeT, ? extends PathBuilder<OutNodeT, OutEdgeT, ?>> builderFactory
+	) {
+		return squashNodesInParallel(
+				path,
+				nodeEqualityTester,
+				nodeCompactor,
+				edgeConverter,
+				builderFactory,
+				ForkJoinPool.commonPool()
+		);
+	}
+
+	/**
+	 * Combine runs of equal nodes, using the given fork / join pool.
+	 *
+	 * @see #squashNodesInParallel(ImmutablePath, BiPredicate, Function, Function, Function)
+	 */
+	public <InNodeT, InEdgeT, OutNodeT, OutEdgeT>
+	ImmutablePath<OutNodeT, OutEdgeT> squashNodesInParallel(
+			ImmutablePath<InNodeT, InEdgeT> path,
+			BiPredicate<InNodeT, InNodeT> nodeEqualityTester,
+			Function<ImmutablePath<InNodeT, InEdgeT>, OutNodeT> nodeCompactor,
+			Function<InEdgeT, OutEdgeT> edgeConverter,
+			Function<? super OutNodeT, ? extends PathBuilder<OutNodeT, OutEdgeT, ?>> builderFactory,
+			ForkJoinPool pool
+	) {
+		long started = PathMetrics.ENABLED ? PathMetrics.start() : 0;
+		ImmutablePath<OutNodeT, OutEdgeT> result = new ParallelSquash<>(
+				path,
+				nodeEqualityTester,
+				nodeCompactor,
+				edgeConverter,
+				pool.getParallelism()
+		).squash(pool, builderFactory);
+		if (PathMetrics.ENABLED) {
+			PathMetrics.record(PathMetrics.Operation.SQUASH, started, path.countNodes());
+		}
+		return result;
 	}
 
 	public <InNodeT, InEdgeT, OutNodeT, OutEdgeT>
@@ -31,39 +129,102 @@ public class PathSquasher {
 			Function<InNodeT, ImmutablePath<OutNodeT, OutEdgeT>> nodeExpander,
 			Function<InEdgeT, OutEdgeT> edgeConverter
 	) {
-		List<OutNodeT> outNodes = new ArrayList<>();
-		List<OutEdgeT> outEdges = new ArrayList<>();
+		return expandNodes(
+				path,
+				nodeExpander,
+				edgeConverter,
+				LinkedPath::builder
+		);
+	}
+
+	/**
+	 * Replace each node with a path, writing the result directly into a
+	 * builder in a single pass.
+	 *
+	 * @param path the path to expand
+	 * @param nodeExpander converts each node into a path
+	 * @param edgeConverter converts the edges between nodes
+	 * @param builderFactory creates the builder for the output path, given
+	 *                       its first node (e.g. {@code ArrayPath::builder})
+	 * @return the expanded path
+	 */
+	public <InNodeT, InEdgeT, OutNodeT, OutEdgeT>
+	ImmutablePath<OutNodeT, OutEdgeT> expandNodes(
+			ImmutablePath<InNodeT, InEdgeT> path,
+			Function<InNodeT, ImmutablePath<OutNodeT, OutEdgeT>> nodeExpander,
+			Function<InEdgeT, OutEdgeT> edgeConverter,
+			Function<? super OutNodeT, ? extends PathBuilder<OutNodeT, OutEdgeT, ?>> builderFactory
+	) {
+		long started = PathMetrics.ENABLED ? PathMetrics.start() : 0;
+		Output<OutNodeT, OutEdgeT> output = new Output<>(builderFactory);
 
 		path.visitFromHead(
-				(node) -> nodeExpander.apply(node).visitFromHead(outNodes::add, outEdges::add),
-				(edge) -> outEdges.add(edgeConverter.apply(edge))
+				(node) -> output.path(nodeExpander.apply(node)),
+				(edge) -> output.edge(edgeConverter.apply(edge))
 		);
 
-		return buildPath(outNodes, outEdges);
+		ImmutablePath<OutNodeT, OutEdgeT> result = output.build();
+		if (PathMetrics.ENABLED) {
+			PathMetrics.record(PathMetrics.Operation.EXPAND, started, result.countNodes());
+		}
+		return result;
 	}
 
-	private <NodeT, EdgeT> ImmutablePath<NodeT, EdgeT> buildPath(
-			List<NodeT> nodes,
-			List<EdgeT> edges
+	/**
+	 * Replace each node with a path, lazily. The returned view only calls
+	 * {@code nodeExpander} for nodes when they are first accessed, and
+	 * remembers the result.
+	 *
+	 * @param path the path to expand
+	 * @param nodeExpander converts each node into a path
+	 * @param edgeConverter converts the edges between nodes
+	 * @return a view of the expanded path
+	 */
+	public <InNodeT, InEdgeT, OutNodeT, OutEdgeT>
+	ImmutablePath<OutNodeT, OutEdgeT> expandNodesLazily(
+			ImmutablePath<InNodeT, InEdgeT> path,
+			Function<InNodeT, ImmutablePath<OutNodeT, OutEdgeT>> nodeExpander,
+			Function<InEdgeT, OutEdgeT> edgeConverter
 	) {
-		if (nodes.size() != edges.size() + 1) {
-			throw new IllegalArgumentException(
-					"Mismatched nodes (" + nodes.size() + ")" +
-					" and edges (" + edges.size() + ")"
-			);
+		return new ExpandedPath<>(path, nodeExpander, edgeConverter);
+	}
+
+	// Receives alternating nodes (or paths) and edges. The builder is created
+	// when the first node arrives, and each edge is held until the next node.
+	private static class Output<NodeT, EdgeT> {
+		private final Function<? super NodeT, ? extends PathBuilder<NodeT, EdgeT, ?>> builderFactory;
+		private PathBuilder<NodeT, EdgeT, ?> builder = null;
+		private EdgeT pendingEdge = null;
+
+		private Output(
+				Function<? super NodeT, ? extends PathBuilder<NodeT, EdgeT, ?>> builderFactory
+		) {
+			this.builderFactory = builderFactory;
 		}
 
-		PathBuilder<NodeT, EdgeT, ? extends PathBuilder> builder =
-				LinkedPath.builder(nodes.get(0));
+		private void node(NodeT node) {
+			if (builder == null) {
+				builder = builderFactory.apply(node);
+			} else {
+				builder.pushBack(pendingEdge, node);
+			}
+		}
 
-		for (int index = 0; index < edges.size(); ++ index) {
-			builder.pushBack(
-					edges.get(index),
-					nodes.get(index + 1)
-			);
+		private void path(ImmutablePath<NodeT, EdgeT> path) {
+			if (builder == null) {
+				builder = builderFactory.apply(path.getHead());
+				path.visitPairsFromHead(builder::pushBack);
+			} else {
+				builder.pushBack(pendingEdge, path);
+			}
 		}
 
-		return builder.build();
-	}
+		private void edge(EdgeT edge) {
+			pendingEdge = edge;
+		}
 
+		private ImmutablePath<NodeT, EdgeT> build() {
+			return builder.build();
+		}
+	}
 }
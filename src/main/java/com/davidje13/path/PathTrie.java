@@ -0,0 +1,287 @@
+package com.davidje13.path;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * A map keyed by paths, stored as a trie so that paths with a common prefix
+ * share storage.
+ *
+ * Levels of the trie alternate between nodes and edges: the root's children
+ * are keyed by head nodes, their children by the first edges, and so on.
+ * Values can only be stored at node levels, since every path ends on a node.
+ *
+ * Lookups take time proportional to the length of the key. Keys given to
+ * visitors are rebuilt from the trie as {@link ArrayPath}s.
+ *
+ * Instances are not thread-safe.
+ */
+public class PathTrie<NodeT, EdgeT, V> {
+	private final Level root = new Level();
+	private int size = 0;
+
+	/**
+	 * @return the number of paths stored in the trie
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @param path the key to store
+	 * @param value the value to associate with the path
+	 * @return the value which was previously associated with the path, or
+	 * null if there was none
+	 */
+	public V put(ImmutablePath<NodeT, EdgeT> path, V value) {
+		Walk walk = new Walk();
+		path.visitFromHead(walk::descendCreating, walk::descendCreating);
+		Level level = walk.level;
+
+		V old = level.value;
+		if (!level.hasValue) {
+			level.hasValue = true;
+			++ size;
+		}
+		level.value = value;
+		return old;
+	}
+
+	/**
+	 * @param path the key to look up
+	 * @return the value associated with the path, or null if there is none
+	 */
+	public V get(ImmutablePath<NodeT, EdgeT> path) {
+		Level level = find(path);
+		return (level == null) ? null : level.value;
+	}
+
+	/**
+	 * @param path the key to look up
+	 * @return true if a value is associated with the path
+	 */
+	public boolean containsKey(ImmutablePath<NodeT, EdgeT> path) {
+		Level level = find(path);
+		return level != null && level.hasValue;
+	}
+
+	/**
+	 * @param path the key to remove
+	 * @return the value which was associated with the path, or null if there
+	 * was none
+	 */
+	public V remove(ImmutablePath<NodeT, EdgeT> path) {
+		Walk walk = new Walk();
+		path.visitFromHeadWhile(walk::descend, walk::descend);
+		Level level = walk.level;
+		if (level == null || !level.hasValue) {
+			return null;
+		}
+
+		V old = level.value;
+		level.hasValue = false;
+		level.value = null;
+		-- size;
+
+		if (level.children == null) {
+			// Remove the chain of levels which only led to this value
+			walk.lastBranch.children.remove(walk.lastBranchKey);
+			if (walk.lastBranch.children.isEmpty()) {
+				walk.lastBranch.children = null;
+			}
+		}
+		return old;
+	}
+
+	public void clear() {
+		root.children = null;
+		size = 0;
+	}
+
+	/**
+	 * Find the longest stored key which is a prefix of the given path
+	 * (including the path itself).
+	 *
+	 * @param path the path to search for
+	 * @return the longest matching key (as a sub path of the given path) and
+	 * its value, or null if no stored key is a prefix of the path
+	 */
+	public Map.Entry<ImmutablePath<NodeT, EdgeT>, V> longestPrefixOf(
+			ImmutablePath<NodeT, EdgeT> path
+	) {
+		Walk walk = new Walk();
+		path.visitFromHeadWhile(walk::descend, walk::descend);
+		if (walk.lastValue == null) {
+			return null;
+		}
+		return new AbstractMap.SimpleImmutableEntry<>(
+				path.subPath(0, (walk.lastValueDepth - 1) / 2),
+				walk.lastValue.value
+		);
+	}
+
+	/**
+	 * Visit every stored key which begins with the given prefix (including
+	 * the prefix itself), in no particular order.
+	 *
+	 * @param prefix the prefix to search for
+	 * @param visitor lambda to call with each key and its value
+	 */
+	public void visitWithPrefix(
+			ImmutablePath<NodeT, EdgeT> prefix,
+			BiConsumer<? super ImmutablePath<NodeT, EdgeT>, ? super V> visitor
+	) {
+		Level level = find(prefix);
+		if (level == null) {
+			return;
+		}
+		List<Object> elements = new ArrayList<>();
+		prefix.visitFromHead(elements::add, elements::add);
+		visitFrom(level, elements, visitor);
+	}
+
+	/**
+	 * Visit every stored key, in no particular order.
+	 *
+	 * @param visitor lambda to call with each key and its value
+	 */
+	public void visitAll(BiConsumer<? super ImmutablePath<NodeT, EdgeT>, ? super V> visitor) {
+		if (root.children == null) {
+			return;
+		}
+		List<Object> elements = new ArrayList<>();
+		for (Map.Entry<Object, Level> entry : root.children.entrySet()) {
+			elements.add(entry.getKey());
+			visitFrom(entry.getValue(), elements, visitor);
+			elements.remove(0);
+		}
+	}
+
+	/**
+	 * @param prefix the prefix to search for
+	 * @return the number of stored keys which begin with the given prefix
+	 */
+	public int countWithPrefix(ImmutablePath<NodeT, EdgeT> prefix) {
+		Level level = find(prefix);
+		return (level == null) ? 0 : count(level);
+	}
+
+	private Level find(ImmutablePath<NodeT, EdgeT> path) {
+		Walk walk = new Walk();
+		path.visitFromHeadWhile(walk::descend, walk::descend);
+		return walk.level;
+	}
+
+	private int count(Level level) {
+		int total = level.hasValue ? 1 : 0;
+		if (level.children != null) {
+			for (Level child : level.children.values()) {
+				total += count(child);
+			}
+		}
+		return total;
+	}
+
+	// Depth-first traversal from a node level. elements holds the nodes and
+	// edges of the key which leads to the level.
+	private void visitFrom(
+			Level level,
+			List<Object> elements,
+			BiConsumer<? super ImmutablePath<NodeT, EdgeT>, ? super V> visitor
+	) {
+		if (level.hasValue) {
+			visitor.accept(toPath(elements), level.value);
+		}
+		if (level.children == null) {
+			return;
+		}
+		for (Map.Entry<Object, Level> edgeEntry : level.children.entrySet()) {
+			elements.add(edgeEntry.getKey());
+			for (Map.Entry<Object, Level> nodeEntry : edgeEntry.getValue().children.entrySet()) {
+				elements.add(nodeEntry.getKey());
+				visitFrom(nodeEntry.getValue(), elements, visitor);
+				elements.remove(elements.size() - 1);
+			}
+			elements.remove(elements.size() - 1);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private ArrayPath<NodeT, EdgeT> toPath(List<Object> elements) {
+		ArrayPath.ArrayPathBuilder<NodeT, EdgeT> builder = ArrayPath.builder(
+				(NodeT) elements.get(0),
+				elements.size() / 2 + 1
+		);
+		for (int i = 1; i < elements.size(); i += 2) {
+			builder.pushBack((EdgeT) elements.get(i), (NodeT) elements.get(i + 1));
+		}
+		return builder.build();
+	}
+
+	private class Level {
+		private Map<Object, Level> children = null;
+		private boolean hasValue = false;
+		private V value = null;
+
+		private Level child(Object key) {
+			return (children == null) ? null : children.get(key);
+		}
+
+		private Level childCreating(Object key) {
+			if (children == null) {
+				children = new HashMap<>();
+			}
+			return children.computeIfAbsent(key, (k) -> new Level());
+		}
+	}
+
+	// Follows a path through the trie, one element at a time. If the path
+	// leaves the trie, level becomes null and the walk stops.
+	private class Walk {
+		private Level level = root;
+		private int depth = 0;
+
+		// The deepest level with a value which has been passed
+		private Level lastValue = null;
+		private int lastValueDepth = 0;
+
+		// The deepest level which has a value or several children (or the
+		// root), and the key followed from it
+		private Level lastBranch = null;
+		private Object lastBranchKey = null;
+
+		private void descendCreating(Object element) {
+			level = level.childCreating(element);
+		}
+
+		private boolean descend(Object element) {
+			Level next = level.child(element);
+			if (next != null && (
+					lastBranch == null ||
+					level.hasValue ||
+					level.children.size() > 1
+			)) {
+				lastBranch = level;
+				lastBranchKey = element;
+			}
+			level = next;
+			++ depth;
+			if (level == null) {
+				return false;
+			}
+			if (level.hasValue) {
+				lastValue = level;
+				lastValueDepth = depth;
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,243 @@
+package com.davidje13.path;
+
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Predicate;
+
+/**
+ * Shared logic for the primitive paths ({@link LongDoublePath} and
+ * {@link IntIntPath}), which only differ in the types of their arrays.
+ *
+ * Positions passed to {@link #elementEquals(int, PrimitivePath, int)} refer
+ * to the interleaved node / edge sequence, as in {@link IndexedSearch}.
+ */
+abstract class PrimitivePath<PathT extends PrimitivePath<PathT>> {
+	static final int DEFAULT_CAPACITY = 10;
+
+	// Sub paths share arrays with their parent, so only the range
+	// [offset, offset + size) is ours.
+	final int offset;
+	final int size;
+
+	PrimitivePath(int offset, int size) {
+		this.offset = offset;
+		this.size = size;
+	}
+
+	abstract boolean elementEquals(int position, PathT other, int otherPosition);
+
+	abstract PathT view(int offset, int size);
+
+	/**
+	 * @return the number of nodes in the path
+	 */
+	public int countNodes() {
+		return size;
+	}
+
+	/**
+	 * @return the number of edges in the path
+	 */
+	public int countEdges() {
+		return size - 1;
+	}
+
+	/**
+	 * Create a sub path from the start node index (inclusive) to the end node
+	 * index (also inclusive). The returned path shares storage with this path.
+	 *
+	 * @param startNodeIndex the index of the first node to include in the
+	 *                       sub path
+	 * @param endNodeIndex the index of the last node to include in the sub path
+	 * @return a path containing the requested sub path
+	 * @throws IndexOutOfBoundsException if the requested range is invalid
+	 */
+	@SuppressWarnings("unchecked")
+	public PathT subPath(int startNodeIndex, int endNodeIndex) {
+		if (startNodeIndex < 0 || endNodeIndex < startNodeIndex) {
+			throw new IndexOutOfBoundsException(
+					"Invalid range: " + startNodeIndex + " -- " + endNodeIndex
+			);
+		}
+		if (endNodeIndex >= size) {
+			throw new IndexOutOfBoundsException(
+					"Invalid range: " + startNodeIndex + " -- " + endNodeIndex +
+					" (nodes in path: " + size + ")"
+			);
+		}
+		if (startNodeIndex == 0 && endNodeIndex == size - 1) {
+			return (PathT) this;
+		}
+		return view(offset + startNodeIndex, endNodeIndex - startNodeIndex + 1);
+	}
+
+	/**
+	 * @param subPath the path to look for
+	 * @return the lowest index of the requested sub path, or -1 if not found
+	 */
+	@SuppressWarnings("unchecked")
+	public int firstIndexOfSubPath(PathT subPath) {
+		PathT self = (PathT) this;
+		return IndexedSearch.firstIndexOf(
+				subPath.size,
+				size,
+				(a, b) -> subPath.elementEquals(a, subPath, b),
+				(a, b) -> subPath.elementEquals(a, self, b)
+		);
+	}
+
+	/**
+	 * @param subPath the path to look for
+	 * @return the highest index of the requested sub path, or -1 if not found
+	 */
+	@SuppressWarnings("unchecked")
+	public int lastIndexOfSubPath(PathT subPath) {
+		PathT self = (PathT) this;
+		return IndexedSearch.lastIndexOf(
+				subPath.size,
+				size,
+				(a, b) -> subPath.elementEquals(a, subPath, b),
+				(a, b) -> subPath.elementEquals(a, self, b)
+		);
+	}
+
+	/**
+	 * @param subPath the path to look for
+	 * @return true if the path contains the requested sub path, otherwise false
+	 */
+	public boolean containsSubPath(PathT subPath) {
+		return firstIndexOfSubPath(subPath) != -1;
+	}
+
+	/**
+	 * @param subPath the path to look for
+	 * @return true if the path begins with the requested sub path, otherwise
+	 * false
+	 */
+	public boolean startsWith(PathT subPath) {
+		return subPath.size <= size && subPath(0, subPath.size - 1).equals(subPath);
+	}
+
+	/**
+	 * @param subPath the path to look for
+	 * @return true if the path ends with the requested sub path, otherwise
+	 * false
+	 */
+	public boolean endsWith(PathT subPath) {
+		return subPath.size <= size && subPath(size - subPath.size, size - 1).equals(subPath);
+	}
+
+	boolean sameElements(PathT that) {
+		if (size != that.size) {
+			return false;
+		}
+		for (int i = 0; i < size * 2 - 1; ++ i) {
+			if (!elementEquals(i, that, i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The parts of {@link LongDoublePath#asPath()} and
+	 * {@link IntIntPath#asPath()} which do not depend on the primitive types.
+	 * Element access is by index in constant time, so these use the indexed
+	 * spliterators, and comparisons between two views of the same kind use
+	 * the primitive comparisons.
+	 */
+	abstract static class BoxedView<NodeT, EdgeT, PathT extends PrimitivePath<PathT>>
+			extends ComparablePath<NodeT, EdgeT> {
+		final PathT path;
+
+		BoxedView(PathT path) {
+			this.path = path;
+		}
+
+		abstract BoxedView<NodeT, EdgeT, PathT> wrap(PathT path);
+
+		@Override
+		public ImmutablePath<NodeT, EdgeT> subPath(int startNodeIndex, int endNodeIndex) {
+			PathT sub = path.subPath(startNodeIndex, endNodeIndex);
+			return (sub == path) ? this : wrap(sub);
+		}
+
+		@Override
+		public int firstIndexOfSubPath(ImmutablePath<NodeT, EdgeT> subPath) {
+			PathT pattern = sameKind(subPath);
+			if (pattern == null) {
+				return super.firstIndexOfSubPath(subPath);
+			}
+			return path.firstIndexOfSubPath(pattern);
+		}
+
+		@Override
+		public int lastIndexOfSubPath(ImmutablePath<NodeT, EdgeT> subPath) {
+			PathT pattern = sameKind(subPath);
+			if (pattern == null) {
+				return super.lastIndexOfSubPath(subPath);
+			}
+			return path.lastIndexOfSubPath(pattern);
+		}
+
+		@Override
+		public Spliterator<NodeT> nodeSpliterator() {
+			return IndexedSpliterator.nodes(this);
+		}
+
+		@Override
+		public Spliterator<EdgeT> edgeSpliterator() {
+			return IndexedSpliterator.edges(this);
+		}
+
+		@Override
+		public Spliterator<Map.Entry<EdgeT, NodeT>> pairSpliterator() {
+			return IndexedSpliterator.pairs(this);
+		}
+
+		@Override
+		public boolean visitFromHeadWhile(
+				Predicate<? super NodeT> nodeVisitor,
+				Predicate<? super EdgeT> edgeVisitor
+		) {
+			return CursorVisits.fromHeadWhile(this, nodeVisitor, edgeVisitor);
+		}
+
+		@Override
+		public boolean visitFromTailWhile(
+				Predicate<? super NodeT> nodeVisitor,
+				Predicate<? super EdgeT> edgeVisitor
+		) {
+			return CursorVisits.fromTailWhile(this, nodeVisitor, edgeVisitor);
+		}
+
+		@Override
+		public int countNodes() {
+			return path.size;
+		}
+
+		@Override
+		boolean hasFastCursor() {
+			return true;
+		}
+
+		@Override
+		protected boolean contentEquals(ImmutablePath<?, ?> that) {
+			PathT other = sameKind(that);
+			if (other == null) {
+				return super.contentEquals(that);
+			}
+			return path.sameElements(other);
+		}
+
+		// Returns the primitive path behind another view of the same kind,
+		// or null if the path is stored differently
+		@SuppressWarnings("unchecked")
+		private PathT sameKind(ImmutablePath<?, ?> other) {
+			if (other == null || other.getClass() != getClass()) {
+				return null;
+			}
+			return ((BoxedView<?, ?, PathT>) other).path;
+		}
+	}
+}
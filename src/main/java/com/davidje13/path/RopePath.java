@@ -0,0 +1,741 @@
+package com.davidje13.path;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A path stored as a height-balanced (AVL) tree of {@link ArrayPath} chunks.
+ *
+ * Every subtree is itself a {@code RopePath}, so concatenating, splitting and
+ * taking sub paths share structure with the input paths and run in
+ * logarithmic time. Indexed access is also logarithmic.
+ */
+public class RopePath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
+	// Chunks smaller than this are copied together when joined, to avoid
+	// building deep trees of tiny leaves (e.g. from repeated pushFront)
+	private static final int CHUNK_SIZE = 128;
+
+	// Leaves hold a chunk; branches hold left + joiner + right
+	private final ArrayPath<NodeT, EdgeT> chunk;
+	private final RopePath<NodeT, EdgeT> left;
+	private final EdgeT joiner;
+	private final RopePath<NodeT, EdgeT> right;
+	private final int size;
+	private final int height;
+
+	public static <NodeT, EdgeT> RopePathBuilder<NodeT, EdgeT> builder(
+			NodeT node
+	) {
+		return new RopePathBuilder<>(node);
+	}
+
+	public static <NodeT, EdgeT> RopePathBuilder<NodeT, EdgeT> builder(
+			ImmutablePath<NodeT, EdgeT> basePath
+	) {
+		return new RopePathBuilder<>(basePath);
+	}
+
+	/**
+	 * Join two paths with an edge. Runs in logarithmic time if both paths are
+	 * {@code RopePath}s or {@code ArrayPath}s, and shares structure with them.
+	 */
+	public static <NodeT, EdgeT> RopePath<NodeT, EdgeT> concatenate(
+			ImmutablePath<NodeT, EdgeT> path1,
+			EdgeT joiner,
+			ImmutablePath<NodeT, EdgeT> path2
+	) {
+		return join(of(path1), joiner, of(path2));
+	}
+
+	/**
+	 * Convert a path to a {@code RopePath}. {@code RopePath}s are returned
+	 * unchanged and {@code ArrayPath}s are wrapped without copying; other
+	 * paths are copied.
+	 *
+	 * @param path the path to convert
+	 * @return a {@code RopePath} equal to the given path
+	 */
+	public static <NodeT, EdgeT> RopePath<NodeT, EdgeT> of(
+			ImmutablePath<NodeT, EdgeT> path
+	) {
+		if (path instanceof RopePath) {
+			return (RopePath<NodeT, EdgeT>) path;
+		}
+		if (path instanceof ArrayPath) {
+			return new RopePath<>((ArrayPath<NodeT, EdgeT>) path);
+		}
+		return new RopePath<>(ArrayPath.builder(path).build());
+	}
+
+	public RopePath(NodeT singleNode) {
+		this(new ArrayPath<>(singleNode));
+	}
+
+	private RopePath(ArrayPath<NodeT, EdgeT> chunk) {
+		this.chunk = chunk;
+		this.left = null;
+		this.joiner = null;
+		this.right = null;
+		this.size = chunk.countNodes();
+		this.height = 0;
+	}
+
+	private RopePath(
+			RopePath<NodeT, EdgeT> left,
+			EdgeT joiner,
+			RopePath<NodeT, EdgeT> right
+	) {
+		this.chunk = null;
+		this.left = left;
+		this.joiner = joiner;
+		this.right = right;
+		this.size = left.size + right.size;
+		this.height = Math.max(left.height, right.height) + 1;
+	}
+
+	@Override
+	public RopePathBuilder<NodeT, EdgeT> builderFromNode(NodeT node) {
+		return builder(node);
+	}
+
+	@Override
+	public RopePathBuilder<NodeT, EdgeT> toBuilder() {
+		return builder(this);
+	}
+
+	@Override
+	public NodeT getHead() {
+		RopePath<NodeT, EdgeT> cursor = this;
+		while (!cursor.isLeaf()) {
+			cursor = cursor.left;
+		}
+		return cursor.chunk.getHead();
+	}
+
+	@Override
+	public NodeT getTail() {
+		RopePath<NodeT, EdgeT> cursor = this;
+		while (!cursor.isLeaf()) {
+			cursor = cursor.right;
+		}
+		return cursor.chunk.getTail();
+	}
+
+	@Override
+	public NodeT getNode(int nodeIndex) {
+		if (nodeIndex < 0 || nodeIndex >= size) {
+			throw new IndexOutOfBoundsException(
+					"Invalid node index: " + nodeIndex +
+					" (nodes in path: " + size + ")"
+			);
+		}
+
+		int index = nodeIndex;
+		RopePath<NodeT, EdgeT> cursor = this;
+		while (!cursor.isLeaf()) {
+			if (index < cursor.left.size) {
+				cursor = cursor.left;
+			} else {
+				index -= cursor.left.size;
+				cursor = cursor.right;
+			}
+		}
+		return cursor.chunk.getNode(index);
+	}
+
+	@Override
+	public EdgeT getEdge(int edgeIndex) {
+		if (edgeIndex < 0 || edgeIndex >= size - 1) {
+			throw new IndexOutOfBoundsException(
+					"Invalid edge index: " + edgeIndex +
+					" (edges in path: " + (size - 1) + ")"
+			);
+		}
+
+		int index = edgeIndex;
+		RopePath<NodeT, EdgeT> cursor = this;
+		while (!cursor.isLeaf()) {
+			int leftEdges = cursor.left.size - 1;
+			if (index < leftEdges) {
+				cursor = cursor.left;
+			} else if (index == leftEdges) {
+				return cursor.joiner;
+			} else {
+				index -= cursor.left.size;
+				cursor = cursor.right;
+			}
+		}
+		return cursor.chunk.getEdge(index);
+	}
+
+	@Override
+	public void visitPairsFromHead(
+			BiConsumer<? super EdgeT, ? super NodeT> visitor
+	) {
+		if (isLeaf()) {
+			chunk.visitPairsFromHead(visitor);
+		} else {
+			left.visitPairsFromHead(visitor);
+			if (PathMetrics.ENABLED) {
+				PathMetrics.visited(2);
+			}
+			visitor.accept(joiner, right.getHead());
+			right.visitPairsFromHead(visitor);
+		}
+	}
+
+	@Override
+	public void visitPairsFromTail(
+			BiConsumer<? super EdgeT, ? super NodeT> visitor
+	) {
+		if (isLeaf()) {
+			chunk.visitPairsFromTail(visitor);
+		} else {
+			right.visitPairsFromTail(visitor);
+			if (PathMetrics.ENABLED) {
+				PathMetrics.visited(2);
+			}
+			visitor.accept(joiner, left.getTail());
+			left.visitPairsFromTail(visitor);
+		}
+	}
+
+	@Override
+	public void visitFromHead(
+			Consumer<? super NodeT> nodeVisitor,
+			Consumer<? super EdgeT> edgeVisitor
+	) {
+		if (isLeaf()) {
+			chunk.visitFromHead(nodeVisitor, edgeVisitor);
+		} else {
+			left.visitFromHead(nodeVisitor, edgeVisitor);
+			if (PathMetrics.ENABLED) {
+				PathMetrics.visited(1);
+			}
+			edgeVisitor.accept(joiner);
+			right.visitFromHead(nodeVisitor, edgeVisitor);
+		}
+	}
+
+	@Override
+	public void visitFromTail(
+			Consumer<? super NodeT> nodeVisitor,
+			Consumer<? super EdgeT> edgeVisitor
+	) {
+		if (isLeaf()) {
+			chunk.visitFromTail(nodeVisitor, edgeVisitor);
+		} else {
+			right.visitFromTail(nodeVisitor, edgeVisitor);
+			if (PathMetrics.ENABLED) {
+				PathMetrics.visited(1);
+			}
+			edgeVisitor.accept(joiner);
+			left.visitFromTail(nodeVisitor, edgeVisitor);
+		}
+	}
+
+	/**
+	 * Create a sub path from the start node index (inclusive) to the end node
+	 * index (also inclusive). Runs in logarithmic time and shares structure
+	 * with this path.
+	 *
+	 * @param startNodeIndex the index of the first node to include in the
+	 *                       sub path
+	 * @param endNodeIndex the index of the last node to include in the sub path
+	 * @return a path containing the requested sub path
+	 * @throws IndexOutOfBoundsException if the requested range is invalid
+	 */
+	@Override
+	public RopePath<NodeT, EdgeT> subPath(
+			int startNodeIndex,
+			int endNodeIndex
+	) {
+		if (startNodeIndex < 0 || endNodeIndex < startNodeIndex) {
+			throw new IndexOutOfBoundsException(
+					"Invalid range: " + startNodeIndex + " -- " + endNodeIndex
+			);
+		}
+		if (endNodeIndex >= size) {
+			throw new IndexOutOfBoundsException(
+					"Invalid range: " + startNodeIndex + " -- " + endNodeIndex +
+					" (nodes in path: " + size + ")"
+			);
+		}
+
+		long started = PathMetrics.ENABLED ? PathMetrics.start() : 0;
+		RopePath<NodeT, EdgeT> result = drop(startNodeIndex).take(endNodeIndex - startNodeIndex + 1);
+		if (PathMetrics.ENABLED) {
+			PathMetrics.record(PathMetrics.Operation.SUB_PATH, started, result.size);
+		}
+		return result;
+	}
+
+	/**
+	 * Split the path by removing an edge. This is the inverse of
+	 * {@link #concatenate(ImmutablePath, Object, ImmutablePath)}. Runs in
+	 * logarithmic time and shares structure with this path.
+	 *
+	 * @param edgeIndex the index of the edge to split at (edge {@code i} joins
+	 *                  node {@code i} to node {@code i + 1})
+	 * @return the paths before and after the edge, and the edge itself
+	 * @throws IndexOutOfBoundsException if the index is not within the path
+	 */
+	public Split<NodeT, EdgeT> split(int edgeIndex) {
+		EdgeT edge = getEdge(edgeIndex);
+		return new Split<>(take(edgeIndex + 1), edge, drop(edgeIndex + 1));
+	}
+
+	@Override
+	public boolean startsWith(ImmutablePath<NodeT, EdgeT> subPath) {
+		int subSize = subPath.countNodes();
+		return subSize <= size && matchesAt(0, subPath);
+	}
+
+	@Override
+	public boolean endsWith(ImmutablePath<NodeT, EdgeT> subPath) {
+		int subSize = subPath.countNodes();
+		return subSize <= size && matchesAt(size - subSize, subPath);
+	}
+
+	private boolean matchesAt(int nodeIndex, ImmutablePath<NodeT, EdgeT> subPath) {
+		PathCursor<NodeT, EdgeT> cursor = cursor();
+		cursor.seek(nodeIndex);
+		CursorMatcher matcher = new CursorMatcher(cursor);
+		return subPath.visitFromHeadWhile(matcher::matchNode, matcher::matchEdge);
+	}
+
+	@Override
+	public Spliterator<NodeT> nodeSpliterator() {
+		return IndexedSpliterator.nodes(this);
+	}
+
+	@Override
+	public Spliterator<EdgeT> edgeSpliterator() {
+		return IndexedSpliterator.edges(this);
+	}
+
+	@Override
+	public Spliterator<Map.Entry<EdgeT, NodeT>> pairSpliterator() {
+		return IndexedSpliterator.pairs(this);
+	}
+
+	@Override
+	public boolean visitFromHeadWhile(
+			Predicate<? super NodeT> nodeVisitor,
+			Predicate<? super EdgeT> edgeVisitor
+	) {
+		return CursorVisits.fromHeadWhile(this, nodeVisitor, edgeVisitor);
+	}
+
+	@Override
+	public boolean visitFromTailWhile(
+			Predicate<? super NodeT> nodeVisitor,
+			Predicate<? super EdgeT> edgeVisitor
+	) {
+		return CursorVisits.fromTailWhile(this, nodeVisitor, edgeVisitor);
+	}
+
+	@Override
+	public int countNodes() {
+		return size;
+	}
+
+	@Override
+	boolean hasFastCursor() {
+		return true;
+	}
+
+	@Override
+	public PathCursor<NodeT, EdgeT> cursor() {
+		return new RopeCursor();
+	}
+
+	private boolean isLeaf() {
+		return chunk != null;
+	}
+
+	// Returns the first count nodes (1 <= count <= size)
+	private RopePath<NodeT, EdgeT> take(int count) {
+		if (count == size) {
+			return this;
+		}
+		if (isLeaf()) {
+			return new RopePath<>(chunk.subPath(0, count - 1));
+		}
+		if (count <= left.size) {
+			return left.take(count);
+		}
+		return join(left, joiner, right.take(count - left.size));
+	}
+
+	// Returns all but the first count nodes (0 <= count < size)
+	private RopePath<NodeT, EdgeT> drop(int count) {
+		if (count == 0) {
+			return this;
+		}
+		if (isLeaf()) {
+			return new RopePath<>(chunk.subPath(count, size - 1));
+		}
+		if (count >= left.size) {
+			return right.drop(count - left.size);
+		}
+		return join(left.drop(count), joiner, right);
+	}
+
+	private static <NodeT, EdgeT> RopePath<NodeT, EdgeT> join(
+			RopePath<NodeT, EdgeT> left,
+			EdgeT joiner,
+			RopePath<NodeT, EdgeT> right
+	) {
+		if (left.height > right.height + 1) {
+			return joinRight(left, joiner, right);
+		}
+		if (right.height > left.height + 1) {
+			return joinLeft(left, joiner, right);
+		}
+		return branch(left, joiner, right);
+	}
+
+	// Precondition: left.height > right.height + 1
+	private static <NodeT, EdgeT> RopePath<NodeT, EdgeT> joinRight(
+			RopePath<NodeT, EdgeT> left,
+			EdgeT joiner,
+			RopePath<NodeT, EdgeT> right
+	) {
+		RopePath<NodeT, EdgeT> inner = left.right;
+		if (inner.height <= right.height + 1) {
+			RopePath<NodeT, EdgeT> joined = branch(inner, joiner, right);
+			if (joined.height <= left.left.height + 1) {
+				return new RopePath<>(left.left, left.joiner, joined);
+			}
+			return rotateLeft(new RopePath<>(left.left, left.joiner, rotateRight(joined)));
+		}
+
+		RopePath<NodeT, EdgeT> joined = joinRight(inner, joiner, right);
+		RopePath<NodeT, EdgeT> result = new RopePath<>(left.left, left.joiner, joined);
+		if (joined.height <= left.left.height + 1) {
+			return result;
+		}
+		return rotateLeft(result);
+	}
+
+	// Precondition: right.height > left.height + 1
+	private static <NodeT, EdgeT> RopePath<NodeT, EdgeT> joinLeft(
+			RopePath<NodeT, EdgeT> left,
+			EdgeT joiner,
+			RopePath<NodeT, EdgeT> right
+	) {
+		RopePath<NodeT, EdgeT> inner = right.left;
+		if (inner.height <= left.height + 1) {
+			RopePath<NodeT, EdgeT> joined = branch(left, joiner, inner);
+			if (joined.height <= right.right.height + 1) {
+				return new RopePath<>(joined, right.joiner, right.right);
+			}
+			return rotateRight(new RopePath<>(rotateLeft(joined), right.joiner, right.right));
+		}
+
+		RopePath<NodeT, EdgeT> joined = joinLeft(left, joiner, inner);
+		RopePath<NodeT, EdgeT> result = new RopePath<>(joined, right.joiner, right.right);
+		if (joined.height <= right.right.height + 1) {
+			return result;
+		}
+		return rotateRight(result);
+	}
+
+	private static <NodeT, EdgeT> RopePath<NodeT, EdgeT> branch(
+			RopePath<NodeT, EdgeT> left,
+			EdgeT joiner,
+			RopePath<NodeT, EdgeT> right
+	) {
+		if (
+				left.isLeaf() && right.isLeaf() &&
+				left.size + right.size <= CHUNK_SIZE
+		) {
+			return new RopePath<>(ArrayPath.concatenate(left.chunk, joiner, right.chunk));
+		}
+		return new RopePath<>(left, joiner, right);
+	}
+
+	private static <NodeT, EdgeT> RopePath<NodeT, EdgeT> rotateLeft(
+			RopePath<NodeT, EdgeT> path
+	) {
+		RopePath<NodeT, EdgeT> pivot = path.right;
+		return new RopePath<>(
+				new RopePath<>(path.left, path.joiner, pivot.left),
+				pivot.joiner,
+				pivot.right
+		);
+	}
+
+	private static <NodeT, EdgeT> RopePath<NodeT, EdgeT> rotateRight(
+			RopePath<NodeT, EdgeT> path
+	) {
+		RopePath<NodeT, EdgeT> pivot = path.left;
+		return new RopePath<>(
+				pivot.left,
+				pivot.joiner,
+				new RopePath<>(pivot.right, path.joiner, path.right)
+		);
+	}
+
+	// Moves within the current leaf in constant time, and descends from the
+	// root (in logarithmic time) when crossing into another leaf
+	private class RopeCursor implements PathCursor<NodeT, EdgeT> {
+		private RopePath<NodeT, EdgeT> leaf;
+		private int leafStart;
+		private int index = 0;
+
+		private RopeCursor() {
+			enterLeaf(0);
+		}
+
+		@Override
+		public int getIndex() {
+			return index;
+		}
+
+		@Override
+		public NodeT getNode() {
+			return leaf.chunk.getNode(index - leafStart);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return index < size - 1;
+		}
+
+		@Override
+		public boolean hasPrev() {
+			return index > 0;
+		}
+
+		@Override
+		public EdgeT getNextEdge() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			if (index - leafStart < leaf.size - 1) {
+				return leaf.chunk.getEdge(index - leafStart);
+			}
+			return getEdge(index);
+		}
+
+		@Override
+		public EdgeT getPrevEdge() {
+			if (!hasPrev()) {
+				throw new NoSuchElementException();
+			}
+			if (index > leafStart) {
+				return leaf.chunk.getEdge(index - leafStart - 1);
+			}
+			return getEdge(index - 1);
+		}
+
+		@Override
+		public NodeT next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return move(index + 1);
+		}
+
+		@Override
+		public NodeT prev() {
+			if (!hasPrev()) {
+				throw new NoSuchElementException();
+			}
+			return move(index - 1);
+		}
+
+		@Override
+		public NodeT seek(int nodeIndex) {
+			if (nodeIndex < 0 || nodeIndex >= size) {
+				throw new IndexOutOfBoundsException(
+						"Invalid node index: " + nodeIndex +
+						" (nodes in path: " + size + ")"
+				);
+			}
+			return move(nodeIndex);
+		}
+
+		private NodeT move(int nodeIndex) {
+			if (nodeIndex < leafStart || nodeIndex >= leafStart + leaf.size) {
+				enterLeaf(nodeIndex);
+			}
+			index = nodeIndex;
+			return leaf.chunk.getNode(index - leafStart);
+		}
+
+		private void enterLeaf(int nodeIndex) {
+			int start = 0;
+			RopePath<NodeT, EdgeT> cursor = RopePath.this;
+			while (!cursor.isLeaf()) {
+				if (nodeIndex - start < cursor.left.size) {
+					cursor = cursor.left;
+				} else {
+					start += cursor.left.size;
+					cursor = cursor.right;
+				}
+			}
+			leaf = cursor;
+			leafStart = start;
+		}
+	}
+
+	public static class Split<NodeT, EdgeT> {
+		private final RopePath<NodeT, EdgeT> before;
+		private final EdgeT edge;
+		private final RopePath<NodeT, EdgeT> after;
+
+		private Split(
+				RopePath<NodeT, EdgeT> before,
+				EdgeT edge,
+				RopePath<NodeT, EdgeT> after
+		) {
+			this.before = before;
+			this.edge = edge;
+			this.after = after;
+		}
+
+		/**
+		 * @return the path up to and including the node before the split edge
+		 */
+		public RopePath<NodeT, EdgeT> getBefore() {
+			return before;
+		}
+
+		/**
+		 * @return the edge which was removed
+		 */
+		public EdgeT getEdge() {
+			return edge;
+		}
+
+		/**
+		 * @return the path from the node after the split edge onwards
+		 */
+		public RopePath<NodeT, EdgeT> getAfter() {
+			return after;
+		}
+	}
+
+	public static class RopePathBuilder<NodeT, EdgeT>
+			implements PathBuilder<NodeT, EdgeT, RopePathBuilder<NodeT, EdgeT>> {
+		// The path being built is: body + bodyJoiner + pending (either of
+		// body and pending may be null, but not both)
+		private RopePath<NodeT, EdgeT> body;
+		private EdgeT bodyJoiner;
+		private ArrayPath.ArrayPathBuilder<NodeT, EdgeT> pending;
+		private int pendingSize;
+
+		private RopePathBuilder(NodeT node) {
+			reset(node);
+		}
+
+		private RopePathBuilder(ImmutablePath<NodeT, EdgeT> basePath) {
+			body = of(basePath);
+		}
+
+		@Override
+		public NodeT getHead() {
+			return (body != null) ? body.getHead() : pending.getHead();
+		}
+
+		@Override
+		public NodeT getTail() {
+			return (pending != null) ? pending.getTail() : body.getTail();
+		}
+
+		@Override
+		public RopePathBuilder<NodeT, EdgeT> pushBack(
+				EdgeT edge,
+				NodeT node
+		) {
+			if (pending != null && pendingSize < CHUNK_SIZE) {
+				pending.pushBack(edge, node);
+				++ pendingSize;
+			} else {
+				flush();
+				bodyJoiner = edge;
+				pending = ArrayPath.builder(node);
+				pendingSize = 1;
+			}
+
+			return this;
+		}
+
+		@Override
+		public RopePathBuilder<NodeT, EdgeT> pushFront(
+				NodeT node,
+				EdgeT edge
+		) {
+			flush();
+			body = join(new RopePath<>(node), edge, body);
+
+			return this;
+		}
+
+		@Override
+		public RopePathBuilder<NodeT, EdgeT> pushBack(
+				EdgeT edge,
+				ImmutablePath<NodeT, EdgeT> path
+		) {
+			flush();
+			body = join(body, edge, of(path));
+
+			return this;
+		}
+
+		@Override
+		public RopePathBuilder<NodeT, EdgeT> pushFront(
+				ImmutablePath<NodeT, EdgeT> path,
+				EdgeT edge
+		) {
+			flush();
+			body = join(of(path), edge, body);
+
+			return this;
+		}
+
+		@Override
+		public RopePathBuilder<NodeT, EdgeT> reset(NodeT node) {
+			body = null;
+			bodyJoiner = null;
+			pending = ArrayPath.builder(node);
+			pendingSize = 1;
+
+			return this;
+		}
+
+		@Override
+		public RopePath<NodeT, EdgeT> build() {
+			flush();
+			RopePath<NodeT, EdgeT> path = body;
+			invalidate();
+			if (PathMetrics.ENABLED) {
+				PathMetrics.built(RopePath.class);
+			}
+			return path;
+		}
+
+		private void flush() {
+			if (pending == null) {
+				return;
+			}
+			RopePath<NodeT, EdgeT> leaf = new RopePath<>(pending.build());
+			body = (body == null) ? leaf : join(body, bodyJoiner, leaf);
+			bodyJoiner = null;
+			pending = null;
+		}
+
+		private void invalidate() {
+			body = null;
+			bodyJoiner = null;
+			pending = null;
+		}
+	}
+}
@@ -0,0 +1,357 @@
+package com.davidje13.path;
+
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Paths of up to {@link #MAX_NODES} nodes, stored directly in fields.
+ *
+ * Each path is a single small object with no backing arrays or wrappers, so
+ * they are much cheaper to create and hold than the general-purpose backends
+ * when most paths are tiny. {@link LinkedPath.LinkedPathBuilder#buildCompact()}
+ * and {@link ArrayPath.ArrayPathBuilder#buildCompact()} return these
+ * automatically for small paths.
+ *
+ * Builders created from small paths are {@link ArrayPath} builders.
+ */
+public abstract class SmallPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
+	public static final int MAX_NODES = 3;
+
+	public static <NodeT, EdgeT> SmallPath<NodeT, EdgeT> of(NodeT node) {
+		if (PathMetrics.ENABLED) {
+			PathMetrics.built(SmallPath.class);
+		}
+		return new OneNode<>(node);
+	}
+
+	public static <NodeT, EdgeT> SmallPath<NodeT, EdgeT> of(
+			NodeT node0,
+			EdgeT edge0,
+			NodeT node1
+	) {
+		if (PathMetrics.ENABLED) {
+			PathMetrics.built(SmallPath.class);
+		}
+		return new TwoNodes<>(node0, edge0, node1);
+	}
+
+	public static <NodeT, EdgeT> SmallPath<NodeT, EdgeT> of(
+			NodeT node0,
+			EdgeT edge0,
+			NodeT node1,
+			EdgeT edge1,
+			NodeT node2
+	) {
+		if (PathMetrics.ENABLED) {
+			PathMetrics.built(SmallPath.class);
+		}
+		return new ThreeNodes<>(node0, edge0, node1, edge1, node2);
+	}
+
+	/**
+	 * @param path the path to copy
+	 * @return a small path equal to the given path if it has no more than
+	 * {@link #MAX_NODES} nodes, otherwise the given path unchanged
+	 */
+	public static <NodeT, EdgeT> ImmutablePath<NodeT, EdgeT> copyIfSmall(
+			ImmutablePath<NodeT, EdgeT> path
+	) {
+		if (path instanceof SmallPath) {
+			return path;
+		}
+		int size = path.countNodes();
+		if (size == 1) {
+			return of(path.getHead());
+		}
+		if (size == 2) {
+			return of(path.getHead(), path.getEdge(0), path.getTail());
+		}
+		if (size == 3) {
+			return of(path.getHead(), path.getEdge(0), path.getNode(1), path.getEdge(1), path.getTail());
+		}
+		return path;
+	}
+
+	// Subclasses are the only implementations
+	private SmallPath() {
+	}
+
+	abstract NodeT node(int index);
+
+	abstract EdgeT edge(int index);
+
+	@Override
+	public ArrayPath.ArrayPathBuilder<NodeT, EdgeT> builderFromNode(NodeT node) {
+		return ArrayPath.builder(node);
+	}
+
+	@Override
+	public ArrayPath.ArrayPathBuilder<NodeT, EdgeT> toBuilder() {
+		return ArrayPath.builder(this);
+	}
+
+	@Override
+	public NodeT getHead() {
+		return node(0);
+	}
+
+	@Override
+	public NodeT getTail() {
+		return node(countNodes() - 1);
+	}
+
+	@Override
+	boolean hasFastCursor() {
+		return true;
+	}
+
+	@Override
+	public NodeT getNode(int nodeIndex) {
+		int size = countNodes();
+		if (nodeIndex < 0 || nodeIndex >= size) {
+			throw new IndexOutOfBoundsException(
+					"Invalid node index: " + nodeIndex +
+					" (nodes in path: " + size + ")"
+			);
+		}
+		return node(nodeIndex);
+	}
+
+	@Override
+	public EdgeT getEdge(int edgeIndex) {
+		int edges = countNodes() - 1;
+		if (edgeIndex < 0 || edgeIndex >= edges) {
+			throw new IndexOutOfBoundsException(
+					"Invalid edge index: " + edgeIndex +
+					" (edges in path: " + edges + ")"
+			);
+		}
+		return edge(edgeIndex);
+	}
+
+	@Override
+	public void visitPairsFromHead(
+			BiConsumer<? super EdgeT, ? super NodeT> visitor
+	) {
+		int size = countNodes();
+		if (PathMetrics.ENABLED) {
+			PathMetrics.visited(size * 2 - 2);
+		}
+		for (int i = 1; i < size; ++ i) {
+			visitor.accept(edge(i - 1), node(i));
+		}
+	}
+
+	@Override
+	@SuppressWarnings("ValueOfIncrementOrDecrementUsed")
+	public void visitPairsFromTail(
+			BiConsumer<? super EdgeT, ? super NodeT> visitor
+	) {
+		int size = countNodes();
+		if (PathMetrics.ENABLED) {
+			PathMetrics.visited(size * 2 - 2);
+		}
+		for (int i = size - 1; (i --) > 0;) {
+			visitor.accept(edge(i), node(i));
+		}
+	}
+
+	@Override
+	public void visitFromHead(
+			Consumer<? super NodeT> nodeVisitor,
+			Consumer<? super EdgeT> edgeVisitor
+	) {
+		int size = countNodes();
+		if (PathMetrics.ENABLED) {
+			PathMetrics.visited(size * 2 - 1);
+		}
+		nodeVisitor.accept(node(0));
+		for (int i = 1; i < size; ++ i) {
+			edgeVisitor.accept(edge(i - 1));
+			nodeVisitor.accept(node(i));
+		}
+	}
+
+	@Override
+	@SuppressWarnings("ValueOfIncrementOrDecrementUsed")
+	public void visitFromTail(
+			Consumer<? super NodeT> nodeVisitor,
+			Consumer<? super EdgeT> edgeVisitor
+	) {
+		int size = countNodes();
+		if (PathMetrics.ENABLED) {
+			PathMetrics.visited(size * 2 - 1);
+		}
+		nodeVisitor.accept(node(size - 1));
+		for (int i = size - 1; (i --) > 0;) {
+			edgeVisitor.accept(edge(i));
+			nodeVisitor.accept(node(i));
+		}
+	}
+
+	@Override
+	public SmallPath<NodeT, EdgeT> subPath(
+			int startNodeIndex,
+			int endNodeIndex
+	) {
+		int size = countNodes();
+		if (startNodeIndex < 0 || endNodeIndex < startNodeIndex) {
+			throw new IndexOutOfBoundsException(
+					"Invalid range: " + startNodeIndex + " -- " + endNodeIndex
+			);
+		}
+		if (endNodeIndex >= size) {
+			throw new IndexOutOfBoundsException(
+					"Invalid range: " + startNodeIndex + " -- " + endNodeIndex +
+					" (nodes in path: " + size + ")"
+			);
+		}
+		long started = PathMetrics.ENABLED ? PathMetrics.start() : 0;
+		SmallPath<NodeT, EdgeT> result;
+		if (endNodeIndex - startNodeIndex + 1 == size) {
+			result = this;
+		} else if (startNodeIndex == endNodeIndex) {
+			result = of(node(startNodeIndex));
+		} else {
+			result = of(node(startNodeIndex), edge(startNodeIndex), node(endNodeIndex));
+		}
+		if (PathMetrics.ENABLED) {
+			PathMetrics.record(PathMetrics.Operation.SUB_PATH, started, result.countNodes());
+		}
+		return result;
+	}
+
+	@Override
+	public boolean visitFromHeadWhile(
+			Predicate<? super NodeT> nodeVisitor,
+			Predicate<? super EdgeT> edgeVisitor
+	) {
+		return CursorVisits.fromHeadWhile(this, nodeVisitor, edgeVisitor);
+	}
+
+	@Override
+	public boolean visitFromTailWhile(
+			Predicate<? super NodeT> nodeVisitor,
+			Predicate<? super EdgeT> edgeVisitor
+	) {
+		return CursorVisits.fromTailWhile(this, nodeVisitor, edgeVisitor);
+	}
+
+	@Override
+	public Spliterator<NodeT> nodeSpliterator() {
+		return IndexedSpliterator.nodes(this);
+	}
+
+	@Override
+	public Spliterator<EdgeT> edgeSpliterator() {
+		return IndexedSpliterator.edges(this);
+	}
+
+	@Override
+	public Spliterator<Map.Entry<EdgeT, NodeT>> pairSpliterator() {
+		return IndexedSpliterator.pairs(this);
+	}
+
+	private static final class OneNode<NodeT, EdgeT> extends SmallPath<NodeT, EdgeT> {
+		private final NodeT node0;
+
+		private OneNode(NodeT node0) {
+			this.node0 = node0;
+		}
+
+		@Override
+		NodeT node(int index) {
+			return node0;
+		}
+
+		// Never called, since single node paths have no edges
+		@Override
+		EdgeT edge(int index) {
+			throw new IndexOutOfBoundsException("Invalid edge index: " + index);
+		}
+
+		@Override
+		public NodeT getTail() {
+			return node0;
+		}
+
+		@Override
+		public int countNodes() {
+			return 1;
+		}
+	}
+
+	private static final class TwoNodes<NodeT, EdgeT> extends SmallPath<NodeT, EdgeT> {
+		private final NodeT node0;
+		private final EdgeT edge0;
+		private final NodeT node1;
+
+		private TwoNodes(NodeT node0, EdgeT edge0, NodeT node1) {
+			this.node0 = node0;
+			this.edge0 = edge0;
+			this.node1 = node1;
+		}
+
+		@Override
+		NodeT node(int index) {
+			return (index == 0) ? node0 : node1;
+		}
+
+		@Override
+		EdgeT edge(int index) {
+			return edge0;
+		}
+
+		@Override
+		public NodeT getTail() {
+			return node1;
+		}
+
+		@Override
+		public int countNodes() {
+			return 2;
+		}
+	}
+
+	private static final class ThreeNodes<NodeT, EdgeT> extends SmallPath<NodeT, EdgeT> {
+		private final NodeT node0;
+		private final EdgeT edge0;
+		private final NodeT node1;
+		private final EdgeT edge1;
+		private final NodeT node2;
+
+		private ThreeNodes(NodeT node0, EdgeT edge0, NodeT node1, EdgeT edge1, NodeT node2) {
+			this.node0 = node0;
+			this.edge0 = edge0;
+			this.node1 = node1;
+			this.edge1 = edge1;
+			this.node2 = node2;
+		}
+
+		@Override
+		NodeT node(int index) {
+			if (index == 0) {
+				return node0;
+			}
+			return (index == 1) ? node1 : node2;
+		}
+
+		@Override
+		EdgeT edge(int index) {
+			return (index == 0) ? edge0 : edge1;
+		}
+
+		@Override
+		public NodeT getTail() {
+			return node2;
+		}
+
+		@Override
+		public int countNodes() {
+			return 3;
+		}
+	}
+}
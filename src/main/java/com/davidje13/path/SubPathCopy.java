@@ -0,0 +1,48 @@
+package com.davidje13.path;
+
+/**
+ * Copies a range of nodes and edges into a builder in a single visit, for
+ * the default {@link ImmutablePath#subPath(int, int)}. The visitors return
+ * false once the end of the range has been copied, so paths which can stop
+ * visiting early do not read past it.
+ */
+final class SubPathCopy<NodeT, EdgeT> {
+	private final PathBuilder<NodeT, EdgeT, ?> builder;
+	private final int startNodeIndex;
+	private final int endNodeIndex;
+	private int nodes = 0;
+	private EdgeT edge = null;
+
+	SubPathCopy(PathBuilder<NodeT, EdgeT, ?> builder, int startNodeIndex, int endNodeIndex) {
+		this.builder = builder;
+		this.startNodeIndex = startNodeIndex;
+		this.endNodeIndex = endNodeIndex;
+	}
+
+	boolean node(NodeT node) {
+		if (nodes == startNodeIndex) {
+			builder.reset(node);
+		} else if (nodes > startNodeIndex) {
+			builder.pushBack(edge, node);
+		}
+		++ nodes;
+		return nodes <= endNodeIndex;
+	}
+
+	boolean edge(EdgeT edge) {
+		this.edge = edge;
+		return true;
+	}
+
+	/**
+	 * @return the number of nodes visited, which is the size of the path if
+	 * the range was not completely copied
+	 */
+	int visitedNodes() {
+		return nodes;
+	}
+
+	PathBuilder<NodeT, EdgeT, ?> builder() {
+		return builder;
+	}
+}
@@ -0,0 +1,196 @@
+package com.davidje13.path;
+
+import com.davidje13.Box;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * A compiled set of sub paths which can all be searched for in a single pass
+ * over a path (using the Aho-Corasick algorithm).
+ *
+ * Paths are treated as interleaved node / edge sequences, and a node never
+ * matches an edge even if the objects are equal.
+ *
+ * Instances are immutable once constructed and can be shared between
+ * threads.
+ */
+public class SubPathMatcherSet<NodeT, EdgeT> {
+	private static final int[] NO_OUTPUTS = new int[0];
+
+	private final List<ImmutablePath<NodeT, EdgeT>> patterns;
+	private final int[] patternLengths;
+	private final State root;
+
+	/**
+	 * @param patterns the sub paths to search for
+	 */
+	public SubPathMatcherSet(
+			Collection<? extends ImmutablePath<NodeT, EdgeT>> patterns
+	) {
+		this.patterns = Collections.unmodifiableList(new ArrayList<>(patterns));
+		this.patternLengths = new int[this.patterns.size()];
+		this.root = new State(0);
+
+		for (int i = 0; i < this.patterns.size(); ++ i) {
+			addPattern(i, this.patterns.get(i));
+		}
+		linkFailures();
+	}
+
+	/**
+	 * @return the sub paths which this set searches for
+	 */
+	public List<ImmutablePath<NodeT, EdgeT>> getPatterns() {
+		return patterns;
+	}
+
+	/**
+	 * Find every occurrence of every pattern in the given path. Occurrences
+	 * are reported in order of their last node; if several patterns end at
+	 * the same node, longer patterns are reported first.
+	 *
+	 * @param path the path to search
+	 * @param visitor lambda to call with each matched pattern and the index of
+	 *                the node in the path where the match begins
+	 */
+	public void findAll(
+			ImmutablePath<NodeT, EdgeT> path,
+			MatchVisitor<NodeT, EdgeT> visitor
+	) {
+		Scan scan = new Scan(visitor);
+		path.visitFromHead(scan::accept, scan::accept);
+	}
+
+	/**
+	 * @param path the path to search
+	 * @return true if any of the patterns occur in the path
+	 */
+	public boolean matchesAny(ImmutablePath<NodeT, EdgeT> path) {
+		Scan scan = new Scan(null);
+		return !path.visitFromHeadWhile(scan::acceptUnmatched, scan::acceptUnmatched);
+	}
+
+	private void addPattern(int index, ImmutablePath<NodeT, EdgeT> pattern) {
+		Box<State> cursor = new Box<>(root);
+		pattern.visitFromHead(
+				(node) -> cursor.value = cursor.value.child(node),
+				(edge) -> cursor.value = cursor.value.child(edge)
+		);
+		State end = cursor.value;
+		patternLengths[index] = end.depth;
+		end.outputs = append(end.outputs, index);
+	}
+
+	private void linkFailures() {
+		Queue<State> queue = new ArrayDeque<>();
+		for (State child : root.next.values()) {
+			child.failure = root;
+			queue.add(child);
+		}
+
+		while (!queue.isEmpty()) {
+			State state = queue.remove();
+			for (Map.Entry<Object, State> entry : state.next.entrySet()) {
+				State child = entry.getValue();
+				child.failure = root.step(state.failure, entry.getKey(), state.depth);
+				if (child.failure.outputs.length > 0) {
+					child.outputs = concat(child.outputs, child.failure.outputs);
+				}
+				queue.add(child);
+			}
+		}
+	}
+
+	private static int[] append(int[] values, int value) {
+		int[] result = new int[values.length + 1];
+		System.arraycopy(values, 0, result, 0, values.length);
+		result[values.length] = value;
+		return result;
+	}
+
+	private static int[] concat(int[] values1, int[] values2) {
+		int[] result = new int[values1.length + values2.length];
+		System.arraycopy(values1, 0, result, 0, values1.length);
+		System.arraycopy(values2, 0, result, values1.length, values2.length);
+		return result;
+	}
+
+	@FunctionalInterface
+	public interface MatchVisitor<NodeT, EdgeT> {
+		/**
+		 * @param pattern the pattern which was found
+		 * @param nodeIndex the index of the node where the match begins
+		 */
+		void accept(ImmutablePath<NodeT, EdgeT> pattern, int nodeIndex);
+	}
+
+	private static class State {
+		// All patterns begin with a node, so a state's depth determines
+		// whether its transitions are for nodes (even) or edges (odd)
+		private final int depth;
+		private final Map<Object, State> next = new HashMap<>();
+		private State failure;
+		private int[] outputs = NO_OUTPUTS;
+
+		private State(int depth) {
+			this.depth = depth;
+		}
+
+		private State child(Object element) {
+			return next.computeIfAbsent(element, (e) -> new State(depth + 1));
+		}
+
+		// Called on the root: follow transitions from the given state,
+		// falling back through failure links as required
+		private State step(State from, Object element, int position) {
+			State state = from;
+			while (true) {
+				if (state == this && (position & 1) != 0) {
+					// only nodes can begin a match
+					return this;
+				}
+				State target = state.next.get(element);
+				if (target != null) {
+					return target;
+				}
+				if (state == this) {
+					return this;
+				}
+				state = state.failure;
+			}
+		}
+	}
+
+	private class Scan {
+		private final MatchVisitor<NodeT, EdgeT> visitor;
+		private State state = root;
+		private int position = 0;
+
+		private Scan(MatchVisitor<NodeT, EdgeT> visitor) {
+			this.visitor = visitor;
+		}
+
+		private void accept(Object element) {
+			state = root.step(state, element, position);
+			for (int index : state.outputs) {
+				int start = position - patternLengths[index] + 1;
+				visitor.accept(patterns.get(index), start / 2);
+			}
+			++ position;
+		}
+
+		// Stops the scan (by returning false) as soon as any pattern matches
+		private boolean acceptUnmatched(Object element) {
+			state = root.step(state, element, position);
+			++ position;
+			return state.outputs.length == 0;
+		}
+	}
+}
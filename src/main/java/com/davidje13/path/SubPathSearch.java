@@ -0,0 +1,172 @@
+package com.davidje13.path;
+
+import java.util.Objects;
+
+/**
+ * Linear-time sub path searches, used by the default implementations in
+ * {@link ImmutablePath}. Searches stop visiting the path as soon as the
+ * result is known.
+ *
+ * Paths are treated as interleaved node / edge sequences (node, edge, node,
+ * ...). A node never matches an edge, even if the objects are equal.
+ */
+final class SubPathSearch {
+	private SubPathSearch() {
+	}
+
+	static int firstIndexOf(
+			ImmutablePath<?, ?> path,
+			ImmutablePath<?, ?> subPath
+	) {
+		long started = PathMetrics.ENABLED ? PathMetrics.start() : 0;
+		Matcher matcher = new Matcher(readFromHead(subPath));
+		path.visitFromHeadWhile(matcher::accept, matcher::accept);
+		if (PathMetrics.ENABLED) {
+			PathMetrics.record(PathMetrics.Operation.INDEX_OF, started, matcher.position);
+		}
+		if (matcher.firstMatchStart == -1) {
+			return -1;
+		}
+		return matcher.firstMatchStart / 2;
+	}
+
+	static int lastIndexOf(
+			ImmutablePath<?, ?> path,
+			ImmutablePath<?, ?> subPath
+	) {
+		long started = PathMetrics.ENABLED ? PathMetrics.start() : 0;
+		Object[] pattern = readFromTail(subPath);
+		Matcher matcher = new Matcher(pattern);
+		path.visitFromTailWhile(matcher::accept, matcher::accept);
+		if (PathMetrics.ENABLED) {
+			PathMetrics.record(PathMetrics.Operation.INDEX_OF, started, matcher.position);
+		}
+		if (matcher.firstMatchStart == -1) {
+			return -1;
+		}
+		// matcher.firstMatchStart is measured from the tail
+		int matchEnd = path.countNodes() * 2 - 2 - matcher.firstMatchStart;
+		return (matchEnd - pattern.length + 1) / 2;
+	}
+
+	static boolean startsWith(
+			ImmutablePath<?, ?> path,
+			ImmutablePath<?, ?> subPath
+	) {
+		PrefixMatcher matcher = new PrefixMatcher(readFromHead(subPath));
+		path.visitFromHeadWhile(matcher::accept, matcher::accept);
+		return matcher.matched();
+	}
+
+	static boolean endsWith(
+			ImmutablePath<?, ?> path,
+			ImmutablePath<?, ?> subPath
+	) {
+		PrefixMatcher matcher = new PrefixMatcher(readFromTail(subPath));
+		path.visitFromTailWhile(matcher::accept, matcher::accept);
+		return matcher.matched();
+	}
+
+	private static Object[] readFromHead(ImmutablePath<?, ?> path) {
+		ElementReader reader = new ElementReader(path.countNodes());
+		path.visitFromHead(reader::accept, reader::accept);
+		return reader.elements;
+	}
+
+	private static Object[] readFromTail(ImmutablePath<?, ?> path) {
+		ElementReader reader = new ElementReader(path.countNodes());
+		path.visitFromTail(reader::accept, reader::accept);
+		return reader.elements;
+	}
+
+	// Both sequences begin with a node, so elements at even positions are
+	// nodes and elements at odd positions are edges
+	private static boolean elementsMatch(
+			Object[] pattern,
+			int patternPosition,
+			Object element,
+			int elementPosition
+	) {
+		return (
+				((patternPosition ^ elementPosition) & 1) == 0 &&
+				Objects.equals(pattern[patternPosition], element)
+		);
+	}
+
+	private static class ElementReader {
+		private final Object[] elements;
+		private int position = 0;
+
+		private ElementReader(int nodes) {
+			elements = new Object[nodes * 2 - 1];
+		}
+
+		private void accept(Object element) {
+			elements[position] = element;
+			++ position;
+		}
+	}
+
+	// Knuth-Morris-Pratt matcher which records the first match
+	private static class Matcher {
+		private final Object[] pattern;
+		private final int[] failure;
+		private int matched = 0;
+		private int position = 0;
+		private int firstMatchStart = -1;
+
+		private Matcher(Object[] pattern) {
+			this.pattern = pattern;
+			this.failure = new int[pattern.length];
+
+			int k = 0;
+			for (int i = 1; i < pattern.length; ++ i) {
+				while (k > 0 && !elementsMatch(pattern, k, pattern[i], i)) {
+					k = failure[k - 1];
+				}
+				if (elementsMatch(pattern, k, pattern[i], i)) {
+					++ k;
+				}
+				failure[i] = k;
+			}
+		}
+
+		// Returns false once a match has been found
+		private boolean accept(Object element) {
+			while (matched > 0 && !elementsMatch(pattern, matched, element, position)) {
+				matched = failure[matched - 1];
+			}
+			if (elementsMatch(pattern, matched, element, position)) {
+				++ matched;
+			}
+			if (matched == pattern.length) {
+				firstMatchStart = position - pattern.length + 1;
+			}
+			++ position;
+			return firstMatchStart == -1;
+		}
+	}
+
+	private static class PrefixMatcher {
+		private final Object[] pattern;
+		private int position = 0;
+		private boolean matches = true;
+
+		private PrefixMatcher(Object[] pattern) {
+			this.pattern = pattern;
+		}
+
+		// Returns false once the result is known
+		private boolean accept(Object element) {
+			if (!Objects.equals(pattern[position], element)) {
+				matches = false;
+			}
+			++ position;
+			return matches && position < pattern.length;
+		}
+
+		private boolean matched() {
+			return matches && position >= pattern.length;
+		}
+	}
+}
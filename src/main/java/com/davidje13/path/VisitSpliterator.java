@@ -0,0 +1,61 @@
+package com.davidje13.path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator which gets its elements by visiting a path. Used by the
+ * default spliterators in {@link ImmutablePath}, which cannot assume fast
+ * indexed access.
+ *
+ * Consuming every element runs the visit once, directly. Stepping one
+ * element at a time (or splitting) first buffers the remaining elements, so
+ * all operations run in linear time.
+ */
+class VisitSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+	private final Consumer<Consumer<? super T>> visit;
+	private List<T> buffer = null;
+	private int index = 0;
+
+	/**
+	 * @param size the number of elements which the visit will produce
+	 * @param visit calls its argument with each element in order
+	 */
+	VisitSpliterator(int size, Consumer<Consumer<? super T>> visit) {
+		super(size, ORDERED | SIZED | IMMUTABLE);
+		this.visit = visit;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		if (buffer == null) {
+			buffer = new ArrayList<>();
+			visit.accept(buffer::add);
+		}
+		if (index >= buffer.size()) {
+			return false;
+		}
+		action.accept(buffer.get(index));
+		++ index;
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		if (buffer == null) {
+			buffer = new ArrayList<>(0);
+			visit.accept(action);
+			return;
+		}
+		for (; index < buffer.size(); ++ index) {
+			action.accept(buffer.get(index));
+		}
+	}
+
+	@Override
+	public long estimateSize() {
+		return (buffer == null) ? super.estimateSize() : (buffer.size() - index);
+	}
+}
@@ -0,0 +1,131 @@
+package com.davidje13.path;
+
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class ArrayPathTest {
+	private final ArrayPath<String, Integer> path = ArrayPath.<String, Integer>builder("a")
+			.pushBack(1, "b")
+			.pushBack(2, "c")
+			.pushBack(3, "d")
+			.build();
+
+	@Test
+	public void subPath_returnsViewOfRequestedRange() {
+		ArrayPath<String, Integer> sub = path.subPath(1, 2);
+
+		assertThat(sub.countNodes(), equalTo(2));
+		assertThat(sub.getHead(), equalTo("b"));
+		assertThat(sub.getTail(), equalTo("c"));
+		assertThat(sub.getNodesFromHead(), equalTo(asList("b", "c")));
+		assertThat(sub.getEdgesFromHead(), equalTo(asList(2)));
+		assertThat(sub.getEdgesFromTail(), equalTo(asList(2)));
+	}
+
+	@Test
+	public void subPath_canBeNested() {
+		ArrayPath<String, Integer> sub = path.subPath(1, 3).subPath(1, 2);
+
+		assertThat(sub, equalTo(ArrayPath.<String, Integer>builder("c").pushBack(3, "d").build()));
+	}
+
+	@Test
+	public void subPath_returnsSelfForFullRange() {
+		assertThat(path.subPath(0, 3), sameInstance(path));
+	}
+
+	@Test
+	public void subPath_viewCanBeUsedToBuildNewPaths() {
+		ImmutablePath<String, Integer> extended = path.subPath(0, 1).toBuilder()
+				.pushBack(9, "z")
+				.build();
+
+		assertThat(extended.getNodesFromHead(), equalTo(asList("a", "b", "z")));
+		assertThat(path.getNodesFromHead(), equalTo(asList("a", "b", "c", "d")));
+	}
+
+	@Test
+	public void compact_returnsEqualPath() {
+		ArrayPath<String, Integer> sub = path.subPath(1, 2);
+		ArrayPath<String, Integer> compacted = sub.compact();
+
+		assertThat(compacted, not(sameInstance(sub)));
+		assertThat(compacted, equalTo(sub));
+	}
+
+	@Test
+	public void compact_returnsSelfIfNotAView() {
+		assertThat(path.compact(), sameInstance(path));
+	}
+
+	@Test
+	public void builder_supportsPushingToBothEnds() {
+		ArrayPath.ArrayPathBuilder<Integer, Integer> builder = ArrayPath.builder(0);
+		for (int i = 1; i <= 1000; ++ i) {
+			builder.pushFront(-i, -i * 10);
+			builder.pushBack(i * 10, i);
+		}
+		ArrayPath<Integer, Integer> built = builder.build();
+
+		assertThat(built.countNodes(), equalTo(2001));
+		assertThat(built.getHead(), equalTo(-1000));
+		assertThat(built.getTail(), equalTo(1000));
+		for (int i = 0; i < 2000; ++ i) {
+			assertThat(built.getNode(i), equalTo(i - 1000));
+			assertThat(built.getEdge(i), equalTo((i < 1000) ? (i - 1000) * 10 : (i - 999) * 10));
+		}
+	}
+
+	@Test
+	public void builder_withExpectedSize_buildsPath() {
+		ArrayPath<String, Integer> built = ArrayPath.<String, Integer>builder("a", 4)
+				.pushBack(1, "b")
+				.pushBack(2, "c")
+				.pushBack(3, "d")
+				.build();
+
+		assertThat(built, equalTo(path));
+	}
+
+	@Test
+	public void builder_withExpectedSize_canGrow() {
+		ArrayPath<String, Integer> built = ArrayPath.<String, Integer>builder("b", 1)
+				.pushBack(2, "c")
+				.pushFront("a", 1)
+				.pushBack(3, "d")
+				.build();
+
+		assertThat(built, equalTo(path));
+	}
+
+	@Test
+	public void builder_copiesArrayPathViews() {
+		ArrayPath<String, Integer> built = ArrayPath.builder(path.subPath(1, 2))
+				.pushBack(9, path.subPath(0, 1))
+				.pushFront(path.subPath(2, 3), 8)
+				.build();
+
+		assertThat(built.getNodesFromHead(), equalTo(asList("c", "d", "b", "c", "a", "b")));
+		assertThat(built.getEdgesFromHead(), equalTo(asList(3, 8, 2, 9, 1)));
+	}
+
+	@Test
+	public void builder_copiesOtherPaths() {
+		ImmutablePath<String, Integer> linked = LinkedPath.<String, Integer>builder("x")
+				.pushBack(7, "y")
+				.build();
+
+		ArrayPath<String, Integer> built = ArrayPath.builder(linked)
+				.pushBack(8, linked)
+				.pushFront(linked, 6)
+				.build();
+
+		assertThat(built.getNodesFromHead(), equalTo(asList("x", "y", "x", "y", "x", "y")));
+		assertThat(built.getEdgesFromHead(), equalTo(asList(7, 6, 7, 8, 7)));
+	}
+}
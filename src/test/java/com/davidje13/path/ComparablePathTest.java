@@ -0,0 +1,105 @@
+package com.davidje13.path;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class ComparablePathTest {
+	private final ImmutablePath<String, Integer> arrayPath = build(new ArrayPath<>(null));
+	private final ImmutablePath<String, Integer> linkedPath = build(new LinkedPath<>(null));
+	private final ImmutablePath<String, Integer> ropePath = build(new RopePath<>(null));
+
+	@Test
+	public void equals_comparesAcrossImplementations() {
+		for (ImmutablePath<String, Integer> a : asList(arrayPath, linkedPath, ropePath)) {
+			for (ImmutablePath<String, Integer> b : asList(arrayPath, linkedPath, ropePath)) {
+				assertThat(a.equals(b), equalTo(true));
+				assertThat(a.hashCode(), equalTo(b.hashCode()));
+			}
+		}
+	}
+
+	@Test
+	public void equals_detectsDifferencesAcrossImplementations() {
+		ImmutablePath<String, Integer> different = ArrayPath.<String, Integer>builder("a")
+				.pushBack(1, "b")
+				.pushBack(3, "c")
+				.build();
+
+		for (ImmutablePath<String, Integer> path : asList(arrayPath, linkedPath, ropePath)) {
+			assertThat(path.equals(different), equalTo(false));
+			assertThat(different.equals(path), equalTo(false));
+			assertThat(path.equals(RopePath.of(different)), equalTo(false));
+			assertThat(path.equals(LinkedPath.builder(different).build()), equalTo(false));
+		}
+	}
+
+	@Test
+	public void equals_comparesArraySubPathViews() {
+		ImmutablePath<String, Integer> longPath = ArrayPath.<String, Integer>builder("z")
+				.pushBack(0, "a")
+				.pushBack(1, "b")
+				.pushBack(2, "c")
+				.build();
+
+		assertThat(longPath.subPath(1, 3), equalTo(arrayPath));
+		assertThat(arrayPath, equalTo(longPath.subPath(1, 3)));
+		assertThat(longPath.subPath(0, 2).equals(arrayPath), equalTo(false));
+	}
+
+	@Test
+	public void equals_returnsFalseForDifferentLengths() {
+		assertThat(linkedPath.equals(linkedPath.subPath(0, 1)), equalTo(false));
+		assertThat(linkedPath.subPath(0, 1).equals(linkedPath), equalTo(false));
+	}
+
+	@Test
+	public void equals_comparesVisitOnlyPathsInLinearTime() {
+		VisitOnlyPath<Integer, Integer> visitOnly = VisitOnlyPath.numbered(1000);
+		ImmutablePath<Integer, Integer> linked = LinkedPath.builder(VisitOnlyPath.numbered(1000)).build();
+		ImmutablePath<Integer, Integer> different = LinkedPath.builder(linked)
+				.pushBack(0, 1000)
+				.build()
+				.subPath(1, 1000);
+
+		assertThat(linked.equals(visitOnly), equalTo(true));
+		assertThat(visitOnly.visited <= 1000 * 2 * 4, equalTo(true));
+
+		visitOnly.visited = 0;
+		assertThat(visitOnly.equals(linked), equalTo(true));
+		assertThat(visitOnly.visited <= 1000 * 2 * 4, equalTo(true));
+
+		assertThat(visitOnly.equals(different), equalTo(false));
+		assertThat(different.equals(visitOnly), equalTo(false));
+	}
+
+	@Test
+	public void hashCode_matchesListBasedHash() {
+		assertThat(
+				arrayPath.hashCode(),
+				equalTo(Objects.hash(asList("a", "b", "c"), asList(1, 2)))
+		);
+	}
+
+	@Test
+	public void paths_canBeUsedAsMapKeys() {
+		Map<ImmutablePath<String, Integer>, String> map = new HashMap<>();
+		map.put(linkedPath, "value");
+
+		assertThat(map.get(arrayPath), equalTo("value"));
+		assertThat(map.get(ropePath), equalTo("value"));
+	}
+
+	private static ImmutablePath<String, Integer> build(ImmutablePath<String, Integer> base) {
+		return base.builderFromNode("a")
+				.pushBack(1, "b")
+				.pushBack(2, "c")
+				.build();
+	}
+}
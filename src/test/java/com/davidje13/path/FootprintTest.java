@@ -0,0 +1,184 @@
+package com.davidje13.path;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * Measures the memory retained by each backend (excluding the nodes and
+ * edges themselves) using JOL, and fails if the overhead per node or edge
+ * grows past the expected limits.
+ *
+ * Limits are expressed in references, so that they hold with and without
+ * compressed references. A summary table is printed once all measurements
+ * have been taken.
+ */
+public class FootprintTest {
+	private static final int[] SIZES = { 1, 10, 100, 1000, 10000 };
+
+	// Object headers and other per-instance costs (which do not depend on
+	// the number of nodes) must fit in this allowance
+	private static final long FIXED_BYTES = 256;
+
+	private static final int REFERENCE_BYTES = (int) (
+			VM.current().sizeOf(new Object[2]) - VM.current().sizeOf(new Object[0])
+	) / 2;
+
+	private static final List<String> REPORT = new ArrayList<>();
+
+	@AfterClass
+	public static void printReport() {
+		System.out.println(String.format(
+				"%-24s %8s %12s %16s",
+				"backend",
+				"nodes",
+				"bytes",
+				"bytes / element"
+		));
+		REPORT.forEach(System.out::println);
+	}
+
+	@Test
+	public void arrayPath_usesAboutOneReferencePerElement() {
+		for (int size : SIZES) {
+			ArrayPath<Integer, Integer> path = ArrayPath.builder(numberedPath(size)).build();
+			checkFootprint("ArrayPath", path, path, 1.25);
+		}
+	}
+
+	@Test
+	public void arrayPathSubPath_isCompactedToOneReferencePerElement() {
+		for (int size : SIZES) {
+			ArrayPath<Integer, Integer> path = ArrayPath.builder(numberedPath(size * 2)).build()
+					.subPath(size / 2, size / 2 + size - 1)
+					.compact();
+			checkFootprint("ArrayPath (compacted)", path, path, 1.25);
+		}
+	}
+
+	@Test
+	public void arrayPathBuilder_overAllocatesBoundedly() {
+		for (int size : SIZES) {
+			ImmutablePath<Integer, Integer> path = numberedPath(size);
+			ArrayPath.ArrayPathBuilder<Integer, Integer> builder = ArrayPath.builder(path.getHead());
+			path.visitPairsFromHead(builder::pushBack);
+			checkFootprint("ArrayPathBuilder", builder, path, 2.5);
+		}
+	}
+
+	@Test
+	public void linkedPath_usesOneWrapperPerElement() {
+		for (int size : SIZES) {
+			LinkedPath<Integer, Integer> path = LinkedPath.builder(numberedPath(size)).build();
+			checkFootprint("LinkedPath", path, path, 7);
+		}
+	}
+
+	@Test
+	public void linkedPathBuilder_usesOneWrapperPerElement() {
+		for (int size : SIZES) {
+			ImmutablePath<Integer, Integer> path = numberedPath(size);
+			LinkedPath.LinkedPathBuilder<Integer, Integer> builder = LinkedPath.builder(path);
+			checkFootprint("LinkedPathBuilder", builder, path, 7);
+		}
+	}
+
+	@Test
+	public void squashedPath_matchesItsBackend() {
+		PathSquasher squasher = new PathSquasher();
+		for (int size : SIZES) {
+			// Runs of 4 equal nodes are squashed to their first node
+			ImmutablePath<Integer, Integer> path = squasher.squashNodes(
+					groupedPath(size * 4),
+					Objects::equals,
+					ImmutablePath::getHead,
+					(edge) -> edge
+			);
+			checkFootprint("PathSquasher (linked)", path, path, 7);
+
+			ImmutablePath<Integer, Integer> arrayPath = squasher.squashNodes(
+					groupedPath(size * 4),
+					Objects::equals,
+					ImmutablePath::getHead,
+					(edge) -> edge,
+					ArrayPath::builder
+			);
+			checkFootprint("PathSquasher (array)", arrayPath, arrayPath, 1.25);
+		}
+	}
+
+	@Test
+	public void smallPath_isSmallerThanArrayPath() {
+		ImmutablePath<Integer, Integer> path3 = numberedPath(3);
+		ImmutablePath<Integer, Integer> small = SmallPath.copyIfSmall(path3);
+		ArrayPath<Integer, Integer> array = ArrayPath.builder(path3).build();
+
+		long smallBytes = checkFootprint("SmallPath", small, small, 4);
+		long arrayBytes = overheadBytes(array, array);
+
+		assertThat(
+				"SmallPath uses " + smallBytes + " bytes; ArrayPath uses " + arrayBytes,
+				smallBytes < arrayBytes,
+				equalTo(true)
+		);
+	}
+
+	private static long checkFootprint(
+			String name,
+			Object instance,
+			ImmutablePath<?, ?> contents,
+			double referencesPerElement
+	) {
+		int elements = contents.countNodes() * 2 - 1;
+		long bytes = overheadBytes(instance, contents);
+		REPORT.add(String.format(
+				"%-24s %8d %12d %16.2f",
+				name,
+				contents.countNodes(),
+				bytes,
+				bytes / (double) elements
+		));
+
+		long limit = FIXED_BYTES + (long) (referencesPerElement * REFERENCE_BYTES * elements);
+		assertThat(
+				name + " with " + contents.countNodes() + " nodes uses " + bytes +
+				" bytes (limit: " + limit + ")",
+				bytes <= limit,
+				equalTo(true)
+		);
+		return bytes;
+	}
+
+	// Everything reachable from the instance, except the nodes and edges
+	private static long overheadBytes(Object instance, ImmutablePath<?, ?> contents) {
+		List<Object> elements = new ArrayList<>();
+		contents.visitFromHead(elements::add, elements::add);
+		return GraphLayout.parseInstance(instance)
+				.subtract(GraphLayout.parseInstance(elements.toArray()))
+				.totalSize();
+	}
+
+	private static ImmutablePath<Integer, Integer> numberedPath(int nodes) {
+		LinkedPath.LinkedPathBuilder<Integer, Integer> builder = LinkedPath.builder(0);
+		for (int i = 1; i < nodes; ++ i) {
+			builder.pushBack(-i, i);
+		}
+		return builder.build();
+	}
+
+	private static ImmutablePath<Integer, Integer> groupedPath(int nodes) {
+		LinkedPath.LinkedPathBuilder<Integer, Integer> builder = LinkedPath.builder(0);
+		for (int i = 1; i < nodes; ++ i) {
+			builder.pushBack(-i, i / 4);
+		}
+		return builder.build();
+	}
+}
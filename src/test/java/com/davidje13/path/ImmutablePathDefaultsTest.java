@@ -0,0 +1,90 @@
+package com.davidje13.path;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * Checks that the default implementations in {@link ImmutablePath} only
+ * visit a path a bounded number of times, so that paths without indexed
+ * access do not become quadratic.
+ */
+public class ImmutablePathDefaultsTest {
+	private static final int SIZE = 1000;
+
+	// Each test may visit the whole path a few dozen times (for example to
+	// count its nodes), but never once per element
+	private static final int LINEAR_LIMIT = SIZE * 2 * 30;
+
+	@Test
+	public void streams_visitLinearly() {
+		VisitOnlyPath<Integer, Integer> path = VisitOnlyPath.numbered(SIZE);
+
+		assertThat(path.nodes().mapToLong((n) -> n).sum(), equalTo(499500L));
+		assertThat(path.edges().mapToLong((e) -> e).sum(), equalTo(-499500L));
+		assertThat(
+				path.pairs().map(Map.Entry::getValue).collect(Collectors.toList()),
+				equalTo(path.nodes().skip(1).collect(Collectors.toList()))
+		);
+		assertThat(path.visited <= LINEAR_LIMIT, equalTo(true));
+	}
+
+	@Test
+	public void spliterators_canBeAdvancedAndSplit() {
+		VisitOnlyPath<Integer, Integer> path = VisitOnlyPath.numbered(SIZE);
+		Spliterator<Integer> spliterator = path.nodeSpliterator();
+
+		assertThat(spliterator.estimateSize(), equalTo((long) SIZE));
+		spliterator.tryAdvance((node) -> assertThat(node, equalTo(0)));
+		Spliterator<Integer> prefix = spliterator.trySplit();
+
+		long total = StreamSupport.stream(prefix, false).mapToLong((n) -> n).sum() +
+				StreamSupport.stream(spliterator, false).mapToLong((n) -> n).sum();
+		assertThat(total, equalTo(499500L));
+		assertThat(path.nodes().parallel().mapToLong((n) -> n).sum(), equalTo(499500L));
+		assertThat(path.visited <= LINEAR_LIMIT, equalTo(true));
+	}
+
+	@Test
+	public void visitWhile_visitsLinearlyAndStopsCallingVisitors() {
+		VisitOnlyPath<Integer, Integer> path = VisitOnlyPath.numbered(SIZE);
+		List<Integer> seen = new ArrayList<>();
+
+		boolean completed = path.visitFromHeadWhile(
+				(node) -> seen.add(node) && node < 2,
+				(edge) -> seen.add(edge)
+		);
+		assertThat(completed, equalTo(false));
+		assertThat(seen, equalTo(asList(0, -1, 1, -2, 2)));
+
+		seen.clear();
+		completed = path.visitFromTailWhile((node) -> seen.add(node), (edge) -> edge != -999);
+		assertThat(completed, equalTo(false));
+		assertThat(seen, equalTo(asList(999)));
+
+		assertThat(path.visitFromHeadWhile((node) -> true, (edge) -> true), equalTo(true));
+		assertThat(path.visited <= LINEAR_LIMIT, equalTo(true));
+	}
+
+	@Test
+	public void searchesAndSubPaths_visitLinearly() {
+		VisitOnlyPath<Integer, Integer> path = VisitOnlyPath.numbered(SIZE);
+		ImmutablePath<Integer, Integer> middle = LinkedPath.builder(path).build().subPath(400, 600);
+
+		assertThat(path.subPath(400, 600), equalTo(middle));
+		assertThat(path.firstIndexOfSubPath(middle), equalTo(400));
+		assertThat(path.lastIndexOfSubPath(middle), equalTo(400));
+		assertThat(path.startsWith(middle), equalTo(false));
+		assertThat(path, equalTo(LinkedPath.builder(path).build()));
+		assertThat(path.visited <= LINEAR_LIMIT, equalTo(true));
+	}
+}
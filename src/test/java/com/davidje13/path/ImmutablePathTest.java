@@ -4,12 +4,22 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.StreamSupport;
 
 import static com.davidje13.matchers.RunnableThrowsMatcher.throwsException;
 import static java.util.Arrays.asList;
+import static java.util.Spliterator.IMMUTABLE;
+import static java.util.Spliterator.ORDERED;
+import static java.util.Spliterator.SIZED;
+import static java.util.Spliterator.SUBSIZED;
+import static java.util.stream.Collectors.toList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
@@ -78,6 +88,90 @@ public class ImmutablePathTest {
 		assertThat(path3.getEdgesFromTail(), equalTo(asList(2, 1)));
 	}
 
+	@Test
+	public void getNode_returnsNodeAtIndex() {
+		assertThat(path1.getNode(0), equalTo("node 1"));
+		assertThat(path3.getNode(0), equalTo("node 1"));
+		assertThat(path3.getNode(1), equalTo("node 2"));
+		assertThat(path3.getNode(2), equalTo("node 3"));
+	}
+
+	@Test
+	public void getEdge_returnsEdgeAtIndex() {
+		assertThat(path2.getEdge(0), equalTo(1));
+		assertThat(path3.getEdge(0), equalTo(1));
+		assertThat(path3.getEdge(1), equalTo(2));
+	}
+
+	@Test
+	public void getNode_throwsIfIndexIsOutOfRange() {
+		assertThat(() -> path1.getNode(-1), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+		assertThat(() -> path1.getNode(1), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+		assertThat(() -> path3.getNode(3), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+	}
+
+	@Test
+	public void getEdge_throwsIfIndexIsOutOfRange() {
+		assertThat(() -> path1.getEdge(0), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+		assertThat(() -> path3.getEdge(-1), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+		assertThat(() -> path3.getEdge(2), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+	}
+
+	@Test
+	public void nodes_streamsNodesFromHead() {
+		assertThat(path1.nodes().collect(toList()), equalTo(asList("node 1")));
+		assertThat(path3.nodes().collect(toList()), equalTo(asList("node 1", "node 2", "node 3")));
+	}
+
+	@Test
+	public void edges_streamsEdgesFromHead() {
+		assertThat(path1.edges().collect(toList()), equalTo(asList()));
+		assertThat(path3.edges().collect(toList()), equalTo(asList(1, 2)));
+	}
+
+	@Test
+	public void pairs_streamsEdgeNodePairsFromHead_excludingHeadNode() {
+		assertThat(path1.pairs().collect(toList()), equalTo(asList()));
+		assertThat(path3.pairs().collect(toList()), equalTo(asList(
+				new AbstractMap.SimpleImmutableEntry<>(1, "node 2"),
+				new AbstractMap.SimpleImmutableEntry<>(2, "node 3")
+		)));
+	}
+
+	@Test
+	public void spliterators_reportSizeAndOrdering() {
+		int expected = SIZED | SUBSIZED | ORDERED | IMMUTABLE;
+		assertThat(path3.nodeSpliterator().characteristics() & expected, equalTo(expected));
+		assertThat(path3.edgeSpliterator().characteristics() & expected, equalTo(expected));
+		assertThat(path3.pairSpliterator().characteristics() & expected, equalTo(expected));
+		assertThat(path3.nodeSpliterator().estimateSize(), equalTo(3L));
+		assertThat(path3.edgeSpliterator().estimateSize(), equalTo(2L));
+		assertThat(path3.pairSpliterator().estimateSize(), equalTo(2L));
+	}
+
+	@Test
+	public void spliterators_splitEvenly() {
+		ImmutablePath<Integer, Integer> path = largeIntegerPath(1000);
+		Spliterator<Integer> suffix = path.nodeSpliterator();
+		Spliterator<Integer> prefix = suffix.trySplit();
+
+		assertThat(prefix.estimateSize(), equalTo(500L));
+		assertThat(suffix.estimateSize(), equalTo(500L));
+		assertThat(StreamSupport.stream(suffix, false).findFirst().orElse(null), equalTo(500));
+	}
+
+	@Test
+	public void streams_supportParallelProcessing() {
+		ImmutablePath<Integer, Integer> path = largeIntegerPath(10000);
+
+		assertThat(path.nodes().parallel().mapToLong((n) -> n).sum(), equalTo(49995000L));
+		assertThat(path.edges().parallel().mapToLong((e) -> e).sum(), equalTo(-49995000L));
+		assertThat(
+				path.pairs().parallel().map(Map.Entry::getValue).collect(toList()),
+				equalTo(path.nodes().skip(1).collect(toList()))
+		);
+	}
+
 	@Test
 	public void countNodes_returnsNumberOfNodes() {
 		assertThat(path1.countNodes(), equalTo(1));
@@ -208,6 +302,88 @@ public class ImmutablePathTest {
 		assertThat(visitedNodes3, equalTo(asList("node 2", "node 1")));
 	}
 
+	@Test
+	public void visitFromHeadWhile_stopsWhenVisitorReturnsFalse() {
+		List<Object> visited = new ArrayList<>();
+
+		boolean completed = path3.visitFromHeadWhile(
+				(node) -> visited.add(node) && !node.equals("node 2"),
+				visited::add
+		);
+
+		assertThat(completed, equalTo(false));
+		assertThat(visited, equalTo(asList("node 1", 1, "node 2")));
+	}
+
+	@Test
+	public void visitFromHeadWhile_returnsTrueIfAllElementsAreVisited() {
+		List<Object> visited = new ArrayList<>();
+
+		boolean completed = path3.visitFromHeadWhile(visited::add, visited::add);
+
+		assertThat(completed, equalTo(true));
+		assertThat(visited, equalTo(asList("node 1", 1, "node 2", 2, "node 3")));
+	}
+
+	@Test
+	public void visitFromTailWhile_stopsWhenVisitorReturnsFalse() {
+		List<Object> visited = new ArrayList<>();
+
+		boolean completed = path3.visitFromTailWhile(
+				visited::add,
+				(edge) -> visited.add(edge) && edge != 2
+		);
+
+		assertThat(completed, equalTo(false));
+		assertThat(visited, equalTo(asList("node 3", 2)));
+		assertThat(path1.visitFromTailWhile((node) -> true, (edge) -> true), equalTo(true));
+	}
+
+	@Test
+	public void cursor_movesInBothDirections() {
+		PathCursor<String, Integer> cursor = path3.cursor();
+
+		assertThat(cursor.getIndex(), equalTo(0));
+		assertThat(cursor.getNode(), equalTo("node 1"));
+		assertThat(cursor.hasPrev(), equalTo(false));
+		assertThat(cursor.hasNext(), equalTo(true));
+		assertThat(cursor.getNextEdge(), equalTo(1));
+
+		assertThat(cursor.next(), equalTo("node 2"));
+		assertThat(cursor.getIndex(), equalTo(1));
+		assertThat(cursor.getPrevEdge(), equalTo(1));
+		assertThat(cursor.getNextEdge(), equalTo(2));
+
+		assertThat(cursor.next(), equalTo("node 3"));
+		assertThat(cursor.hasNext(), equalTo(false));
+
+		assertThat(cursor.prev(), equalTo("node 2"));
+		assertThat(cursor.getIndex(), equalTo(1));
+	}
+
+	@Test
+	public void cursor_seeksToIndex() {
+		PathCursor<String, Integer> cursor = path3.cursor();
+
+		assertThat(cursor.seek(2), equalTo("node 3"));
+		assertThat(cursor.getIndex(), equalTo(2));
+		assertThat(cursor.getPrevEdge(), equalTo(2));
+		assertThat(cursor.seek(0), equalTo("node 1"));
+		assertThat(cursor.getNextEdge(), equalTo(1));
+	}
+
+	@Test
+	public void cursor_throwsAtEnds() {
+		PathCursor<String, Integer> cursor1 = path1.cursor();
+		assertThat(cursor1::next, throwsException(instanceOf(NoSuchElementException.class)));
+		assertThat(cursor1::prev, throwsException(instanceOf(NoSuchElementException.class)));
+		assertThat(cursor1::getNextEdge, throwsException(instanceOf(NoSuchElementException.class)));
+		assertThat(cursor1::getPrevEdge, throwsException(instanceOf(NoSuchElementException.class)));
+		assertThat(() -> cursor1.seek(1), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+		assertThat(() -> cursor1.seek(-1), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+		assertThat(cursor1.getNode(), equalTo("node 1"));
+	}
+
 	@Test
 	public void subPath_createsSubPathBetweenGivenIndices_inclusive() {
 		assertThat(path1.subPath(0, 0), equalTo(path1));
@@ -328,6 +504,24 @@ public class ImmutablePathTest {
 		assertThat(path.lastIndexOfSubPath(testPath("a")), equalTo(1));
 	}
 
+	@Test
+	public void firstIndexOfSubPath_findsOverlappingRepeats() {
+		ImmutablePath<String, Integer> path = testPath("a", 1, "a", 1, "a", 1, "b", 1, "a", 1, "a", 1, "b");
+		assertThat(path.firstIndexOfSubPath(testPath("a", 1, "a", 1, "b")), equalTo(1));
+		assertThat(path.lastIndexOfSubPath(testPath("a", 1, "a", 1, "b")), equalTo(4));
+		assertThat(path.lastIndexOfSubPath(testPath("a", 1, "a")), equalTo(4));
+	}
+
+	@Test
+	public void firstIndexOfSubPath_doesNotMatchNodesAgainstEdges() {
+		ImmutablePath<Integer, Integer> path = integerPath(5, 1, 2, 3, 4);
+		assertThat(path.firstIndexOfSubPath(integerPath(1, 2, 3)), equalTo(-1));
+		assertThat(path.lastIndexOfSubPath(integerPath(1, 2, 3)), equalTo(-1));
+		assertThat(path.firstIndexOfSubPath(integerPath(2, 3, 4)), equalTo(1));
+		assertThat(path.startsWith(integerPath(1)), equalTo(false));
+		assertThat(path.endsWith(integerPath(3)), equalTo(false));
+	}
+
 	@Test
 	public void firstIndexOfSubPath_returnsMinusOneIfNotFound() {
 		assertThat(path1.firstIndexOfSubPath(testPath("nope")), equalTo(-1));
@@ -524,8 +718,34 @@ public class ImmutablePathTest {
 		return builder.build();
 	}
 
+	private ImmutablePath<Integer, Integer> largeIntegerPath(int size) {
+		@SuppressWarnings("unchecked")
+		PathBuilder<Integer, Integer, ?> builder =
+				((ImmutablePath<Integer, Integer>) (ImmutablePath<?, ?>) basePath)
+						.builderFromNode(0);
+
+		for (int i = 1; i < size; ++ i) {
+			builder.pushBack(-i, i);
+		}
+
+		return builder.build();
+	}
+
+	private ImmutablePath<Integer, Integer> integerPath(Integer... parts) {
+		@SuppressWarnings("unchecked")
+		PathBuilder<Integer, Integer, ?> builder =
+				((ImmutablePath<Integer, Integer>) (ImmutablePath<?, ?>) basePath)
+						.builderFromNode(parts[0]);
+
+		for (int i = 1; i < parts.length; i += 2) {
+			builder.pushBack(parts[i], parts[i + 1]);
+		}
+
+		return builder.build();
+	}
+
 	@Parameterized.Parameters(name = "{0}")
 	public static Collection<Class<? extends ImmutablePath>> implementationsToTest() {
-		return asList(LinkedPath.class, ArrayPath.class);
+		return asList(LinkedPath.class, ArrayPath.class, RopePath.class);
 	}
 }
@@ -0,0 +1,97 @@
+package com.davidje13.path;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class IndexedPathTest {
+	private static ImmutablePath<Integer, Integer> path(int... parts) {
+		ArrayPath.ArrayPathBuilder<Integer, Integer> builder = ArrayPath.builder(parts[0]);
+		for (int i = 1; i < parts.length; i += 2) {
+			builder.pushBack(parts[i], parts[i + 1]);
+		}
+		return builder.build();
+	}
+
+	@Test
+	public void search_findsSubPaths() {
+		IndexedPath<Integer, Integer> indexed = new IndexedPath<>(
+				path(1, 0, 2, 0, 1, 0, 2, 0, 1, 5, 3)
+		);
+
+		assertThat(indexed.containsSubPath(path(2, 0, 1)), equalTo(true));
+		assertThat(indexed.firstIndexOfSubPath(path(2, 0, 1)), equalTo(1));
+		assertThat(indexed.lastIndexOfSubPath(path(2, 0, 1)), equalTo(3));
+		assertThat(indexed.countSubPaths(path(2, 0, 1)), equalTo(2));
+
+		assertThat(indexed.firstIndexOfSubPath(path(1)), equalTo(0));
+		assertThat(indexed.lastIndexOfSubPath(path(1)), equalTo(4));
+		assertThat(indexed.countSubPaths(path(1)), equalTo(3));
+
+		assertThat(indexed.firstIndexOfSubPath(path(1, 5, 3)), equalTo(4));
+		assertThat(indexed.countSubPaths(path(1, 0, 2, 0, 1)), equalTo(2));
+	}
+
+	@Test
+	public void search_returnsNotFound() {
+		IndexedPath<Integer, Integer> indexed = new IndexedPath<>(path(1, 0, 2, 0, 1));
+
+		assertThat(indexed.containsSubPath(path(2, 1, 1)), equalTo(false));
+		assertThat(indexed.firstIndexOfSubPath(path(3)), equalTo(-1));
+		assertThat(indexed.lastIndexOfSubPath(path(1, 0, 2, 0, 1, 0, 2)), equalTo(-1));
+		assertThat(indexed.countSubPaths(path(2, 0, 2)), equalTo(0));
+	}
+
+	@Test
+	public void search_doesNotMatchNodesAgainstEdges() {
+		IndexedPath<Integer, Integer> indexed = new IndexedPath<>(path(1, 2, 1, 2, 1));
+
+		assertThat(indexed.containsSubPath(path(2)), equalTo(false));
+		assertThat(indexed.containsSubPath(path(2, 1, 2)), equalTo(false));
+		assertThat(indexed.countSubPaths(path(1, 2, 1)), equalTo(2));
+	}
+
+	@Test
+	public void search_matchesUnindexedSearch() {
+		Random random = new Random(1);
+		ArrayPath.ArrayPathBuilder<Integer, Integer> builder = ArrayPath.builder(0);
+		for (int i = 0; i < 2000; ++ i) {
+			builder.pushBack(random.nextInt(2), random.nextInt(3));
+		}
+		ImmutablePath<Integer, Integer> path = builder.build();
+		IndexedPath<Integer, Integer> indexed = new IndexedPath<>(path);
+
+		for (int i = 0; i < 200; ++ i) {
+			int start = random.nextInt(path.countNodes());
+			int end = Math.min(start + random.nextInt(8), path.countNodes() - 1);
+			ImmutablePath<Integer, Integer> subPath = path.subPath(start, end);
+
+			int first = path.firstIndexOfSubPath(subPath);
+			int last = path.lastIndexOfSubPath(subPath);
+			assertThat(indexed.firstIndexOfSubPath(subPath), equalTo(first));
+			assertThat(indexed.lastIndexOfSubPath(subPath), equalTo(last));
+
+			int count = 0;
+			for (int j = first; j <= last; ++ j) {
+				if (path.subPath(j, j + end - start).equals(subPath)) {
+					++ count;
+				}
+			}
+			assertThat(indexed.countSubPaths(subPath), equalTo(count));
+		}
+	}
+
+	@Test
+	public void equals_comparesWrappedPath() {
+		ImmutablePath<Integer, Integer> path = path(1, 0, 2);
+		IndexedPath<Integer, Integer> indexed = new IndexedPath<>(path);
+
+		assertThat(indexed, equalTo(path));
+		assertThat(path, equalTo(indexed));
+		assertThat(indexed.hashCode(), equalTo(path.hashCode()));
+		assertThat(indexed.subPath(1, 1), equalTo(path(2)));
+	}
+}
@@ -0,0 +1,44 @@
+package com.davidje13.path;
+
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class IntIntPathTest {
+	private final IntIntPath path = IntIntPath.builder(1)
+			.pushBack(10, 2)
+			.pushBack(20, 3)
+			.build();
+
+	@Test
+	public void builder_storesNodesAndEdges() {
+		assertThat(path.toString(), equalTo("1, 10, 2, 20, 3"));
+		assertThat(path.getNode(1), equalTo(2));
+		assertThat(path.getEdge(1), equalTo(20));
+		assertThat(path.edges().boxed().collect(toList()), equalTo(asList(10, 20)));
+	}
+
+	@Test
+	public void searches_distinguishNodesFromEdges() {
+		IntIntPath haystack = IntIntPath.builder(10).pushBack(2, 20).pushBack(3, 4).build();
+		IntIntPath needle = IntIntPath.builder(2).pushBack(20, 3).build();
+
+		assertThat(haystack.containsSubPath(needle), equalTo(false));
+		assertThat(IntIntPath.concatenate(haystack, 1, path).firstIndexOfSubPath(needle), equalTo(4));
+	}
+
+	@Test
+	public void asPath_isEqualToBoxedPaths() {
+		ImmutablePath<Integer, Integer> boxed = LinkedPath.<Integer, Integer>builder(1)
+				.pushBack(10, 2)
+				.pushBack(20, 3)
+				.build();
+
+		assertThat(path.asPath(), equalTo(boxed));
+		assertThat(path.hashCode(), equalTo(boxed.hashCode()));
+		assertThat(IntIntPath.copyOf(boxed), equalTo(path));
+	}
+}
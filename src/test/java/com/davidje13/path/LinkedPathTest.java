@@ -0,0 +1,63 @@
+package com.davidje13.path;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class LinkedPathTest {
+	private static final int SIZE = 1000;
+
+	private final LinkedPath<Integer, Integer> path = numberedPath(SIZE);
+
+	@Test
+	public void countNodes_tracksPushBackAndPushFront() {
+		LinkedPath<Integer, Integer> built = LinkedPath.<Integer, Integer>builder(0)
+				.pushBack(1, 1)
+				.pushFront(-1, 2)
+				.pushBack(3, 2)
+				.build();
+
+		assertThat(built.countNodes(), equalTo(4));
+	}
+
+	@Test
+	public void getNode_returnsEveryNode() {
+		for (int i = 0; i < SIZE; ++ i) {
+			assertThat(path.getNode(i), equalTo(i));
+		}
+	}
+
+	@Test
+	public void getEdge_returnsEveryEdge() {
+		for (int i = 0; i < SIZE - 1; ++ i) {
+			assertThat(path.getEdge(i), equalTo(-(i + 1)));
+		}
+	}
+
+	@Test
+	public void getNode_worksForAllSmallSizes() {
+		for (int size = 1; size < 20; ++ size) {
+			LinkedPath<Integer, Integer> small = numberedPath(size);
+			for (int i = 0; i < size; ++ i) {
+				assertThat(small.getNode(i), equalTo(i));
+			}
+		}
+	}
+
+	@Test
+	public void subPath_copiesOnlyTheRequestedRange() {
+		LinkedPath<Integer, Integer> sub = path.subPath(500, 502);
+
+		assertThat(sub.countNodes(), equalTo(3));
+		assertThat(sub.toString(), equalTo("500, -501, 501, -502, 502"));
+	}
+
+	private static LinkedPath<Integer, Integer> numberedPath(int size) {
+		LinkedPath.LinkedPathBuilder<Integer, Integer> builder = LinkedPath.builder(0);
+		for (int i = 1; i < size; ++ i) {
+			builder.pushBack(-i, i);
+		}
+		return builder.build();
+	}
+}
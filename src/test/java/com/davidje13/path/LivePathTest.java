@@ -0,0 +1,133 @@
+package com.davidje13.path;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.davidje13.matchers.RunnableThrowsMatcher.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+
+public class LivePathTest {
+	private static ImmutablePath<Integer, Integer> numberedPath(int first, int nodes) {
+		LinkedPath.LinkedPathBuilder<Integer, Integer> builder = LinkedPath.builder(first);
+		for (int i = first + 1; i < first + nodes; ++ i) {
+			builder.pushBack(-i, i);
+		}
+		return builder.build();
+	}
+
+	private static LivePath<Integer, Integer> livePath(int nodes, int chunkBits) {
+		LivePath<Integer, Integer> path = new LivePath<>(0, chunkBits);
+		for (int i = 1; i < nodes; ++ i) {
+			path.pushBack(-i, i);
+		}
+		return path;
+	}
+
+	@Test
+	public void snapshot_containsAppendedNodesAndEdges() {
+		LivePath<String, Integer> path = new LivePath<>("a");
+		path.pushBack(1, "b").pushBack(2, "c");
+
+		assertThat(path.snapshot(), equalTo(
+				LinkedPath.<String, Integer>builder("a")
+						.pushBack(1, "b")
+						.pushBack(2, "c")
+						.build()
+		));
+		assertThat(path.countNodes(), equalTo(3));
+	}
+
+	@Test
+	public void snapshot_isUnaffectedByLaterAppends() {
+		LivePath<Integer, Integer> path = livePath(5, 2);
+
+		ImmutablePath<Integer, Integer> snapshot = path.snapshot();
+		path.pushBack(-5, 5).pushBack(-6, 6);
+
+		assertThat(snapshot, equalTo(numberedPath(0, 5)));
+		assertThat(path.snapshot(), equalTo(numberedPath(0, 7)));
+	}
+
+	@Test
+	public void snapshot_crossesChunks() {
+		ImmutablePath<Integer, Integer> snapshot = livePath(100, 2).snapshot();
+		ImmutablePath<Integer, Integer> expected = numberedPath(0, 100);
+
+		assertThat(snapshot, equalTo(expected));
+		assertThat(snapshot.getNodesFromTail(), equalTo(expected.getNodesFromTail()));
+		assertThat(snapshot.getEdgesFromTail(), equalTo(expected.getEdgesFromTail()));
+		for (int i = 0; i < 99; ++ i) {
+			assertThat(snapshot.getNode(i), equalTo(i));
+			assertThat(snapshot.getEdge(i), equalTo(-i - 1));
+		}
+		assertThat(snapshot.subPath(3, 57), equalTo(numberedPath(3, 55)));
+		assertThat(snapshot.subPath(3, 57).subPath(1, 4), equalTo(numberedPath(4, 4)));
+	}
+
+	@Test
+	public void pushBack_appendsPaths() {
+		LivePath<Integer, Integer> path = new LivePath<>(0, 2);
+		path.pushBack(-1, numberedPath(1, 10));
+
+		assertThat(path.snapshot(), equalTo(numberedPath(0, 11)));
+	}
+
+	@Test
+	public void getNode_throwsIfOutOfRange() {
+		ImmutablePath<Integer, Integer> snapshot = livePath(5, 2).snapshot();
+
+		assertThat(() -> snapshot.getNode(5), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+		assertThat(() -> snapshot.getEdge(4), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+		assertThat(() -> snapshot.subPath(2, 5), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+	}
+
+	@Test
+	public void snapshot_isConsistentWhileWriting() throws InterruptedException {
+		int total = 200000;
+		LivePath<Integer, Integer> path = new LivePath<>(0, 4);
+		AtomicBoolean done = new AtomicBoolean(false);
+		AtomicReference<String> failure = new AtomicReference<>(null);
+
+		List<Thread> readers = new ArrayList<>();
+		for (int r = 0; r < 3; ++ r) {
+			Thread reader = new Thread(() -> {
+				int lastSize = 1;
+				while (!done.get() && failure.get() == null) {
+					ImmutablePath<Integer, Integer> snapshot = path.snapshot();
+					int size = snapshot.countNodes();
+					if (size < lastSize) {
+						failure.set("Snapshot shrank from " + lastSize + " to " + size);
+					}
+					if (!snapshot.getTail().equals(size - 1)) {
+						failure.set("Wrong tail " + snapshot.getTail() + " at size " + size);
+					}
+					for (int i = lastSize - 1; i < size - 1; ++ i) {
+						if (!snapshot.getNode(i).equals(i) || !snapshot.getEdge(i).equals(-i - 1)) {
+							failure.set("Wrong element at " + i);
+						}
+					}
+					lastSize = size;
+				}
+			});
+			reader.start();
+			readers.add(reader);
+		}
+
+		for (int i = 1; i < total; ++ i) {
+			path.pushBack(-i, i);
+		}
+		done.set(true);
+		for (Thread reader : readers) {
+			reader.join();
+		}
+
+		assertThat(failure.get(), equalTo(null));
+		assertThat(path.snapshot(), equalTo(numberedPath(0, total)));
+	}
+}
@@ -0,0 +1,146 @@
+package com.davidje13.path;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class LongDoublePathTest {
+	private final LongDoublePath path = LongDoublePath.builder(1L)
+			.pushBack(0.5, 2L)
+			.pushBack(1.5, 3L)
+			.pushBack(2.5, 4L)
+			.build();
+
+	@Test
+	public void builder_storesNodesAndEdges() {
+		assertThat(path.countNodes(), equalTo(4));
+		assertThat(path.countEdges(), equalTo(3));
+		assertThat(path.getHead(), equalTo(1L));
+		assertThat(path.getTail(), equalTo(4L));
+		assertThat(path.getNode(2), equalTo(3L));
+		assertThat(path.getEdge(2), equalTo(2.5));
+	}
+
+	@Test
+	public void pushFront_addsToStartOfPath() {
+		LongDoublePath extended = path.toBuilder()
+				.pushFront(0L, 0.25)
+				.pushFront(path, 9.0)
+				.build();
+
+		assertThat(extended.toString(), equalTo(
+				"1, 0.5, 2, 1.5, 3, 2.5, 4, 9.0, 0, 0.25, 1, 0.5, 2, 1.5, 3, 2.5, 4"
+		));
+	}
+
+	@Test
+	public void pushFront_growsAtEitherEnd() {
+		LongDoublePath.LongDoublePathBuilder builder = LongDoublePath.builder(0L);
+		for (long i = 1; i <= 100; ++ i) {
+			builder.pushFront(-i, -i * 0.5).pushBack(i * 0.5, i);
+		}
+		LongDoublePath built = builder.build();
+
+		assertThat(built.countNodes(), equalTo(201));
+		assertThat(built.getHead(), equalTo(-100L));
+		assertThat(built.getTail(), equalTo(100L));
+		assertThat(built.getNode(100), equalTo(0L));
+		assertThat(built.getEdge(0), equalTo(-50.0));
+		assertThat(built.getEdge(199), equalTo(50.0));
+	}
+
+	@Test
+	public void concatenate_joinsPaths() {
+		LongDoublePath joined = LongDoublePath.concatenate(path, 7.0, path.subPath(1, 2));
+
+		assertThat(joined.toString(), equalTo("1, 0.5, 2, 1.5, 3, 2.5, 4, 7.0, 2, 1.5, 3"));
+	}
+
+	@Test
+	public void visitPairsFromTail_visitsInReverse() {
+		List<Object> visited = new ArrayList<>();
+		path.visitPairsFromTail((edge, node) -> {
+			visited.add(edge);
+			visited.add(node);
+		});
+
+		assertThat(visited, equalTo(asList(2.5, 3L, 1.5, 2L, 0.5, 1L)));
+	}
+
+	@Test
+	public void streams_returnNodesAndEdges() {
+		assertThat(path.nodes().boxed().collect(toList()), equalTo(asList(1L, 2L, 3L, 4L)));
+		assertThat(path.subPath(1, 3).edges().boxed().collect(toList()), equalTo(asList(1.5, 2.5)));
+	}
+
+	@Test
+	public void subPath_returnsViewOfRequestedRange() {
+		LongDoublePath sub = path.subPath(1, 2);
+
+		assertThat(sub.toString(), equalTo("2, 1.5, 3"));
+		assertThat(sub.compact(), equalTo(sub));
+		assertThat(sub.compact(), not(sameInstance(sub)));
+		assertThat(path.subPath(0, 3), sameInstance(path));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void getEdge_rejectsIndicesOutsideView() {
+		path.subPath(1, 2).getEdge(1);
+	}
+
+	@Test
+	public void searches_findSubPaths() {
+		LongDoublePath haystack = LongDoublePath.concatenate(path, 0.5, path);
+		LongDoublePath needle = LongDoublePath.builder(2L).pushBack(1.5, 3L).build();
+
+		assertThat(haystack.firstIndexOfSubPath(needle), equalTo(1));
+		assertThat(haystack.lastIndexOfSubPath(needle), equalTo(5));
+		assertThat(haystack.containsSubPath(path.subPath(3, 3).toBuilder().pushBack(0.5, 1L).build()), equalTo(true));
+		assertThat(haystack.containsSubPath(LongDoublePath.builder(2L).pushBack(2.5, 3L).build()), equalTo(false));
+		assertThat(haystack.startsWith(path), equalTo(true));
+		assertThat(haystack.endsWith(path.subPath(2, 3)), equalTo(true));
+		assertThat(haystack.endsWith(needle), equalTo(false));
+	}
+
+	@Test
+	public void asPath_isEqualToBoxedPaths() {
+		ImmutablePath<Long, Double> boxed = ArrayPath.<Long, Double>builder(1L)
+				.pushBack(0.5, 2L)
+				.pushBack(1.5, 3L)
+				.pushBack(2.5, 4L)
+				.build();
+
+		assertThat(path.asPath(), equalTo(boxed));
+		assertThat(boxed, equalTo(path.asPath()));
+		assertThat(path.asPath().hashCode(), equalTo(boxed.hashCode()));
+		assertThat(path.hashCode(), equalTo(boxed.hashCode()));
+		assertThat(LongDoublePath.copyOf(boxed), equalTo(path));
+	}
+
+	@Test
+	public void asPath_searchesUsePrimitivePaths() {
+		ImmutablePath<Long, Double> view = LongDoublePath.concatenate(path, 9.0, path).asPath();
+
+		assertThat(view.firstIndexOfSubPath(path.subPath(1, 2).asPath()), equalTo(1));
+		assertThat(view.lastIndexOfSubPath(path.subPath(1, 2).asPath()), equalTo(5));
+		assertThat(view.subPath(4, 7), equalTo(path.asPath()));
+	}
+
+	@Test
+	public void asPath_buildersProducePrimitivePaths() {
+		ImmutablePath<Long, Double> extended = path.asPath().toBuilder()
+				.pushBack(3.5, 5L)
+				.build();
+
+		assertThat(extended.getNodesFromHead(), equalTo(asList(1L, 2L, 3L, 4L, 5L)));
+		assertThat(extended.subPath(3, 4).getEdgesFromHead(), equalTo(asList(3.5)));
+	}
+}
@@ -0,0 +1,187 @@
+package com.davidje13.path;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class OffHeapPathTest {
+	// Small segments, so that paths in these tests span several buffers
+	private static final int SEGMENT_RECORDS = 3;
+
+	private static OffHeapPath.OffHeapPathBuilder<Long, Double> builder(long node) {
+		return new OffHeapPath.OffHeapPathBuilder<>(
+				node,
+				FixedWidthCodec.LONG,
+				FixedWidthCodec.DOUBLE,
+				SEGMENT_RECORDS
+		);
+	}
+
+	private static ImmutablePath<Long, Double> longDoublePath(int size) {
+		ArrayPath.ArrayPathBuilder<Long, Double> builder = ArrayPath.builder(0L);
+		for (int i = 1; i < size; ++ i) {
+			builder.pushBack(i + 0.5, (long) i);
+		}
+		return builder.build();
+	}
+
+	@Test
+	public void builder_storesNodesAndEdgesAcrossSegments() {
+		OffHeapPath.OffHeapPathBuilder<Long, Double> builder = builder(0L);
+		for (int i = 1; i < 200; ++ i) {
+			builder.pushBack(i + 0.5, (long) i);
+		}
+		OffHeapPath<Long, Double> path = builder.build();
+
+		assertThat(path, equalTo(longDoublePath(200)));
+		assertThat(path.getNode(150), equalTo(150L));
+		assertThat(path.getEdge(150), equalTo(151.5));
+	}
+
+	@Test
+	public void pushFront_addsToStartOfPath() {
+		OffHeapPath<Long, Double> path = builder(3L)
+				.pushFront(2L, 2.5)
+				.pushBack(3.5, 4L)
+				.pushFront(1L, 1.5)
+				.pushFront(0L, 0.5)
+				.build();
+
+		assertThat(path.getNodesFromHead(), equalTo(asList(0L, 1L, 2L, 3L, 4L)));
+		assertThat(path.getEdgesFromTail(), equalTo(asList(3.5, 2.5, 1.5, 0.5)));
+		assertThat(path.getHead(), equalTo(0L));
+	}
+
+	@Test
+	public void reset_doesNotAffectBuiltPaths() {
+		OffHeapPath.OffHeapPathBuilder<Long, Double> builder = builder(0L);
+		for (int i = 1; i < 5; ++ i) {
+			builder.pushBack(i + 0.5, (long) i);
+		}
+		OffHeapPath<Long, Double> first = builder.build();
+
+		builder.reset(9L).pushBack(9.5, 10L).pushFront(8L, 8.5);
+		OffHeapPath<Long, Double> second = builder.build();
+
+		builder.reset(20L).pushBack(20.5, 21L);
+		OffHeapPath<Long, Double> third = builder.build();
+
+		assertThat(first, equalTo(longDoublePath(5)));
+		assertThat(second.getNodesFromHead(), equalTo(asList(8L, 9L, 10L)));
+		assertThat(second.getEdgesFromHead(), equalTo(asList(8.5, 9.5)));
+		assertThat(third.getNodesFromHead(), equalTo(asList(20L, 21L)));
+	}
+
+	@Test
+	public void pushBack_copiesOffHeapPaths() {
+		OffHeapPath<Long, Double> path = OffHeapPath.copyOf(
+				longDoublePath(10),
+				FixedWidthCodec.LONG,
+				FixedWidthCodec.DOUBLE
+		);
+
+		ImmutablePath<Long, Double> joined = builder(-1L)
+				.pushBack(-0.5, path.subPath(2, 7))
+				.build();
+
+		assertThat(joined.getNodesFromHead(), equalTo(asList(-1L, 2L, 3L, 4L, 5L, 6L, 7L)));
+		assertThat(joined.getEdgesFromHead(), equalTo(asList(-0.5, 3.5, 4.5, 5.5, 6.5, 7.5)));
+	}
+
+	@Test
+	public void subPath_returnsViewOfRequestedRange() {
+		OffHeapPath<Long, Double> path = OffHeapPath.copyOf(
+				longDoublePath(20),
+				FixedWidthCodec.LONG,
+				FixedWidthCodec.DOUBLE
+		);
+
+		assertThat(path.subPath(4, 11), equalTo(longDoublePath(20).subPath(4, 11)));
+		assertThat(path.subPath(4, 11).subPath(2, 3).getEdgesFromHead(), equalTo(asList(7.5)));
+		assertThat(path.subPath(0, 19), sameInstance(path));
+	}
+
+	@Test
+	public void toBuilder_extendsPath() {
+		ImmutablePath<Long, Double> path = OffHeapPath.copyOf(
+				longDoublePath(5),
+				FixedWidthCodec.LONG,
+				FixedWidthCodec.DOUBLE
+		).subPath(1, 2).toBuilder().pushBack(9.5, 9L).build();
+
+		assertThat(path.getNodesFromHead(), equalTo(asList(1L, 2L, 9L)));
+		assertThat(path.getEdgesFromHead(), equalTo(asList(2.5, 9.5)));
+	}
+
+	@Test
+	public void visitPairsFromTail_visitsInReverse() {
+		OffHeapPath<Long, Double> path = OffHeapPath.copyOf(
+				longDoublePath(3),
+				FixedWidthCodec.LONG,
+				FixedWidthCodec.DOUBLE
+		);
+		List<Object> visited = new ArrayList<>();
+		path.visitPairsFromTail((edge, node) -> {
+			visited.add(edge);
+			visited.add(node);
+		});
+
+		assertThat(visited, equalTo(asList(2.5, 1L, 1.5, 0L)));
+	}
+
+	@Test
+	public void map_readsPathsWrittenToFiles() throws IOException {
+		OffHeapPath<Long, Double> path = OffHeapPath.copyOf(
+				longDoublePath(50),
+				FixedWidthCodec.LONG,
+				FixedWidthCodec.DOUBLE
+		).subPath(5, 40);
+
+		Path file = Files.createTempFile("path", ".bin");
+		try {
+			try (FileChannel channel = FileChannel.open(file, WRITE)) {
+				path.writeTo(channel);
+			}
+			assertThat(Files.size(file), equalTo(36L * 16));
+
+			try (FileChannel channel = FileChannel.open(file, READ)) {
+				OffHeapPath<Long, Double> mapped = OffHeapPath.map(
+						channel,
+						FixedWidthCodec.LONG,
+						FixedWidthCodec.DOUBLE,
+						16 * 7
+				);
+
+				assertThat(mapped, equalTo(path));
+				assertThat(mapped.getEdge(34), equalTo(40.5));
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void map_rejectsFilesWithPartialRecords() throws IOException {
+		Path file = Files.createTempFile("path", ".bin");
+		try {
+			Files.write(file, new byte[20]);
+			try (FileChannel channel = FileChannel.open(file, READ)) {
+				OffHeapPath.map(channel, FixedWidthCodec.LONG, FixedWidthCodec.DOUBLE);
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package com.davidje13.path;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static com.davidje13.matchers.RunnableThrowsMatcher.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+
+public class ParallelPathAssemblerTest {
+	private static final int JOIN_EDGE_BASE = 1000000;
+
+	private static ImmutablePath<Integer, Integer> numberedPath(int first, int nodes) {
+		LinkedPath.LinkedPathBuilder<Integer, Integer> builder = LinkedPath.builder(first);
+		for (int i = first + 1; i < first + nodes; ++ i) {
+			builder.pushBack(-i, i);
+		}
+		return builder.build();
+	}
+
+	// Joining edges depend on the tail of the previous segment, so they are
+	// wrong if it is read before that segment has been copied
+	private static int joinEdge(int tail, int head) {
+		return JOIN_EDGE_BASE + tail;
+	}
+
+	private static ImmutablePath<Integer, Integer> expectedPath(int segments, int size) {
+		LinkedPath.LinkedPathBuilder<Integer, Integer> builder = LinkedPath.builder(0);
+		for (int i = 1; i < segments * size; ++ i) {
+			builder.pushBack((i % size == 0) ? joinEdge(i - 1, i) : -i, i);
+		}
+		return builder.build();
+	}
+
+	private ParallelPathAssembler<Integer, Integer> assembleInParallel(int segments, int size) {
+		ParallelPathAssembler<Integer, Integer> assembler =
+				new ParallelPathAssembler<>(segments, ParallelPathAssemblerTest::joinEdge);
+		IntStream.range(0, segments).parallel().forEach((i) -> {
+			ImmutablePath<Integer, Integer> segment = numberedPath(i * size, size);
+			// Mix backends, so both the bulk and element-wise copies are used
+			assembler.setSegment(i, (i % 2 == 0) ? ArrayPath.builder(segment).build() : segment);
+		});
+		return assembler;
+	}
+
+	@Test
+	public void toRopePath_linksSegmentsInOrder() {
+		RopePath<Integer, Integer> path = assembleInParallel(37, 500).toRopePath();
+
+		assertThat(path, equalTo(expectedPath(37, 500)));
+		assertThat(path.getEdge(499), equalTo(JOIN_EDGE_BASE + 499));
+	}
+
+	@Test
+	public void toArrayPath_copiesSegmentsInOrder() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		ArrayPath<Integer, Integer> path = assembleInParallel(37, 500).toArrayPath(pool);
+		pool.shutdown();
+
+		assertThat(path, equalTo(expectedPath(37, 500)));
+		for (int i = 1; i < 37; ++ i) {
+			assertThat(path.getEdge(i * 500 - 1), equalTo(JOIN_EDGE_BASE + i * 500 - 1));
+		}
+	}
+
+	@Test
+	public void toArrayPath_handlesSingleNodeSegments() {
+		ArrayPath<Integer, Integer> path = assembleInParallel(5, 1).toArrayPath();
+
+		assertThat(path, equalTo(expectedPath(5, 1)));
+		assertThat(path.getEdge(3), equalTo(JOIN_EDGE_BASE + 3));
+	}
+
+	@Test
+	public void assemble_throwsIfSegmentIsMissing() {
+		ParallelPathAssembler<Integer, Integer> assembler =
+				new ParallelPathAssembler<>(2, (a, b) -> 0);
+		assembler.setSegment(0, numberedPath(0, 2));
+
+		assertThat(assembler::toRopePath, throwsException(instanceOf(IllegalStateException.class)));
+		assertThat(assembler::toArrayPath, throwsException(instanceOf(IllegalStateException.class)));
+	}
+}
@@ -0,0 +1,161 @@
+package com.davidje13.path;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.StreamSupport;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class PathCodecTest {
+	private final PathCodec<String, Integer> codec = new PathCodec<>(
+			ElementSerializer.STRING,
+			ElementSerializer.INT
+	);
+
+	private final ImmutablePath<String, Integer> path = ArrayPath.<String, Integer>builder("a")
+			.pushBack(1, "bb")
+			.pushBack(2, "")
+			.pushBack(3, "dddd")
+			.build();
+
+	@Test
+	public void encode_writesLengthPrefixedElements() {
+		ByteBuffer encoded = codec.encode(ArrayPath.<String, Integer>builder("ab").pushBack(7, "c").build());
+
+		assertThat(encoded.remaining(), equalTo(4 + (8 + 2) + (8 + 4) + (8 + 1)));
+		assertThat(encoded.getInt(0), equalTo(2));
+		assertThat(encoded.getInt(4), equalTo(2));
+		assertThat(encoded.getInt(10), equalTo(2));
+		assertThat(encoded.getInt(18), equalTo(7));
+	}
+
+	@Test
+	public void write_matchesEncode() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		codec.write(path, output);
+
+		assertThat(ByteBuffer.wrap(output.toByteArray()), equalTo(codec.encode(path)));
+	}
+
+	@Test
+	public void decode_returnsEqualPath() {
+		ImmutablePath<String, Integer> decoded = codec.decode(codec.encode(path));
+
+		assertThat(decoded, equalTo(path));
+		assertThat(decoded.hashCode(), equalTo(path.hashCode()));
+		assertThat(decoded.countNodes(), equalTo(4));
+		assertThat(decoded.getHead(), equalTo("a"));
+		assertThat(decoded.getTail(), equalTo("dddd"));
+		assertThat(decoded.getNodesFromTail(), equalTo(asList("dddd", "", "bb", "a")));
+		assertThat(decoded.getEdgesFromTail(), equalTo(asList(3, 2, 1)));
+	}
+
+	@Test
+	public void decode_readsFromBufferPosition() {
+		ByteBuffer encoded = codec.encode(path);
+		ByteBuffer padded = ByteBuffer.allocate(encoded.remaining() + 10);
+		padded.position(5);
+		padded.put(encoded);
+		padded.position(5);
+		padded.limit(padded.capacity() - 5);
+
+		assertThat(codec.decode(padded), equalTo(path));
+		assertThat(padded.position(), equalTo(5));
+	}
+
+	@Test
+	public void decode_visitsFromTail() {
+		List<Object> visited = new ArrayList<>();
+		codec.decode(codec.encode(path)).visitFromTail(visited::add, visited::add);
+
+		assertThat(visited, equalTo(asList("dddd", 3, "", 2, "bb", 1, "a")));
+	}
+
+	@Test
+	public void subPath_returnsRequestedRange() {
+		ImmutablePath<String, Integer> decoded = codec.decode(codec.encode(path));
+
+		for (int start = 0; start < 4; ++ start) {
+			for (int end = start; end < 4; ++ end) {
+				assertThat(decoded.subPath(start, end), equalTo(path.subPath(start, end)));
+			}
+		}
+		assertThat(decoded.subPath(1, 3).subPath(1, 2).getEdgesFromHead(), equalTo(asList(3)));
+	}
+
+	@Test
+	public void getNodeAndEdge_readByIndex() {
+		ImmutablePath<String, Integer> decoded = codec.decode(codec.encode(path));
+
+		for (int i = 0; i < 4; ++ i) {
+			assertThat(decoded.getNode(i), equalTo(path.getNode(i)));
+		}
+		for (int i = 0; i < 3; ++ i) {
+			assertThat(decoded.getEdge(i), equalTo(path.getEdge(i)));
+		}
+		assertThat(decoded.subPath(1, 2).getEdge(0), equalTo(2));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void getEdge_rejectsIndexPastTail() {
+		codec.decode(codec.encode(path)).getEdge(3);
+	}
+
+	@Test
+	public void cursor_readsInBothDirections() {
+		ImmutablePath<String, Integer> decoded = codec.decode(codec.encode(path));
+		PathCursor<String, Integer> cursor = decoded.cursor();
+
+		assertThat(cursor.getNextEdge(), equalTo(1));
+		assertThat(cursor.next(), equalTo("bb"));
+		assertThat(cursor.next(), equalTo(""));
+		assertThat(cursor.getPrevEdge(), equalTo(2));
+		assertThat(cursor.prev(), equalTo("bb"));
+		for (int i = 0; i < 4; ++ i) {
+			for (int j = 0; j < 4; ++ j) {
+				cursor.seek(i);
+				assertThat(cursor.seek(j), equalTo(path.getNode(j)));
+			}
+		}
+		assertThat(cursor.getPrevEdge(), equalTo(3));
+	}
+
+	@Test
+	public void streams_readElementsInOrder() {
+		ImmutablePath<String, Integer> decoded = codec.decode(codec.encode(path));
+
+		assertThat(decoded.nodes().collect(toList()), equalTo(asList("a", "bb", "", "dddd")));
+		assertThat(decoded.edges().collect(toList()), equalTo(asList(1, 2, 3)));
+		assertThat(decoded.nodes().parallel().collect(toList()), equalTo(asList("a", "bb", "", "dddd")));
+		assertThat(decoded.subPath(1, 2).edges().parallel().collect(toList()), equalTo(asList(2)));
+		assertThat(
+				StreamSupport.stream(decoded.pairSpliterator(), true)
+						.map(Map.Entry::getValue)
+						.collect(toList()),
+				equalTo(asList("bb", "", "dddd"))
+		);
+	}
+
+	@Test
+	public void toBuilder_createsModifiablePath() {
+		ImmutablePath<String, Integer> extended = codec.decode(codec.encode(path)).toBuilder()
+				.pushBack(4, "e")
+				.build();
+
+		assertThat(extended.getNodesFromHead(), equalTo(asList("a", "bb", "", "dddd", "e")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void decode_rejectsInvalidData() {
+		codec.decode(ByteBuffer.wrap(new byte[] { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 }));
+	}
+}
@@ -0,0 +1,57 @@
+package com.davidje13.path;
+
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.davidje13.matchers.RunnableThrowsMatcher.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+
+public class PathCollectorsTest {
+	private static ImmutablePath<Integer, Integer> numberedPath(int first, int nodes) {
+		ArrayPath.ArrayPathBuilder<Integer, Integer> builder = ArrayPath.builder(first);
+		for (int i = first + 1; i < first + nodes; ++ i) {
+			builder.pushBack(-i, i);
+		}
+		return builder.build();
+	}
+
+	@Test
+	public void toPath_collectsNodesInOrder() {
+		RopePath<Integer, Integer> path = IntStream.range(0, 5).boxed()
+				.collect(PathCollectors.toPath((a, b) -> -b));
+
+		assertThat(path, equalTo(numberedPath(0, 5)));
+	}
+
+	@Test
+	public void toPath_joinsPartialPathsFromParallelStreams() {
+		RopePath<Integer, Integer> path = IntStream.range(0, 200000).boxed()
+				.parallel()
+				.collect(PathCollectors.toPath((a, b) -> -b));
+
+		assertThat(path, equalTo(numberedPath(0, 200000)));
+	}
+
+	@Test
+	public void toPath_throwsForEmptyStream() {
+		assertThat(
+				() -> Stream.<Integer>empty().collect(PathCollectors.toPath((a, b) -> 0)),
+				throwsException(instanceOf(NoSuchElementException.class))
+		);
+	}
+
+	@Test
+	public void joining_joinsPathsInOrder() {
+		RopePath<Integer, Integer> path = IntStream.range(0, 1000)
+				.parallel()
+				.mapToObj((i) -> numberedPath(i * 100, 100))
+				.collect(PathCollectors.joining((a, b) -> -b));
+
+		assertThat(path, equalTo(numberedPath(0, 100000)));
+	}
+}
@@ -0,0 +1,113 @@
+package com.davidje13.path;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class PathInternerTest {
+	private final PathInterner<String, Integer> interner = new PathInterner<>();
+
+	private static ImmutablePath<String, Integer> path(String... nodes) {
+		ArrayPath.ArrayPathBuilder<String, Integer> builder = ArrayPath.builder(nodes[0]);
+		for (int i = 1; i < nodes.length; ++ i) {
+			builder.pushBack(i, nodes[i]);
+		}
+		return builder.build();
+	}
+
+	@Test
+	public void intern_returnsFirstInstanceForEqualPaths() {
+		ImmutablePath<String, Integer> path1 = path("a", "b", "c");
+		ImmutablePath<String, Integer> path2 = path("a", "b", "c");
+
+		assertThat(interner.intern(path1), sameInstance(path1));
+		assertThat(interner.intern(path2), sameInstance(path1));
+	}
+
+	@Test
+	public void intern_keepsDifferentPathsSeparate() {
+		ImmutablePath<String, Integer> path1 = path("a", "b", "c");
+		ImmutablePath<String, Integer> path2 = path("a", "b", "d");
+
+		assertThat(interner.intern(path1), sameInstance(path1));
+		assertThat(interner.intern(path2), sameInstance(path2));
+		assertThat(interner.size(), equalTo(2));
+	}
+
+	@Test
+	public void intern_combinesEqualPathsFromDifferentBackends() {
+		ImmutablePath<String, Integer> path1 = path("a", "b");
+		ImmutablePath<String, Integer> path2 = LinkedPath.<String, Integer>builder("a")
+				.pushBack(1, "b")
+				.build();
+
+		interner.intern(path1);
+
+		assertThat(interner.intern(path2), sameInstance(path1));
+	}
+
+	@Test
+	public void intern_handlesManyPaths() {
+		List<ImmutablePath<String, Integer>> paths = new ArrayList<>();
+		for (int i = 0; i < 10000; ++ i) {
+			paths.add(interner.intern(path("n", String.valueOf(i))));
+		}
+
+		for (int i = 0; i < 10000; ++ i) {
+			assertThat(interner.intern(path("n", String.valueOf(i))), sameInstance(paths.get(i)));
+		}
+		assertThat(interner.size(), equalTo(10000));
+	}
+
+	@Test
+	public void constructor_limitsStripesForHugeConcurrencyLevels() {
+		PathInterner<String, Integer> huge = new PathInterner<>(Integer.MAX_VALUE);
+		ImmutablePath<String, Integer> path1 = path("a", "b");
+
+		assertThat(huge.intern(path1), sameInstance(path1));
+		assertThat(huge.intern(path("a", "b")), sameInstance(path1));
+		assertThat(huge.size(), equalTo(1));
+	}
+
+	@Test
+	public void intern_forgetsUnreachablePaths() throws InterruptedException {
+		for (int i = 0; i < 1000; ++ i) {
+			interner.intern(path("n", String.valueOf(i)));
+		}
+
+		for (int attempt = 0; attempt < 50 && interner.size() > 0; ++ attempt) {
+			System.gc();
+			Thread.sleep(10);
+		}
+
+		assertThat(interner.size(), equalTo(0));
+	}
+
+	@Test
+	public void intern_returnsOneInstanceAcrossThreads() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<ImmutablePath<String, Integer>>> results = new ArrayList<>();
+			for (int i = 0; i < 64; ++ i) {
+				results.add(executor.submit(() -> interner.intern(path("x", "y", "z"))));
+			}
+
+			ImmutablePath<String, Integer> canonical = results.get(0).get();
+			for (Future<ImmutablePath<String, Integer>> result : results) {
+				assertThat(result.get(), sameInstance(canonical));
+			}
+			assertThat(canonical, not(sameInstance(path("x", "y", "z"))));
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
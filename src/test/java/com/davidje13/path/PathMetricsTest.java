@@ -0,0 +1,148 @@
+package com.davidje13.path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assume.assumeTrue;
+
+// Metrics are only active when tests run with -Dcom.davidje13.path.metrics=true
+// (as configured by the metricsTest task in build.gradle)
+public class PathMetricsTest {
+	@Before
+	public void requireMetrics() {
+		assumeTrue(PathMetrics.ENABLED);
+		PathMetrics.setRecording(true);
+		PathMetrics.reset();
+	}
+
+	@After
+	public void restore() {
+		PathMetrics.setRecording(PathMetrics.ENABLED);
+		PathMetrics.setListener(null);
+	}
+
+	private static ArrayPath<String, Integer> path(int nodes) {
+		ArrayPath.ArrayPathBuilder<String, Integer> builder = ArrayPath.builder("n0");
+		for (int i = 1; i < nodes; ++ i) {
+			builder.pushBack(i, "n" + i);
+		}
+		return builder.build();
+	}
+
+	@Test
+	public void countsPathsBuiltByBackend() {
+		path(3);
+		LinkedPath.builder("a").pushBack(1, "b").build();
+		LinkedPath.builder("a").build();
+
+		Map<String, Long> built = PathMetrics.getPathsBuilt();
+		assertThat(built.get("ArrayPath"), equalTo(1L));
+		assertThat(built.get("LinkedPath"), equalTo(2L));
+	}
+
+	@Test
+	public void startsAndEndsWithDoNotCreateSubPaths() {
+		ArrayPath<String, Integer> path = path(10);
+		RopePath<String, Integer> rope = RopePath.builder(path).build();
+		ImmutablePath<String, Integer> prefix = LinkedPath.builder(path(3)).build();
+		PathMetrics.reset();
+
+		assertThat(path.startsWith(prefix), equalTo(true));
+		assertThat(path.endsWith(prefix), equalTo(false));
+		assertThat(rope.startsWith(prefix), equalTo(true));
+		assertThat(rope.endsWith(prefix), equalTo(false));
+
+		assertThat(PathMetrics.getCalls(PathMetrics.Operation.SUB_PATH), equalTo(0L));
+	}
+
+	@Test
+	public void countsVisitedElements() {
+		ArrayPath<String, Integer> path = path(4);
+		PathMetrics.reset();
+
+		path.visitFromHead((node) -> {}, (edge) -> {});
+		path.visitPairsFromTail((edge, node) -> {});
+
+		assertThat(PathMetrics.getElementsVisited(), equalTo(7L + 6L));
+	}
+
+	@Test
+	public void timesOperations() {
+		ArrayPath<String, Integer> path = path(10);
+		ImmutablePath<String, Integer> copy = LinkedPath.builder(path).build();
+		PathMetrics.reset();
+
+		path.subPath(2, 4);
+		path.firstIndexOfSubPath(path(2));
+		path.equals(copy);
+		copy.hashCode();
+
+		assertThat(PathMetrics.getCalls(PathMetrics.Operation.SUB_PATH), equalTo(1L));
+		assertThat(PathMetrics.getElements(PathMetrics.Operation.SUB_PATH), equalTo(3L));
+		assertThat(PathMetrics.getCalls(PathMetrics.Operation.INDEX_OF), equalTo(1L));
+		assertThat(PathMetrics.getCalls(PathMetrics.Operation.EQUALS), equalTo(1L));
+		assertThat(PathMetrics.getElements(PathMetrics.Operation.EQUALS), equalTo(10L));
+		assertThat(PathMetrics.getCalls(PathMetrics.Operation.HASH_CODE), equalTo(1L));
+		assertThat(PathMetrics.getElements(PathMetrics.Operation.HASH_CODE), equalTo(10L));
+	}
+
+	@Test
+	public void timesSquashesAndExpansions() {
+		PathSquasher squasher = new PathSquasher();
+		ArrayPath<String, Integer> path = path(5);
+
+		ImmutablePath<Integer, Integer> squashed = squasher.squashNodes(
+				path,
+				(a, b) -> true,
+				ImmutablePath::countNodes,
+				(edge) -> edge
+		);
+		squasher.expandNodes(squashed, (node) -> path(node), (edge) -> edge);
+
+		assertThat(PathMetrics.getCalls(PathMetrics.Operation.SQUASH), equalTo(1L));
+		assertThat(PathMetrics.getElements(PathMetrics.Operation.SQUASH), equalTo(5L));
+		assertThat(PathMetrics.getCalls(PathMetrics.Operation.EXPAND), equalTo(1L));
+		assertThat(PathMetrics.getElements(PathMetrics.Operation.EXPAND), equalTo(5L));
+	}
+
+	@Test
+	public void notifiesListener() {
+		List<PathMetrics.Operation> operations = new ArrayList<>();
+		PathMetrics.setListener((operation, nanos, elements) -> operations.add(operation));
+
+		path(3).subPath(0, 1);
+
+		assertThat(operations.contains(PathMetrics.Operation.SUB_PATH), equalTo(true));
+	}
+
+	@Test
+	public void setRecording_pausesCounting() {
+		PathMetrics.setRecording(false);
+
+		path(3).subPath(0, 1);
+
+		assertThat(PathMetrics.getCalls(PathMetrics.Operation.SUB_PATH), equalTo(0L));
+		assertThat(PathMetrics.getPathsBuilt().isEmpty(), equalTo(true));
+	}
+
+	@Test
+	public void publishesMBean() throws Exception {
+		path(3).subPath(0, 1);
+
+		Object calls = ManagementFactory.getPlatformMBeanServer().getAttribute(
+				new ObjectName(PathMetrics.OBJECT_NAME),
+				"ElementsVisited"
+		);
+
+		assertThat(calls, equalTo(PathMetrics.getElementsVisited()));
+	}
+}
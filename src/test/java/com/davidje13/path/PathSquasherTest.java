@@ -5,10 +5,13 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static java.util.Arrays.asList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
 
 @SuppressWarnings("ArraysAsListWithZeroOrOneArgument")
 public class PathSquasherTest {
@@ -51,6 +54,182 @@ public class PathSquasherTest {
 		));
 	}
 
+	@Test
+	public void squashNodes_writesIntoGivenBuilder() {
+		ImmutablePath<String, Integer> path = testPath("a1", 1, "a2", 2, "b", 3, "b2");
+
+		ImmutablePath<String, Integer> squashedPath = pathSquasher.squashNodes(
+				path,
+				(node1, node2) -> node1.substring(0, 1).equals(node2.substring(0, 1)),
+				ImmutablePath::getTail,
+				(edge) -> edge * 10,
+				ArrayPath::builder
+		);
+
+		assertThat(squashedPath, instanceOf(ArrayPath.class));
+		assertThat(squashedPath, equalTo(testPath("a2", 20, "b2")));
+	}
+
+	@Test
+	public void expandNodes_writesIntoGivenBuilder() {
+		ImmutablePath<String, Integer> path = pathSquasher.expandNodes(
+				testPath("a", 1, "b"),
+				(node) -> testPath(node + "1", 0, node + "2"),
+				(edge) -> edge,
+				RopePath::builder
+		);
+
+		assertThat(path, instanceOf(RopePath.class));
+		assertThat(path, equalTo(testPath("a1", 0, "a2", 1, "b1", 0, "b2")));
+	}
+
+	@Test
+	public void expandNodesLazily_matchesExpandNodes() {
+		ImmutablePath<String, Integer> source = testPath("a", 1, "b", 2, "c");
+		ImmutablePath<String, Integer> expected = pathSquasher.expandNodes(
+				source,
+				this::expandLetter,
+				(edge) -> edge
+		);
+
+		ImmutablePath<String, Integer> path = pathSquasher.expandNodesLazily(
+				source,
+				this::expandLetter,
+				(edge) -> edge
+		);
+
+		assertThat(path, equalTo(expected));
+		assertThat(path.getNodesFromTail(), equalTo(expected.getNodesFromTail()));
+		assertThat(path.getEdgesFromTail(), equalTo(expected.getEdgesFromTail()));
+		assertThat(path.countNodes(), equalTo(expected.countNodes()));
+		for (int i = 0; i < expected.countEdges(); ++ i) {
+			assertThat(path.getNode(i), equalTo(expected.getNode(i)));
+			assertThat(path.getEdge(i), equalTo(expected.getEdge(i)));
+		}
+		for (int start = 0; start < expected.countNodes(); ++ start) {
+			for (int end = start; end < expected.countNodes(); ++ end) {
+				assertThat(path.subPath(start, end), equalTo(expected.subPath(start, end)));
+			}
+		}
+	}
+
+	@Test
+	public void expandNodesLazily_onlyExpandsAccessedNodes() {
+		List<String> expanded = new ArrayList<>();
+		ImmutablePath<String, Integer> path = pathSquasher.expandNodesLazily(
+				testPath("a", 1, "b", 2, "c", 3, "d"),
+				(node) -> {
+					expanded.add(node);
+					return expandLetter(node);
+				},
+				(edge) -> edge
+		);
+
+		assertThat(path.getHead(), equalTo("a0"));
+		assertThat(path.startsWith(testPath("a0", 0, "a1", 0, "a2", 1, "b0")), equalTo(true));
+		assertThat(path.getNode(2), equalTo("a2"));
+		assertThat(expanded, equalTo(asList("a", "b")));
+
+		assertThat(path.getTail(), equalTo("d2"));
+		assertThat(expanded, equalTo(asList("a", "b", "d")));
+
+		path.getNodesFromHead();
+		assertThat(expanded, equalTo(asList("a", "b", "d", "c")));
+	}
+
+	@Test
+	public void expandNodesLazily_searchesOnlyExpandNodesReached() {
+		List<String> expanded = new ArrayList<>();
+		ImmutablePath<String, Integer> path = pathSquasher.expandNodesLazily(
+				testPath("a", 1, "b", 2, "c", 3, "d"),
+				(node) -> {
+					expanded.add(node);
+					return expandLetter(node);
+				},
+				(edge) -> edge
+		);
+
+		assertThat(path.containsSubPath(testPath("a2", 1, "b0")), equalTo(true));
+		assertThat(expanded, equalTo(asList("a", "b")));
+
+		assertThat(path.endsWith(testPath("c2", 3, "d0")), equalTo(false));
+		assertThat(expanded, equalTo(asList("a", "b", "d")));
+	}
+
+	@Test
+	public void expandNodesLazily_visitsSourceOnce() {
+		VisitOnlyPath<Integer, Integer> source = VisitOnlyPath.numbered(1000);
+		ImmutablePath<Integer, Integer> path = pathSquasher.expandNodesLazily(
+				source,
+				(node) -> LinkedPath.<Integer, Integer>builder(node * 2).pushBack(0, node * 2 + 1).build(),
+				(edge) -> edge
+		);
+
+		assertThat(path.countNodes(), equalTo(2000));
+		assertThat(path.getTail(), equalTo(1999));
+		assertThat(path.getEdge(1), equalTo(-1));
+		assertThat(path.nodes().parallel().mapToLong((n) -> n).sum(), equalTo(1999000L));
+		assertThat(source.visited <= 1000 * 2 * 4, equalTo(true));
+	}
+
+	@Test
+	public void squashNodesInParallel_matchesSquashNodes() {
+		Random random = new Random(1);
+		ArrayPath.ArrayPathBuilder<Integer, Integer> builder = ArrayPath.builder(0);
+		for (int i = 1; i < 100000; ++ i) {
+			// runs of varying length, including some which span many chunks
+			int run = (i < 50000) ? random.nextInt(6) : random.nextInt(20000);
+			builder.pushBack(i, (run == 0) ? i : builder.getTail());
+		}
+		ImmutablePath<Integer, Integer> path = builder.build();
+		ForkJoinPool pool = new ForkJoinPool(4);
+
+		for (int size : new int[] { 1, 2, 5000, 8193, 100000 }) {
+			ImmutablePath<Integer, Integer> subPath = path.subPath(0, size - 1);
+			ImmutablePath<List<Object>, Long> expected = pathSquasher.squashNodes(
+					subPath,
+					Integer::equals,
+					this::readAll,
+					(edge) -> (long) edge,
+					ArrayPath::builder
+			);
+
+			ImmutablePath<List<Object>, Long> squashed = pathSquasher.squashNodesInParallel(
+					subPath,
+					Integer::equals,
+					this::readAll,
+					(edge) -> (long) edge,
+					ArrayPath::builder,
+					pool
+			);
+
+			assertThat(squashed, equalTo(expected));
+		}
+		pool.shutdown();
+	}
+
+	@Test
+	public void squashNodesInParallel_combinesSingleGroup() {
+		ArrayPath.ArrayPathBuilder<String, Integer> builder = ArrayPath.builder("a");
+		for (int i = 1; i < 20000; ++ i) {
+			builder.pushBack(i, "a");
+		}
+
+		ImmutablePath<Integer, Integer> squashed = pathSquasher.squashNodesInParallel(
+				builder.build(),
+				String::equals,
+				ImmutablePath::countNodes,
+				(edge) -> edge,
+				LinkedPath::builder
+		);
+
+		assertThat(squashed.getNodesFromHead(), equalTo(asList(20000)));
+	}
+
+	private ImmutablePath<String, Integer> expandLetter(String node) {
+		return testPath(node + "0", 0, node + "1", 0, node + "2");
+	}
+
 	private List<Object> readAll(ImmutablePath<?, ?> path) {
 		List<Object> all = new ArrayList<>();
 		path.visitFromHead(all::add, all::add);
@@ -0,0 +1,124 @@
+package com.davidje13.path;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class PathTrieTest {
+	private final PathTrie<String, Integer, String> trie = new PathTrie<>();
+
+	private static ImmutablePath<String, Integer> path(Object... parts) {
+		LinkedPath.LinkedPathBuilder<String, Integer> builder = LinkedPath.builder((String) parts[0]);
+		for (int i = 1; i < parts.length; i += 2) {
+			builder.pushBack((Integer) parts[i], (String) parts[i + 1]);
+		}
+		return builder.build();
+	}
+
+	@Test
+	public void put_storesValuesByPath() {
+		assertThat(trie.put(path("a", 1, "b"), "ab"), nullValue());
+		assertThat(trie.put(path("a"), "a"), nullValue());
+		assertThat(trie.put(path("a", 1, "b"), "ab2"), equalTo("ab"));
+
+		assertThat(trie.size(), equalTo(2));
+		assertThat(trie.get(path("a", 1, "b")), equalTo("ab2"));
+		assertThat(trie.get(path("a")), equalTo("a"));
+		assertThat(trie.get(path("a", 2, "b")), nullValue());
+		assertThat(trie.get(path("b")), nullValue());
+		assertThat(trie.containsKey(path("a", 1, "b")), equalTo(true));
+		assertThat(trie.containsKey(path("a", 1, "b", 2, "c")), equalTo(false));
+	}
+
+	@Test
+	public void get_distinguishesNodesFromEdges() {
+		PathTrie<Integer, Integer, String> numbers = new PathTrie<>();
+		numbers.put(LinkedPath.<Integer, Integer>builder(1).pushBack(2, 3).build(), "x");
+
+		assertThat(numbers.get(LinkedPath.<Integer, Integer>builder(1).pushBack(3, 2).build()), nullValue());
+	}
+
+	@Test
+	public void remove_deletesValueAndUnusedBranches() {
+		trie.put(path("a", 1, "b", 2, "c"), "abc");
+		trie.put(path("a", 1, "b"), "ab");
+		trie.put(path("a", 1, "x", 3, "y"), "axy");
+
+		assertThat(trie.remove(path("a", 1, "b", 2, "c")), equalTo("abc"));
+		assertThat(trie.remove(path("a", 1, "b", 2, "c")), nullValue());
+		assertThat(trie.remove(path("a")), nullValue());
+		assertThat(trie.size(), equalTo(2));
+		assertThat(trie.countWithPrefix(path("a")), equalTo(2));
+
+		assertThat(trie.remove(path("a", 1, "b")), equalTo("ab"));
+		assertThat(trie.remove(path("a", 1, "x", 3, "y")), equalTo("axy"));
+		assertThat(trie.isEmpty(), equalTo(true));
+		assertThat(trie.countWithPrefix(path("a")), equalTo(0));
+
+		trie.put(path("a", 1, "b"), "again");
+		assertThat(trie.get(path("a", 1, "b")), equalTo("again"));
+	}
+
+	@Test
+	public void remove_keepsLongerPaths() {
+		trie.put(path("a", 1, "b", 2, "c"), "abc");
+		trie.put(path("a", 1, "b"), "ab");
+
+		trie.remove(path("a", 1, "b"));
+
+		assertThat(trie.get(path("a", 1, "b", 2, "c")), equalTo("abc"));
+	}
+
+	@Test
+	public void longestPrefixOf_findsDeepestStoredPrefix() {
+		trie.put(path("a"), "a");
+		trie.put(path("a", 1, "b", 2, "c"), "abc");
+		trie.put(path("a", 1, "b", 2, "c", 3, "d", 4, "e"), "abcde");
+
+		Map.Entry<ImmutablePath<String, Integer>, String> match =
+				trie.longestPrefixOf(path("a", 1, "b", 2, "c", 3, "d", 9, "z"));
+
+		assertThat(match.getKey(), equalTo(path("a", 1, "b", 2, "c")));
+		assertThat(match.getValue(), equalTo("abc"));
+		assertThat(trie.longestPrefixOf(path("a", 5, "b")).getValue(), equalTo("a"));
+		assertThat(trie.longestPrefixOf(path("z")), nullValue());
+	}
+
+	@Test
+	public void visitWithPrefix_visitsMatchingPaths() {
+		trie.put(path("a", 1, "b"), "ab");
+		trie.put(path("a", 1, "b", 2, "c"), "abc");
+		trie.put(path("a", 1, "b", 3, "d"), "abd");
+		trie.put(path("a", 2, "b"), "a2b");
+		trie.put(path("x"), "x");
+
+		Map<ImmutablePath<String, Integer>, String> visited = new HashMap<>();
+		trie.visitWithPrefix(path("a", 1, "b"), visited::put);
+
+		Map<ImmutablePath<String, Integer>, String> expected = new HashMap<>();
+		expected.put(path("a", 1, "b"), "ab");
+		expected.put(path("a", 1, "b", 2, "c"), "abc");
+		expected.put(path("a", 1, "b", 3, "d"), "abd");
+		assertThat(visited, equalTo(expected));
+		assertThat(trie.countWithPrefix(path("a")), equalTo(4));
+	}
+
+	@Test
+	public void visitAll_visitsEveryPath() {
+		trie.put(path("a", 1, "b"), "ab");
+		trie.put(path("x"), "x");
+
+		Map<ImmutablePath<String, Integer>, String> visited = new HashMap<>();
+		trie.visitAll(visited::put);
+
+		Map<ImmutablePath<String, Integer>, String> expected = new HashMap<>();
+		expected.put(path("a", 1, "b"), "ab");
+		expected.put(path("x"), "x");
+		assertThat(visited, equalTo(expected));
+	}
+}
@@ -0,0 +1,161 @@
+package com.davidje13.path;
+
+import com.davidje13.Box;
+import org.junit.Test;
+
+import static com.davidje13.matchers.RunnableThrowsMatcher.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+
+public class RopePathTest {
+	private static final int CHUNK_SIZE = 128;
+
+	@Test
+	public void concatenate_joinsPathsWithEdge() {
+		RopePath<Integer, Integer> path = RopePath.concatenate(
+				numberedPath(0, 3),
+				-3,
+				numberedPath(3, 2)
+		);
+
+		assertThat(path, equalTo(numberedPath(0, 5)));
+	}
+
+	@Test
+	public void concatenate_staysBalancedOverManyJoins() {
+		// An unbalanced tree this deep would overflow the stack when visited
+		ArrayPath<Integer, Integer> segment = numberedPath(0, CHUNK_SIZE + 1);
+		RopePath<Integer, Integer> path = RopePath.of(segment);
+		for (int i = 1; i < 100000; ++ i) {
+			path = RopePath.concatenate(path, -1, segment);
+		}
+
+		Box<Integer> visited = new Box<>(0);
+		//noinspection CodeBlock2Expr
+		path.visitFromHead((n) -> { visited.value ++; }, (e) -> {});
+		assertThat(visited.value, equalTo(100000 * (CHUNK_SIZE + 1)));
+		assertThat(path.getNode(CHUNK_SIZE + 2), equalTo(1));
+	}
+
+	@Test
+	public void getNode_returnsNodeAtIndex() {
+		RopePath<Integer, Integer> path = RopePath.concatenate(
+				numberedPath(0, 300),
+				-300,
+				numberedPath(300, 500)
+		);
+
+		for (int i = 0; i < 800; ++ i) {
+			assertThat(path.getNode(i), equalTo(i));
+		}
+	}
+
+	@Test
+	public void cursor_crossesChunks() {
+		RopePath<Integer, Integer> path = RopePath.concatenate(
+				RopePath.concatenate(numberedPath(0, 300), -300, numberedPath(300, 200)),
+				-500,
+				numberedPath(500, 300)
+		);
+
+		PathCursor<Integer, Integer> cursor = path.cursor();
+		for (int i = 0; i < 799; ++ i) {
+			assertThat(cursor.getNextEdge(), equalTo(-(i + 1)));
+			assertThat(cursor.next(), equalTo(i + 1));
+		}
+		for (int i = 799; i > 0; -- i) {
+			assertThat(cursor.getPrevEdge(), equalTo(-i));
+			assertThat(cursor.prev(), equalTo(i - 1));
+		}
+		assertThat(cursor.seek(500), equalTo(500));
+		assertThat(cursor.getPrevEdge(), equalTo(-500));
+		assertThat(cursor.seek(299), equalTo(299));
+		assertThat(cursor.getNextEdge(), equalTo(-300));
+	}
+
+	@Test
+	public void getEdge_returnsEdgeAtIndex() {
+		RopePath<Integer, Integer> path = RopePath.concatenate(
+				numberedPath(0, 300),
+				-300,
+				numberedPath(300, 500)
+		);
+
+		for (int i = 0; i < 799; ++ i) {
+			assertThat(path.getEdge(i), equalTo(-(i + 1)));
+		}
+	}
+
+	@Test
+	public void getNode_throwsIfOutOfRange() {
+		RopePath<Integer, Integer> path = RopePath.of(numberedPath(0, 3));
+
+		assertThat(() -> path.getNode(-1), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+		assertThat(() -> path.getNode(3), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+		assertThat(() -> path.getEdge(2), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+	}
+
+	@Test
+	public void subPath_matchesArrayPathForAllRanges() {
+		ArrayPath<Integer, Integer> reference = numberedPath(0, 40);
+		SegmentJoiner joiner = new SegmentJoiner();
+		for (int i = 0; i < 40; i += 7) {
+			joiner.add(numberedPath(i, Math.min(7, 40 - i)), -i);
+		}
+		RopePath<Integer, Integer> path = joiner.path;
+
+		for (int start = 0; start < 40; ++ start) {
+			for (int end = start; end < 40; ++ end) {
+				assertThat(path.subPath(start, end), equalTo(reference.subPath(start, end)));
+			}
+		}
+	}
+
+	@Test
+	public void split_isInverseOfConcatenate() {
+		RopePath<Integer, Integer> path = RopePath.of(numberedPath(0, 1000))
+				.toBuilder()
+				.pushBack(-1000, numberedPath(1000, 1000))
+				.build();
+
+		RopePath.Split<Integer, Integer> split = path.split(1499);
+
+		assertThat(split.getBefore(), equalTo(numberedPath(0, 1500)));
+		assertThat(split.getEdge(), equalTo(-1500));
+		assertThat(split.getAfter(), equalTo(numberedPath(1500, 500)));
+		assertThat(
+				RopePath.concatenate(split.getBefore(), split.getEdge(), split.getAfter()),
+				equalTo(path)
+		);
+	}
+
+	@Test
+	public void builder_supportsLongSequencesOfPushFront() {
+		RopePath.RopePathBuilder<Integer, Integer> builder = RopePath.builder(5000);
+		for (int i = 4999; i >= 0; -- i) {
+			builder.pushFront(i, -(i + 1));
+		}
+		for (int i = 5001; i < 10000; ++ i) {
+			builder.pushBack(-i, i);
+		}
+
+		assertThat(builder.build(), equalTo(numberedPath(0, 10000)));
+	}
+
+	private static ArrayPath<Integer, Integer> numberedPath(int first, int count) {
+		ArrayPath.ArrayPathBuilder<Integer, Integer> builder = ArrayPath.builder(first);
+		for (int i = first + 1; i < first + count; ++ i) {
+			builder.pushBack(-i, i);
+		}
+		return builder.build();
+	}
+
+	private static class SegmentJoiner {
+		private RopePath<Integer, Integer> path = null;
+
+		private void add(ImmutablePath<Integer, Integer> segment, int joiner) {
+			path = (path == null) ? RopePath.of(segment) : RopePath.concatenate(path, joiner, segment);
+		}
+	}
+}
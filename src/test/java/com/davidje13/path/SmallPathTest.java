@@ -0,0 +1,118 @@
+package com.davidje13.path;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.davidje13.matchers.RunnableThrowsMatcher.throwsException;
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+
+public class SmallPathTest {
+	private final ImmutablePath<String, Integer> path1 = SmallPath.of("a");
+	private final ImmutablePath<String, Integer> path2 = SmallPath.of("a", 1, "b");
+	private final ImmutablePath<String, Integer> path3 = SmallPath.of("a", 1, "b", 2, "c");
+
+	private static ImmutablePath<String, Integer> linkedPath(Object... parts) {
+		LinkedPath.LinkedPathBuilder<String, Integer> builder = LinkedPath.builder((String) parts[0]);
+		for (int i = 1; i < parts.length; i += 2) {
+			builder.pushBack((Integer) parts[i], (String) parts[i + 1]);
+		}
+		return builder.build();
+	}
+
+	@Test
+	public void of_matchesEquivalentPaths() {
+		assertThat(path1, equalTo(linkedPath("a")));
+		assertThat(path2, equalTo(linkedPath("a", 1, "b")));
+		assertThat(path3, equalTo(linkedPath("a", 1, "b", 2, "c")));
+		assertThat(linkedPath("a", 1, "b", 2, "c"), equalTo(path3));
+		assertThat(path3.hashCode(), equalTo(linkedPath("a", 1, "b", 2, "c").hashCode()));
+		assertThat(path3, equalTo(SmallPath.of("a", 1, "b", 2, "c")));
+	}
+
+	@Test
+	public void getNode_returnsNodesAndEdgesByIndex() {
+		assertThat(path3.getHead(), equalTo("a"));
+		assertThat(path3.getNode(1), equalTo("b"));
+		assertThat(path3.getTail(), equalTo("c"));
+		assertThat(path3.getEdge(0), equalTo(1));
+		assertThat(path3.getEdge(1), equalTo(2));
+		assertThat(path1.getTail(), equalTo("a"));
+		assertThat(path2.getTail(), equalTo("b"));
+	}
+
+	@Test
+	public void getNode_throwsIfOutOfRange() {
+		assertThat(() -> path1.getNode(1), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+		assertThat(() -> path1.getEdge(0), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+		assertThat(() -> path3.getNode(-1), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+		assertThat(() -> path3.getEdge(2), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+	}
+
+	@Test
+	public void visitFromTail_visitsAllElementsInReverse() {
+		List<Object> seen = new ArrayList<>();
+		path3.visitFromTail(seen::add, seen::add);
+
+		assertThat(seen, equalTo(asList("c", 2, "b", 1, "a")));
+	}
+
+	@Test
+	public void subPath_returnsSmallPaths() {
+		assertThat(path3.subPath(0, 2), equalTo(path3));
+		assertThat(path3.subPath(1, 2), equalTo(linkedPath("b", 2, "c")));
+		assertThat(path3.subPath(1, 1), equalTo(linkedPath("b")));
+		assertThat(path3.subPath(0, 1), instanceOf(SmallPath.class));
+		assertThat(() -> path2.subPath(1, 2), throwsException(instanceOf(IndexOutOfBoundsException.class)));
+	}
+
+	@Test
+	public void toBuilder_createsArrayPathBuilder() {
+		ImmutablePath<String, Integer> path = path3.toBuilder().pushBack(3, "d").build();
+
+		assertThat(path, instanceOf(ArrayPath.class));
+		assertThat(path, equalTo(linkedPath("a", 1, "b", 2, "c", 3, "d")));
+	}
+
+	@Test
+	public void buildCompact_returnsSmallPathsForTinyPaths() {
+		ImmutablePath<String, Integer> linked = LinkedPath.<String, Integer>builder("b")
+				.pushFront("a", 1)
+				.pushBack(2, "c")
+				.buildCompact();
+		ImmutablePath<String, Integer> array = ArrayPath.<String, Integer>builder("b")
+				.pushFront("a", 1)
+				.pushBack(2, "c")
+				.buildCompact();
+
+		assertThat(linked, instanceOf(SmallPath.class));
+		assertThat(linked, equalTo(path3));
+		assertThat(array, instanceOf(SmallPath.class));
+		assertThat(array, equalTo(path3));
+		assertThat(LinkedPath.<String, Integer>builder("a").buildCompact(), equalTo(path1));
+		assertThat(ArrayPath.<String, Integer>builder("a").pushBack(1, "b").buildCompact(), equalTo(path2));
+	}
+
+	@Test
+	public void buildCompact_usesBackendForLargerPaths() {
+		ImmutablePath<String, Integer> linked = LinkedPath.builder(path3).pushBack(3, "d").buildCompact();
+		ImmutablePath<String, Integer> array = ArrayPath.builder(path3).pushBack(3, "d").buildCompact();
+
+		assertThat(linked, instanceOf(LinkedPath.class));
+		assertThat(array, instanceOf(ArrayPath.class));
+		assertThat(array, equalTo(linkedPath("a", 1, "b", 2, "c", 3, "d")));
+	}
+
+	@Test
+	public void copyIfSmall_onlyCopiesTinyPaths() {
+		ImmutablePath<String, Integer> large = linkedPath("a", 1, "b", 2, "c", 3, "d");
+
+		assertThat(SmallPath.copyIfSmall(linkedPath("a", 1, "b")), instanceOf(SmallPath.class));
+		assertThat(SmallPath.copyIfSmall(linkedPath("a", 1, "b")), equalTo(path2));
+		assertThat(SmallPath.copyIfSmall(large) == large, equalTo(true));
+	}
+}
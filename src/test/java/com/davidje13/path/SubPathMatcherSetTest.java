@@ -0,0 +1,133 @@
+package com.davidje13.path;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+@SuppressWarnings("ArraysAsListWithZeroOrOneArgument")
+public class SubPathMatcherSetTest {
+	@Test
+	public void findAll_reportsEveryOccurrenceOfEveryPattern() {
+		ImmutablePath<String, Integer> ab = testPath("a", 1, "b");
+		ImmutablePath<String, Integer> b = testPath("b");
+		ImmutablePath<String, Integer> abc = testPath("a", 1, "b", 2, "c");
+		SubPathMatcherSet<String, Integer> matchers = new SubPathMatcherSet<>(asList(ab, b, abc));
+
+		List<String> found = findAll(matchers, testPath("a", 1, "b", 2, "c", 3, "a", 1, "b"));
+
+		assertThat(found, equalTo(asList(
+				"a, 1, b @ 0",
+				"b @ 1",
+				"a, 1, b, 2, c @ 0",
+				"a, 1, b @ 3",
+				"b @ 4"
+		)));
+	}
+
+	@Test
+	public void findAll_reportsOverlappingMatches() {
+		SubPathMatcherSet<String, Integer> matchers = new SubPathMatcherSet<>(asList(
+				testPath("a", 1, "a")
+		));
+
+		List<String> found = findAll(matchers, testPath("a", 1, "a", 1, "a", 2, "a", 1, "a"));
+
+		assertThat(found, equalTo(asList("a, 1, a @ 0", "a, 1, a @ 1", "a, 1, a @ 3")));
+	}
+
+	@Test
+	public void findAll_followsFailureLinksIntoOtherPatterns() {
+		SubPathMatcherSet<String, Integer> matchers = new SubPathMatcherSet<>(asList(
+				testPath("a", 1, "b", 2, "x"),
+				testPath("b", 2, "c")
+		));
+
+		List<String> found = findAll(matchers, testPath("a", 1, "b", 2, "c"));
+
+		assertThat(found, equalTo(asList("b, 2, c @ 1")));
+	}
+
+	@Test
+	public void findAll_doesNotMatchNodesAgainstEdges() {
+		SubPathMatcherSet<Integer, Integer> matchers = new SubPathMatcherSet<>(asList(
+				ArrayPath.<Integer, Integer>builder(1).pushBack(2, 3).build(),
+				new ArrayPath<>(4)
+		));
+
+		List<String> found = new ArrayList<>();
+		matchers.findAll(
+				ArrayPath.<Integer, Integer>builder(0).pushBack(1, 2).pushBack(3, 4).build(),
+				(pattern, index) -> found.add(pattern + " @ " + index)
+		);
+
+		assertThat(found, equalTo(asList("4 @ 2")));
+	}
+
+	@Test
+	public void matchesAny_returnsTrueIfAnyPatternIsFound() {
+		SubPathMatcherSet<String, Integer> matchers = new SubPathMatcherSet<>(asList(
+				testPath("x"),
+				testPath("b", 2, "c")
+		));
+
+		assertThat(matchers.matchesAny(testPath("a", 1, "b", 2, "c")), equalTo(true));
+		assertThat(matchers.matchesAny(testPath("a", 1, "b", 3, "c")), equalTo(false));
+	}
+
+	@Test
+	public void findAll_canBeUsedFromMultipleThreads() throws Exception {
+		SubPathMatcherSet<String, Integer> matchers = new SubPathMatcherSet<>(asList(
+				testPath("a", 1, "b")
+		));
+		ImmutablePath<String, Integer> path = testPath("a", 1, "b", 1, "a", 1, "b");
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<List<String>>> results = new ArrayList<>();
+			for (int i = 0; i < 16; ++ i) {
+				results.add(executor.submit(() -> findAll(matchers, path)));
+			}
+			for (Future<List<String>> result : results) {
+				assertThat(result.get(), equalTo(asList("a, 1, b @ 0", "a, 1, b @ 2")));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void findAll_findsNothingWithNoPatterns() {
+		SubPathMatcherSet<String, Integer> matchers = new SubPathMatcherSet<>(Collections.emptyList());
+
+		assertThat(findAll(matchers, testPath("a", 1, "b")), equalTo(asList()));
+	}
+
+	private static List<String> findAll(
+			SubPathMatcherSet<String, Integer> matchers,
+			ImmutablePath<String, Integer> path
+	) {
+		List<String> found = new ArrayList<>();
+		matchers.findAll(path, (pattern, index) -> found.add(pattern + " @ " + index));
+		return found;
+	}
+
+	private static ImmutablePath<String, Integer> testPath(Object... parts) {
+		ArrayPath.ArrayPathBuilder<String, Integer> builder =
+				ArrayPath.builder((String) parts[0]);
+
+		for (int i = 1; i < parts.length; i += 2) {
+			builder.pushBack((Integer) parts[i], (String) parts[i + 1]);
+		}
+
+		return builder.build();
+	}
+}
@@ -0,0 +1,63 @@
+package com.davidje13.path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * A path which only implements the abstract methods of
+ * {@link ImmutablePath}, so that the default implementations can be tested.
+ * Counts the number of nodes and edges it visits.
+ */
+class VisitOnlyPath<NodeT, EdgeT> extends ComparablePath<NodeT, EdgeT> {
+	private final List<NodeT> nodes;
+	private final List<EdgeT> edges;
+	int visited = 0;
+
+	VisitOnlyPath(List<NodeT> nodes, List<EdgeT> edges) {
+		this.nodes = nodes;
+		this.edges = edges;
+	}
+
+	static VisitOnlyPath<Integer, Integer> numbered(int size) {
+		List<Integer> nodes = new ArrayList<>();
+		List<Integer> edges = new ArrayList<>();
+		nodes.add(0);
+		for (int i = 1; i < size; ++ i) {
+			edges.add(-i);
+			nodes.add(i);
+		}
+		return new VisitOnlyPath<>(nodes, edges);
+	}
+
+	@Override
+	public LinkedPath.LinkedPathBuilder<NodeT, EdgeT> builderFromNode(NodeT node) {
+		return LinkedPath.builder(node);
+	}
+
+	@Override
+	public NodeT getHead() {
+		return nodes.get(0);
+	}
+
+	@Override
+	public NodeT getTail() {
+		return nodes.get(nodes.size() - 1);
+	}
+
+	@Override
+	public void visitPairsFromHead(BiConsumer<? super EdgeT, ? super NodeT> visitor) {
+		for (int i = 0; i < edges.size(); ++ i) {
+			visited += 2;
+			visitor.accept(edges.get(i), nodes.get(i + 1));
+		}
+	}
+
+	@Override
+	public void visitPairsFromTail(BiConsumer<? super EdgeT, ? super NodeT> visitor) {
+		for (int i = edges.size(); i > 0; -- i) {
+			visited += 2;
+			visitor.accept(edges.get(i - 1), nodes.get(i - 1));
+		}
+	}
+}